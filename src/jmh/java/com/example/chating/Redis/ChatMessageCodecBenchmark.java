@@ -0,0 +1,102 @@
+package com.example.chating.Redis;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.domain.MessageType;
+import com.example.chating.domain.chat.ChatRoom;
+import com.example.chating.global.config.RedisConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChatMessage 와 Redis 캐시 값 직렬화 / 역직렬화
+ * - app: STOMP 메시지 변환에 쓰는 ObjectMapper (Spring Boot 기본 설정)
+ * - legacyRedis: 이전 RedisConfig 형식 (DefaultTyping.EVERYTHING JSON)
+ * - compactRedis: 현재 RedisConfig 값 직렬화기
+ * - value: chatMessage (최근 메시지 캐시), id (집합 / 해시에 저장하는 ID), preview (최신 메시지 미리보기), chatRoom (채팅방 캐시)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChatMessageCodecBenchmark {
+
+    @Param({"chatMessage", "id", "preview", "chatRoom"})
+    public String value;
+
+    private ObjectMapper appObjectMapper;
+    private GenericJackson2JsonRedisSerializer legacyRedisSerializer;
+    private CompactRedisSerializer compactRedisSerializer;
+
+    private Object message;
+    private byte[] appJson;
+    private byte[] legacyRedisBytes;
+    private byte[] compactRedisBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        appObjectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        legacyRedisSerializer = new GenericJackson2JsonRedisSerializer(RedisConfig.legacyObjectMapper());
+        compactRedisSerializer = new CompactRedisSerializer(legacyRedisSerializer, false);
+
+        message = switch (value) {
+            case "chatMessage" -> new ChatMessage(123456789012346L, MessageType.TALK, "123456789012345", 987654321L,
+                    "하은", "안녕하세요, 오늘 스터디는 7시에 시작합니다.", LocalDateTime.of(2025, 1, 2, 3, 4, 5, 123_456_789));
+            case "id" -> 123456789012345L;
+            case "preview" -> "latest message preview";
+            case "chatRoom" -> ChatRoom.builder()
+                    .id(123456789012345L)
+                    .name("스터디 채팅방")
+                    .createdAt(LocalDateTime.of(2025, 1, 2, 3, 4, 5, 6_000_000))
+                    .updatedAt(LocalDateTime.of(2025, 1, 3, 3, 4, 5))
+                    .build();
+            default -> throw new IllegalArgumentException(value);
+        };
+        appJson = appObjectMapper.writeValueAsBytes(message);
+        legacyRedisBytes = legacyRedisSerializer.serialize(message);
+        compactRedisBytes = compactRedisSerializer.serialize(message);
+    }
+
+    @Benchmark
+    public byte[] appEncode() throws Exception {
+        return appObjectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public Object appDecode() throws Exception {
+        return appObjectMapper.readValue(appJson, message.getClass());
+    }
+
+    @Benchmark
+    public byte[] legacyRedisEncode() {
+        return legacyRedisSerializer.serialize(message);
+    }
+
+    @Benchmark
+    public Object legacyRedisDecode() {
+        return legacyRedisSerializer.deserialize(legacyRedisBytes);
+    }
+
+    @Benchmark
+    public byte[] compactRedisEncode() {
+        return compactRedisSerializer.serialize(message);
+    }
+
+    @Benchmark
+    public Object compactRedisDecode() {
+        return compactRedisSerializer.deserialize(compactRedisBytes);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.domain.Emoji;
+import com.example.chating.domain.MessageType;
+import com.example.chating.domain.User;
+import com.example.chating.domain.chat.ChatRoom;
+import com.example.chating.domain.chat.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 메시지 조회 페이지의 엔티티 -> ChatMessage 변환 (MessageService.toChatMessage)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageMappingBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private List<Message> page;
+
+    @Setup
+    public void setUp() {
+        ChatRoom chatRoom = ChatRoom.builder().id(123456789012345L).name("room").build();
+        User sender = User.builder().id(42L).name("haeun").emoji(Emoji.ETC).build();
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(Message.builder()
+                    .id(123456789012346L + i)
+                    .chatRoom(chatRoom)
+                    .sender(sender)
+                    .content("message " + i)
+                    .messageType(MessageType.TALK)
+                    .sentAt(LocalDateTime.of(2025, 1, 2, 3, 4, 5))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<ChatMessage> toChatMessages() {
+        return page.stream()
+                .map(MessageService::toChatMessage)
+                .collect(Collectors.toList());
+    }
+}
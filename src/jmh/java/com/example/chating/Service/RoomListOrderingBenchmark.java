@@ -0,0 +1,48 @@
+package com.example.chating.Service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅방 목록의 채팅방 ID 파싱 / 정렬 (getChatRoomsByUser)
+ * - 활동 순서 인덱스의 ZREVRANGE WITHSCORES 결과를 채팅방 ID / 점수 목록으로 변환
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RoomListOrderingBenchmark {
+
+    @Param({"10", "200", "2000"})
+    public int roomCount;
+
+    private Set<ZSetOperations.TypedTuple<Object>> tuples;
+
+    @Setup
+    public void setUp() {
+        // ZREVRANGE 결과와 같이 최신순, 초기화 표시 멤버가 마지막
+        tuples = new LinkedHashSet<>();
+        long now = 1_735_000_000_000L;
+        for (int i = 0; i < roomCount; i++) {
+            tuples.add(new DefaultTypedTuple<>(String.valueOf(123456789012345L + i), (double) (now - i * 1_000L)));
+        }
+        tuples.add(new DefaultTypedTuple<>("_initialized", -1.0));
+    }
+
+    @Benchmark
+    public List<RoomActivityIndexService.RoomActivity> toRoomActivities() {
+        return RoomActivityIndexService.toRoomActivities(tuples);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.chating.global;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenProvider.extractClaims (REST 요청마다 호출)
+ * - verified: 검증 캐시 적중
+ * - uncached: 캐시 없이 매번 HS512 서명 검증 (공유 파서)
+ * - newParser: 이전 방식, 요청(프레임)마다 파서 생성 + HS512 서명 검증
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenProviderBenchmark {
+
+    private TokenProvider cachedTokenProvider;
+    private TokenProvider uncachedTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedTokenProvider = new TokenProvider(10_000);
+        uncachedTokenProvider = new TokenProvider(0);
+        token = cachedTokenProvider.generateToken("haeun", 42L);
+        cachedTokenProvider.extractClaims(token);
+    }
+
+    @Benchmark
+    public Claims extractClaimsVerified() {
+        return cachedTokenProvider.extractClaims(token);
+    }
+
+    @Benchmark
+    public Claims extractClaimsUncached() {
+        return uncachedTokenProvider.extractClaims(token);
+    }
+
+    @Benchmark
+    public Claims extractClaimsNewParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(TokenProvider.SECRET_KEY)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.chating.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 부하 테스트 준비용 REST 호출 (가입, 로그인, 채팅방 생성 / 초대)
+ */
+class ChatApiClient {
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    ChatApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    // 가입 후 로그인하여 사용자 ID / 토큰 반환
+    LoadUser signUpAndLogin(String username, String password) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/signup"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+        JsonNode login = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+        return new LoadUser(login.get("id").asLong(), login.get("token").asText());
+    }
+
+    Long createChatRoom(String token, String name) throws IOException, InterruptedException {
+        JsonNode chatRoom = send(HttpRequest.newBuilder(URI.create(baseUrl + "/chat/rooms?name="
+                        + URLEncoder.encode(name, StandardCharsets.UTF_8)))
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build());
+        return chatRoom.get("id").asLong();
+    }
+
+    void addUserToChatRoom(String token, Long roomId, Long userId) throws IOException, InterruptedException {
+        send(HttpRequest.newBuilder(URI.create(baseUrl + "/chat/rooms/" + roomId + "/users?userId=" + userId))
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(request.method() + " " + request.uri() + " failed: " + response.statusCode() + " " + response.body());
+        }
+        String body = response.body();
+        return body.isBlank() || !body.trim().startsWith("{") ? objectMapper.nullNode() : objectMapper.readTree(body);
+    }
+
+    record LoadUser(Long userId, String token) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.chating.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 테스트 설정 (--key=value 인자)
+ *
+ * @param baseUrl        대상 서버 (http://host:port)
+ * @param transport      native(WebSocket) / sockjs
+ * @param connections    STOMP 연결(사용자) 수
+ * @param roomSizes      채팅방 크기 분포 (크기:비율, 예: 2:70,10:25,100:5)
+ * @param rate           초당 전체 전송 메시지 수
+ * @param warmupSeconds  측정에서 제외할 처음 시간
+ * @param durationSeconds 측정 시간
+ * @param payloadBytes   메시지 본문 크기
+ * @param setupParallelism 가입 / 로그인 / 연결 동시 실행 수
+ * @param histogramFile  HdrHistogram 백분위 분포 출력 파일 (없으면 출력 안 함)
+ */
+record LoadTestOptions(String baseUrl,
+                       String transport,
+                       int connections,
+                       List<RoomSize> roomSizes,
+                       int rate,
+                       int warmupSeconds,
+                       int durationSeconds,
+                       int payloadBytes,
+                       int setupParallelism,
+                       String histogramFile) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                values.getOrDefault("url", "http://localhost:8080"),
+                values.getOrDefault("transport", "native"),
+                Integer.parseInt(values.getOrDefault("connections", "1000")),
+                parseRoomSizes(values.getOrDefault("room-sizes", "2:70,10:25,100:5")),
+                Integer.parseInt(values.getOrDefault("rate", "500")),
+                Integer.parseInt(values.getOrDefault("warmup", "10")),
+                Integer.parseInt(values.getOrDefault("duration", "60")),
+                Integer.parseInt(values.getOrDefault("payload-bytes", "64")),
+                Integer.parseInt(values.getOrDefault("setup-parallelism", "64")),
+                values.get("histogram-file")
+        );
+        if (!options.transport.equals("native") && !options.transport.equals("sockjs")) {
+            throw new IllegalArgumentException("transport must be native or sockjs: " + options.transport);
+        }
+        return options;
+    }
+
+    private static List<RoomSize> parseRoomSizes(String value) {
+        List<RoomSize> roomSizes = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            roomSizes.add(new RoomSize(Integer.parseInt(parts[0]), parts.length > 1 ? Integer.parseInt(parts[1]) : 1));
+        }
+        return roomSizes;
+    }
+
+    // 채팅방 크기와 선택 비율
+    record RoomSize(int size, int weight) {
+    }
+}
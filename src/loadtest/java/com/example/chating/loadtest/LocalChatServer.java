@@ -0,0 +1,34 @@
+package com.example.chating.loadtest;
+
+import com.example.chating.ChatingApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+
+/**
+ * 부하 테스트 대상 서버를 외부 MySQL / Redis 없이 실행합니다.
+ * - 임베디드 Redis 를 띄운 뒤 local 프로필(H2 인메모리 DB)로 애플리케이션을 시작합니다.
+ * - 실행: ./gradlew loadtestServer (추가 설정은 --key=value 인자로 전달)
+ */
+public class LocalChatServer {
+
+    private static final int REDIS_PORT = Integer.getInteger("loadtest.redis.port", 6380);
+
+    public static void main(String[] args) throws IOException {
+        RedisServer redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                redisServer.stop();
+            } catch (IOException e) {
+                System.err.println("Failed to stop embedded Redis: " + e.getMessage());
+            }
+        }));
+
+        new SpringApplicationBuilder(ChatingApplication.class)
+                .profiles("local")
+                .properties("spring.data.redis.port=" + REDIS_PORT)
+                .run(args);
+    }
+}
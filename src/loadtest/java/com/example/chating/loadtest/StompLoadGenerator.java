@@ -0,0 +1,306 @@
+package com.example.chating.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.RestTemplateXhrTransport;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * /ws/chat STOMP 부하 생성기
+ * - 사용자 가입 / 로그인 후 채팅방 크기 분포에 따라 채팅방을 만들고, 사용자마다 STOMP 연결(native / SockJS)을 엽니다.
+ * - 각 연결은 자기 채팅방(/topic/{roomId})을 구독하고, 목표 전송률에 맞춰 임의의 연결에서 /app/chat/{roomId} 로 전송합니다.
+ * - 메시지 본문에 예정 전송 시각을 넣어 수신 시 지연 시간을 HdrHistogram 에 기록합니다.
+ *   (전송이 밀려도 예정 시각 기준으로 측정하여 coordinated omission 을 피함)
+ * - 실행: ./gradlew loadtestServer 로 서버를 띄운 뒤 ./gradlew loadtest -PloadtestArgs="--connections=2000 --rate=1000"
+ */
+public class StompLoadGenerator {
+
+    private static final String LATENCY_MARKER = "lt|";
+    private static final String PASSWORD = "loadtest";
+
+    private final LoadTestOptions options;
+    private final ChatApiClient api;
+
+    // 수신 지연 시간 (마이크로초, 자동 크기 조정)
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder received = new LongAdder();
+    private final LongAdder sendErrors = new LongAdder();
+    private final LongAdder transportErrors = new LongAdder();
+
+    // 이 시각 이후에 예정된 메시지만 측정 (warmup 제외)
+    private volatile long measureFromNanos = Long.MAX_VALUE;
+
+    StompLoadGenerator(LoadTestOptions options) {
+        this.options = options;
+        this.api = new ChatApiClient(options.baseUrl());
+    }
+
+    public static void main(String[] args) throws Exception {
+        int exitCode = 0;
+        try {
+            new StompLoadGenerator(LoadTestOptions.parse(args)).run();
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        }
+        // WebSocket 클라이언트 스레드가 남아 있어도 종료
+        System.exit(exitCode);
+    }
+
+    void run() throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        ExecutorService setup = Executors.newFixedThreadPool(options.setupParallelism());
+        try {
+            // 1. 사용자 가입 / 로그인
+            long started = System.nanoTime();
+            List<ChatApiClient.LoadUser> users = parallel(setup, options.connections(),
+                    index -> api.signUpAndLogin("lt-" + runId + "-" + index, PASSWORD));
+            System.out.printf("Signed up %d users in %d ms%n", users.size(), elapsedMillis(started));
+
+            // 2. 채팅방 생성 / 초대 (크기 분포에 따라 사용자를 순서대로 나눔)
+            started = System.nanoTime();
+            List<int[]> groups = planRooms(users.size());
+            List<Long> roomIds = parallel(setup, groups.size(), index -> createRoom(runId, index, groups.get(index), users));
+            Connection[] plan = new Connection[users.size()];
+            for (int g = 0; g < groups.size(); g++) {
+                for (int userIndex : groups.get(g)) {
+                    plan[userIndex] = new Connection(null, roomIds.get(g), groups.get(g).length);
+                }
+            }
+            System.out.printf("Created %d rooms (%s) in %d ms%n", groups.size(), options.roomSizes(), elapsedMillis(started));
+
+            // 3. STOMP 연결 / 구독
+            started = System.nanoTime();
+            WebSocketStompClient stompClient = createStompClient();
+            List<Connection> connections = parallel(setup, users.size(),
+                    index -> connect(stompClient, users.get(index), plan[index]));
+            // SUBSCRIBE 는 비동기로 처리되므로 잠시 대기
+            Thread.sleep(1_000);
+            System.out.printf("Opened %d %s connections in %d ms%n", connections.size(), options.transport(), elapsedMillis(started));
+
+            // 4. 전송 / 측정
+            Result result = sendAtTargetRate(connections);
+            report(result, groups.size());
+
+            connections.forEach(connection -> connection.session().disconnect());
+            stompClient.stop();
+        } finally {
+            setup.shutdownNow();
+        }
+    }
+
+    private List<int[]> planRooms(int userCount) {
+        int totalWeight = options.roomSizes().stream().mapToInt(LoadTestOptions.RoomSize::weight).sum();
+        Random random = new Random(42);
+        List<int[]> groups = new ArrayList<>();
+        int next = 0;
+        while (next < userCount) {
+            int pick = random.nextInt(totalWeight);
+            int size = 1;
+            for (LoadTestOptions.RoomSize roomSize : options.roomSizes()) {
+                pick -= roomSize.weight();
+                if (pick < 0) {
+                    size = roomSize.size();
+                    break;
+                }
+            }
+            size = Math.min(Math.max(size, 1), userCount - next);
+            int[] members = new int[size];
+            for (int i = 0; i < size; i++) {
+                members[i] = next++;
+            }
+            groups.add(members);
+        }
+        return groups;
+    }
+
+    private Long createRoom(String runId, int index, int[] members, List<ChatApiClient.LoadUser> users) throws Exception {
+        String ownerToken = users.get(members[0]).token();
+        Long roomId = api.createChatRoom(ownerToken, "lt-" + runId + "-room-" + index);
+        for (int member : members) {
+            api.addUserToChatRoom(ownerToken, roomId, users.get(member).userId());
+        }
+        return roomId;
+    }
+
+    private WebSocketStompClient createStompClient() {
+        WebSocketClient webSocketClient = new StandardWebSocketClient();
+        WebSocketStompClient stompClient = options.transport().equals("sockjs")
+                ? new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(webSocketClient), new RestTemplateXhrTransport())))
+                : new WebSocketStompClient(webSocketClient);
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setDefaultHeartbeat(new long[]{0, 0});
+        return stompClient;
+    }
+
+    private Connection connect(WebSocketStompClient stompClient, ChatApiClient.LoadUser user, Connection plan) throws Exception {
+        // SockJS 는 엔드포인트 URL, native WebSocket 은 SockJS 의 raw WebSocket 경로 사용
+        String url = options.transport().equals("sockjs")
+                ? options.baseUrl() + "/ws/chat"
+                : options.baseUrl().replaceFirst("^http", "ws") + "/ws/chat/websocket";
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + user.token());
+
+        StompSession session = stompClient.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+            @Override
+            public void handleTransportError(StompSession session, Throwable exception) {
+                transportErrors.increment();
+            }
+
+            @Override
+            public void handleException(StompSession session, StompCommand command, StompHeaders headers, byte[] payload, Throwable exception) {
+                transportErrors.increment();
+            }
+        }).get(30, TimeUnit.SECONDS);
+
+        session.subscribe("/topic/" + plan.roomId(), new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                onMessage((JsonNode) payload);
+            }
+        });
+        return new Connection(session, plan.roomId(), plan.roomSize());
+    }
+
+    private void onMessage(JsonNode message) {
+        long receivedAt = System.nanoTime();
+        JsonNode content = message.get("content");
+        if (content == null || !content.asText().startsWith(LATENCY_MARKER)) {
+            return;
+        }
+        String text = content.asText();
+        int end = text.indexOf('|', LATENCY_MARKER.length());
+        long scheduledAt = Long.parseLong(text.substring(LATENCY_MARKER.length(), end));
+        if (scheduledAt < measureFromNanos) {
+            return;
+        }
+        recorder.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(receivedAt - scheduledAt)));
+        received.increment();
+    }
+
+    private Result sendAtTargetRate(List<Connection> connections) throws InterruptedException {
+        String padding = "x".repeat(Math.max(0, options.payloadBytes() - 24));
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        measureFromNanos = measureFrom;
+        Random random = new Random();
+
+        long sent = 0;
+        long expectedDeliveries = 0;
+        long next = start;
+        while (next < end) {
+            long now = System.nanoTime();
+            if (now < next) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            Connection connection = connections.get(random.nextInt(connections.size()));
+            try {
+                connection.session().send("/app/chat/" + connection.roomId(),
+                        Map.of("content", LATENCY_MARKER + next + "|" + padding, "messageType", "TALK"));
+                if (next >= measureFrom) {
+                    sent++;
+                    expectedDeliveries += connection.roomSize();
+                }
+            } catch (RuntimeException e) {
+                sendErrors.increment();
+            }
+            next += intervalNanos;
+        }
+        long sendingEnded = System.nanoTime();
+
+        // 남은 메시지 수신 대기 (최대 10초)
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received.sum() < expectedDeliveries && System.nanoTime() < drainUntil) {
+            Thread.sleep(100);
+        }
+        double measuredSeconds = (sendingEnded - measureFrom) / 1e9;
+        return new Result(sent, sent / measuredSeconds, expectedDeliveries, received.sum(), recorder.getIntervalHistogram());
+    }
+
+    private void report(Result result, int rooms) throws FileNotFoundException {
+        Histogram histogram = result.latency();
+        double lossPercent = result.expectedDeliveries() == 0
+                ? 0 : 100.0 * (result.expectedDeliveries() - result.received()) / result.expectedDeliveries();
+
+        System.out.println();
+        System.out.printf("transport=%s connections=%d rooms=%d targetRate=%d/s duration=%ds%n",
+                options.transport(), options.connections(), rooms, options.rate(), options.durationSeconds());
+        System.out.printf("sent=%d (%.0f/s) expectedDeliveries=%d received=%d (%.0f/s) loss=%.2f%% sendErrors=%d transportErrors=%d%n",
+                result.sent(), result.sendRate(), result.expectedDeliveries(), result.received(),
+                result.received() / (double) options.durationSeconds(), lossPercent, sendErrors.sum(), transportErrors.sum());
+        System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f p999=%.2f max=%.2f%n",
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+
+        if (options.histogramFile() != null) {
+            try (PrintStream out = new PrintStream(options.histogramFile())) {
+                histogram.outputPercentileDistribution(out, 1000.0); // ms 단위
+            }
+            System.out.println("Wrote latency distribution to " + options.histogramFile());
+        }
+    }
+
+    private static <T> List<T> parallel(ExecutorService executor, int count, IndexedTask<T> task) throws Exception {
+        List<Future<T>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> task.run(index)));
+        }
+        List<T> results = new ArrayList<>(count);
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private interface IndexedTask<T> {
+        T run(int index) throws Exception;
+    }
+
+    private record Connection(StompSession session, Long roomId, int roomSize) {
+    }
+
+    private record Result(long sent, double sendRate, long expectedDeliveries, long received, Histogram latency) {
+    }
+}
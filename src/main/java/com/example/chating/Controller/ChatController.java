@@ -2,22 +2,33 @@ package com.example.chating.Controller;
 
 import com.example.chating.Dto.ChatRoomDto;
 import com.example.chating.Dto.MessageDto;
+import com.example.chating.Dto.RoomPresenceDto;
 import com.example.chating.Repository.UserRepository;
 import com.example.chating.domain.MessageType;
 import com.example.chating.domain.chat.ChatRoom;
 import com.example.chating.domain.User;
 import com.example.chating.Dto.ChatMessage;
+import com.example.chating.Service.ChatRoomMemberService;
 import com.example.chating.Service.ChatRoomService;
+import com.example.chating.Service.MessageExportService;
+import com.example.chating.Service.MessageSearchService;
 import com.example.chating.Service.MessageService;
+import com.example.chating.Service.PresenceService;
 import com.example.chating.global.TokenProvider;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/chat") // API 기본 URL 설정
@@ -26,6 +37,10 @@ public class ChatController {
 
     private final ChatRoomService chatRoomService; // 채팅방 관리 서비스
     private final MessageService messageService; // 메시지 관리 서비스
+    private final MessageExportService messageExportService; // 메시지 내보내기 서비스
+    private final ChatRoomMemberService chatRoomMemberService; // 채팅방 참여자 조회
+    private final MessageSearchService messageSearchService; // 메시지 검색 서비스
+    private final PresenceService presenceService; // 접속 상태 서비스
     private final TokenProvider tokenProvider; // JWT 토큰 관련 유틸리티
     private final UserRepository userRepository;
 
@@ -140,38 +155,161 @@ public class ChatController {
 
     /**
      * 메시지 조회
-     * - 특정 채팅방의 모든 메시지를 조회합니다.
+     * - 특정 채팅방의 메시지를 조회합니다.
+     * - before 또는 after(메시지 ID)를 지정하면 커서 기반으로 조회하고, 지정하지 않으면 페이지 번호로 조회합니다.
      *
      * @param token Authorization 헤더에 포함된 JWT 토큰
      * @param roomId 메시지 조회 대상 채팅방 ID
+     * @param before 이 메시지 ID 보다 이전 메시지 조회
+     * @param after 이 메시지 ID 보다 이후 메시지 조회
      * @return 채팅방에 포함된 메시지 목록
      */
-    @Operation(summary = "메시지 조회", description = "지정된 채팅방의 메시지를 페이지네이션을 사용하여 조회합니다.")
+    @Operation(summary = "메시지 조회", description = "지정된 채팅방의 메시지를 조회합니다. before/after(메시지 ID)를 지정하면 커서 기반으로, 지정하지 않으면 페이지네이션으로 조회합니다.")
     @GetMapping("/rooms/{roomId}/messages")
     public ResponseEntity<List<ChatMessage>> getMessages(
             @RequestHeader("Authorization") String token,
             @PathVariable Long roomId,
             @RequestParam(defaultValue = "0") int page, // 페이지 번호 (기본값: 0)
-            @RequestParam(defaultValue = "20") int size // 페이지 크기 (기본값: 20)
+            @RequestParam(defaultValue = "20") int size, // 페이지 크기 (기본값: 20)
+            @RequestParam(required = false) Long before, // 커서: 이 메시지 ID 이전
+            @RequestParam(required = false) Long after // 커서: 이 메시지 ID 이후
     ) {
         Long userId = extractUserIdFromToken(token); // JWT 토큰에서 사용자 ID 추출
-        List<ChatMessage> messages = messageService.getMessagesByChatRoomWithReadUpdate(roomId,userId, page, size);
+        List<ChatMessage> messages = (before != null || after != null)
+                ? messageService.getMessagesByChatRoomWithCursor(roomId, userId, before, after, size)
+                : messageService.getMessagesByChatRoomWithReadUpdate(roomId, userId, page, size);
         return ResponseEntity.ok(messages);
     }
 
+    /**
+     * 채팅방 메시지 내보내기
+     * - 채팅방의 전체 메시지를 오래된 순으로 NDJSON(한 줄에 메시지 하나)으로 스트리밍합니다.
+     * - 읽음 상태를 변경하지 않는 읽기 전용 API 이며, 채팅방 참여자만 호출할 수 있습니다.
+     *
+     * @param token Authorization 헤더에 포함된 JWT 토큰
+     * @param roomId 내보낼 채팅방 ID
+     * @param gzip true 이면 gzip 으로 압축 (.ndjson.gz)
+     * @return 메시지 NDJSON 스트림
+     */
+    @Operation(summary = "메시지 내보내기", description = "채팅방의 전체 메시지를 NDJSON 으로 스트리밍합니다. 읽음 상태는 변경하지 않습니다.")
+    @GetMapping("/rooms/{roomId}/messages/export")
+    public ResponseEntity<StreamingResponseBody> exportMessages(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long roomId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        Long userId = extractUserIdFromToken(token); // JWT 토큰에서 사용자 ID 추출
+        chatRoomService.getChatRoomById(roomId); // 없거나 삭제된 채팅방이면 예외
+        if (!chatRoomMemberService.getMemberIds(roomId).contains(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        // 응답 본문은 요청 스레드가 아닌 비동기 스레드에서 작성됨
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192);
+                messageExportService.export(roomId, gzipOutputStream);
+                gzipOutputStream.finish();
+            } else {
+                messageExportService.export(roomId, outputStream);
+            }
+        };
+
+        String fileName = "chatroom-" + roomId + (gzip ? ".ndjson.gz" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    /**
+     * 채팅방 메시지 검색
+     * - 채팅방 안에서 검색어가 포함된 메시지를 최신순으로 조회합니다. (한국어 형태소 단위 검색)
+     *
+     * @param token Authorization 헤더에 포함된 JWT 토큰
+     * @param roomId 검색할 채팅방 ID
+     * @param q 검색어
+     * @param before 커서: 이 메시지 ID 이전 결과 (이전 페이지 마지막 메시지 ID)
+     * @param size 조회할 메시지 수 (최대 100)
+     * @return 검색된 메시지 목록 (메시지 ID 로 before/after 조회를 이어서 사용할 수 있음)
+     */
+    @Operation(summary = "채팅방 메시지 검색", description = "채팅방 안에서 검색어가 포함된 메시지를 최신순으로 조회합니다.")
+    @GetMapping("/rooms/{roomId}/messages/search")
+    public ResponseEntity<List<ChatMessage>> searchRoomMessages(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long roomId,
+            @RequestParam String q,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int size) {
+        Long userId = extractUserIdFromToken(token); // JWT 토큰에서 사용자 ID 추출
+        if (!chatRoomMemberService.getMemberIds(roomId).contains(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(messageSearchService.search(userId, roomId, q, before, size));
+    }
+
+    /**
+     * 메시지 검색
+     * - 사용자가 참여 중인 모든 채팅방에서 검색어가 포함된 메시지를 최신순으로 조회합니다.
+     *
+     * @param token Authorization 헤더에 포함된 JWT 토큰
+     * @param q 검색어
+     * @param before 커서: 이 메시지 ID 이전 결과
+     * @param size 조회할 메시지 수 (최대 100)
+     * @return 검색된 메시지 목록
+     */
+    @Operation(summary = "메시지 검색", description = "참여 중인 모든 채팅방에서 검색어가 포함된 메시지를 최신순으로 조회합니다.")
+    @GetMapping("/messages/search")
+    public ResponseEntity<List<ChatMessage>> searchMessages(
+            @RequestHeader("Authorization") String token,
+            @RequestParam String q,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int size) {
+        Long userId = extractUserIdFromToken(token); // JWT 토큰에서 사용자 ID 추출
+        return ResponseEntity.ok(messageSearchService.search(userId, null, q, before, size));
+    }
+
+    /**
+     * 채팅방 접속 상태 조회
+     * - 여러 채팅방의 접속 중인 참여자와 채팅방을 보고 있는 참여자를 한 번에 조회합니다. (MySQL 조회 없음)
+     * - 이후 변경은 /topic/{roomId}/presence 구독으로 받습니다.
+     *
+     * @param token Authorization 헤더에 포함된 JWT 토큰
+     * @param roomIds 조회할 채팅방 ID 목록 (최대 100개, 참여 중이 아닌 채팅방은 제외)
+     * @return 채팅방별 접속 상태
+     */
+    @Operation(summary = "채팅방 접속 상태 조회", description = "여러 채팅방의 접속 중인 참여자를 한 번에 조회합니다.")
+    @GetMapping("/rooms/presence")
+    public ResponseEntity<List<RoomPresenceDto>> getRoomPresence(
+            @RequestHeader("Authorization") String token,
+            @RequestParam List<Long> roomIds) {
+        Long userId = extractUserIdFromToken(token); // JWT 토큰에서 사용자 ID 추출
+        if (roomIds.size() > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(List.copyOf(presenceService.getPresence(userId, roomIds).values()));
+    }
+
     /**
      * 사용자가 참여한 채팅방 조회
-     * - 사용자가 현재 참여 중인 채팅방 목록을 조회합니다.
+     * - 사용자가 현재 참여 중인 채팅방 목록을 최신 활동 순으로 조회합니다.
      *
      * @param token Authorization 헤더에 포함된 JWT 토큰
+     * @param offset 건너뛸 채팅방 수
+     * @param limit 조회할 채팅방 수 (없으면 전체)
+     * @param before 커서: 이 시각(lastActivityAt)보다 이전에 활동한 채팅방
      * @return 사용자가 참여 중인 채팅방 목록
      */
     @Operation(summary = "사용자 참여 채팅방 조회", description = "사용자가 현재 참여 중인 채팅방 목록을 조회합니다.")
     @GetMapping("/users/rooms")
     public ResponseEntity<List<ChatRoomDto>> getUserChatRooms(
-            @RequestHeader("Authorization") String token) {
+            @RequestHeader("Authorization") String token,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "0") int limit,
+            @RequestParam(required = false) Long before) {
         Long userId = extractUserIdFromToken(token); // JWT 토큰에서 사용자 ID 추출
-        List<ChatRoomDto> chatRooms = chatRoomService.getChatRoomsByUser(userId); // 참여 중인 채팅방 조회
+        List<ChatRoomDto> chatRooms = before != null
+                ? chatRoomService.getChatRoomsByUserBefore(userId, before, limit)
+                : chatRoomService.getChatRoomsByUser(userId, offset, limit); // 참여 중인 채팅방 조회
         return ResponseEntity.ok(chatRooms); // 채팅방 목록 반환
     }
 
@@ -1,15 +1,19 @@
 package com.example.chating.Controller;
 
 import com.example.chating.Dto.*;
+import com.example.chating.Service.ChatBroadcastService;
 import com.example.chating.Service.ChatRoomService;
 import com.example.chating.Service.MessageService;
+import com.example.chating.Service.PresenceService;
+import com.example.chating.Service.TypingService;
 import com.example.chating.Service.UserService;
 import com.example.chating.converter.MessageConverter;
 import com.example.chating.domain.MessageType;
 import com.example.chating.domain.chat.ChatRoom;
-import com.example.chating.global.TokenProvider;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
+import com.example.chating.global.config.AuthenticatedUser;
+import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.Header;
@@ -27,16 +31,43 @@ import java.util.*;
 public class ChatWebSocketController {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final ChatBroadcastService chatBroadcastService;
     private final ChatRoomService chatRoomService;
     private final MessageService messageService;
-    private final TokenProvider tokenProvider;
     private final UserService userService;
+    private final MeterRegistry meterRegistry;
+    private final PresenceService presenceService;
+    private final TypingService typingService;
+
+    // 메시지 종류별 처리 시간 타이머 (프레임마다 등록하지 않도록 시작 시 (type, outcome) 별로 한 번 등록)
+    private final Map<MessageType, Timer> successTimers = new EnumMap<>(MessageType.class);
+    private final Map<MessageType, Timer> errorTimers = new EnumMap<>(MessageType.class);
+    private Timer unknownTypeErrorTimer;
+
+    @PostConstruct
+    void registerHandlerTimers() {
+        for (MessageType type : MessageType.values()) {
+            successTimers.put(type, handlerTimer(type.name(), "success"));
+            errorTimers.put(type, handlerTimer(type.name(), "error"));
+        }
+        // 종류가 없는 메시지는 switch 에서 실패
+        unknownTypeErrorTimer = handlerTimer("UNKNOWN", "error");
+    }
+
+    private Timer handlerTimer(String type, String outcome) {
+        return Timer.builder("chat.stomp.handler")
+                .description("STOMP /app/chat handler latency by message type")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     @MessageMapping("/chat/{roomId}")
-    public void sendMessage(@DestinationVariable Long roomId, @Payload MessageDto messageDto, @Header("Authorization") String token) {
+    public void sendMessage(@DestinationVariable Long roomId, @Payload MessageDto messageDto, AuthenticatedUser user) {
 
-        // 토큰에서 사용자 ID 추출
-        Long senderId = extractUserIdFromToken(token);
+        // CONNECT 에서 인증된 세션 사용자
+        Long senderId = user.getUserId();
         messageDto.setSenderId(senderId);
 
         // 사용자 이름 조회
@@ -46,34 +77,50 @@ public class ChatWebSocketController {
 //        // 메시지 저장
 //        ChatMessage savedMessage = messageService.saveMessage(roomId, senderId, messageDto.getContent(), messageDto.getMessageType());
 
-        // 최신 활동 시간 업데이트
-        chatRoomService.updateChatRoomActivity(roomId);
+        // 메시지를 보냈으면 입력 중 표시 해제
+        typingService.stop(roomId, senderId);
 
         MessageType messageType = messageDto.getMessageType();
 
-        switch (messageType) {
-            case ENTER: // 사용자가 채팅방에 입장한 경우
-                handleEnterMessage(roomId, messageDto.getContent());
-                break;
-
-            case TALK: // 일반 채팅 메시지
-                handleTalkMessage(roomId, senderId, messageDto);
-                break;
-
-            case EXIT: // 사용자가 채팅방에서 나간 경우
-                handleExitMessage(roomId, senderId, senderName);
-                break;
-
-            case MATCH_REQUEST: // 매칭 요청 메시지
-                handleMatchRequestMessage(roomId, senderId, senderName);
-                break;
-
-            case MATCH: // 매칭 완료 메시지
-                handleMatchMessage(roomId);
-                break;
+        // 최신 활동 시간 업데이트 (저장하는 TALK / ENTER / EXIT 메시지는 저장 시 함께 갱신)
+        if (messageType == MessageType.MATCH_REQUEST || messageType == MessageType.MATCH) {
+            chatRoomService.updateChatRoomActivity(roomId);
+        }
 
-            default:
-                throw new IllegalArgumentException("Unsupported message type: " + messageType);
+        // 메시지 종류별 처리 시간 (태그: type, outcome)
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean failed = false;
+        try {
+            switch (messageType) {
+                case ENTER: // 사용자가 채팅방에 입장한 경우
+                    handleEnterMessage(roomId, messageDto.getContent());
+                    break;
+
+                case TALK: // 일반 채팅 메시지
+                    handleTalkMessage(roomId, senderId, messageDto);
+                    break;
+
+                case EXIT: // 사용자가 채팅방에서 나간 경우
+                    handleExitMessage(roomId, senderId, senderName);
+                    break;
+
+                case MATCH_REQUEST: // 매칭 요청 메시지
+                    handleMatchRequestMessage(roomId, senderId, senderName);
+                    break;
+
+                case MATCH: // 매칭 완료 메시지
+                    handleMatchMessage(roomId);
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Unsupported message type: " + messageType);
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            sample.stop(messageType == null ? unknownTypeErrorTimer
+                    : (failed ? errorTimers : successTimers).get(messageType));
         }
 
 //        // 로그 출력
@@ -107,7 +154,7 @@ public class ChatWebSocketController {
 
         // 메시지 저장 및 브로드캐스트
         messageService.saveMessage(roomId, inviteId, enterMessage.getContent(), MessageType.ENTER);
-        messagingTemplate.convertAndSend("/topic/" + roomId, enterMessage);
+        chatBroadcastService.sendToRoom(roomId, enterMessage);
 
         System.out.println("Broadcasted enter message: " + enterMessage);
     }
@@ -119,20 +166,10 @@ public class ChatWebSocketController {
         ChatMessage savedMessage = messageService.saveMessage(roomId, senderId, messageDto.getContent(), messageDto.getMessageType());
 
 
-        // 메시지 브로커로 전송 (실시간 채팅)
-        messagingTemplate.convertAndSend("/topic/" + roomId, savedMessage);
-
-//        // RedisPublisher를 사용해 메시지 발행
-//        redisPublisher.publish("chatroom." + roomId, savedMessage);
-
-        // 사용자 채팅방 목록 업데이트 (ChatRoomDto 생성 후 전송)
-        ChatRoom updatedChatRoom = chatRoomService.getChatRoomById(roomId);
-        String latestMessage = messageService.getLatestMessageContentFromDb(roomId);
-        List<UserProfileDto> userProfiles = chatRoomService.getUserProfilesByChatRoomId(roomId);
-
-        ChatRoomDto chatRoomDto = new ChatRoomDto(updatedChatRoom, latestMessage, userProfiles);
-        messagingTemplate.convertAndSend("/topic/chatrooms", chatRoomDto);
+        // 메시지 브로커로 전송 (실시간 채팅, 클러스터 모드에서는 Redis 로 다른 노드에도 전달)
+        chatBroadcastService.sendToRoom(roomId, savedMessage);
 
+        // 사용자 채팅방 목록 업데이트는 저장 시 참여자에게만 전송 (/user/queue/rooms, ChatRoomUpdateService)
     }
 
     public void handleExitMessage(Long roomId, Long senderId, String senderName) {
@@ -145,7 +182,7 @@ public class ChatWebSocketController {
                 LocalDateTime.now()
         );
         messageService.saveMessage(roomId, senderId,exitMessage.getContent(), MessageType.EXIT);
-        messagingTemplate.convertAndSend("/topic/" + roomId, exitMessage);
+        chatBroadcastService.sendToRoom(roomId, exitMessage);
     }
 
     private void handleMatchRequestMessage(Long roomId, Long senderId, String senderName) {
@@ -157,7 +194,7 @@ public class ChatWebSocketController {
                 senderName + "님이 매칭을 요청하였습니다.",
                 LocalDateTime.now()
         );
-        messagingTemplate.convertAndSend("/topic/" + roomId, matchRequestMessage);
+        chatBroadcastService.sendToRoom(roomId, matchRequestMessage);
     }
     private void handleMatchMessage(Long roomId) {
         ChatMessage matchMessage = new ChatMessage(
@@ -168,7 +205,7 @@ public class ChatWebSocketController {
                 "매칭이 완료되었습니다!",
                 LocalDateTime.now()
         );
-        messagingTemplate.convertAndSend("/topic/" + roomId, matchMessage);
+        chatBroadcastService.sendToRoom(roomId, matchMessage);
     }
 
 
@@ -186,31 +223,14 @@ public class ChatWebSocketController {
 //        messagingTemplate.convertAndSend("/topic/" + roomId + "/read", new ReadStatusDto(roomId, userId));
 //    }
 
-//    @MessageMapping("/chat/{roomId}/active")
-//    public void handleActiveStatus(
-//            @DestinationVariable Long roomId,
-//            @Payload ActiveStatusDto activeStatus,
-//            @Header("Authorization") String token) {
-//
-//        Long userId = extractUserIdFromToken(token);
-//        boolean isActive = activeStatus.isActive();
-//
-//        chatRoomService.updateUserActiveStatus(roomId, userId, isActive);
-//
-//        System.out.println("User " + userId + " is now " + (isActive ? "active" : "inactive") + " in room " + roomId);
-//    }
-
-
-
-
-
-    private Long extractUserIdFromToken(String token) {
-        if (token.startsWith("Bearer ")) {
-            token = token.substring(7); // "Bearer " 제거
-        }
-
-        return tokenProvider.extractClaims(token).get("userId", Long.class); // 토큰에서 사용자 ID 추출
+    // 입력 중 표시 (저장 / 채팅방 목록 갱신 없이 /topic/{roomId}/typing 으로 모아서 전송)
+    @MessageMapping("/chat/{roomId}/typing")
+    public void typing(@DestinationVariable Long roomId, @Payload(required = false) TypingDto typingDto, AuthenticatedUser user) {
+        typingService.update(roomId, user.getUserId(), typingDto == null || typingDto.isTyping());
     }
 
-
-}
+    // 접속 상태 유지 (STOMP heart-beat 를 보내지 않고 다른 프레임도 없는 클라이언트용, 받은 프레임은 모두 TTL 을 연장)
+    @MessageMapping("/presence/heartbeat")
+    public void heartbeat(@Header("simpSessionId") String sessionId) {
+        presenceService.heartbeat(sessionId);
+    }}
@@ -1,16 +0,0 @@
-//package com.example.chating.Dto;
-//
-//import lombok.AllArgsConstructor;
-//import lombok.Getter;
-//import lombok.Setter;
-//
-//@AllArgsConstructor
-//@Getter
-//@Setter
-//public class ActiveStatusDto {
-//    private Long userId;
-//    private Long roomId;
-//    private boolean active;
-//
-//    // Constructors, Getters, Setters
-//}
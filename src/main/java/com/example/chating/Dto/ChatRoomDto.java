@@ -4,8 +4,6 @@ import com.example.chating.domain.chat.ChatRoom;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
 import java.util.List;
 
 @Data
@@ -14,5 +12,10 @@ public class ChatRoomDto {
     private ChatRoom chatRoom;       // 채팅방 정보
     private String latestMessage;    // 최신 메시지 내용
     private List<UserProfileDto> userProfiles; // 사용자 프로필 목록
-}
+    private long unreadCount;        // 안 읽은 메시지 수
+    private Long lastActivityAt;     // 마지막 활동 시각 (epoch millis, 목록 커서로 사용)
 
+    public ChatRoomDto(ChatRoom chatRoom, String latestMessage, List<UserProfileDto> userProfiles) {
+        this(chatRoom, latestMessage, userProfiles, 0, null);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.chating.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 채팅방 목록 변경분 (/user/queue/rooms)
+ * - 전체 ChatRoomDto 대신 목록 한 줄을 갱신하는 데 필요한 값만 전송합니다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatRoomUpdateDto {
+    private Long roomId;         // 채팅방 ID
+    private Long messageId;      // 최신 메시지 ID
+    private String preview;      // 최신 메시지 미리보기
+    private Long sentAt;         // 최신 메시지 시각 (epoch millis, 목록 정렬 기준)
+    private Long unreadCount;    // 받는 사용자의 안 읽은 메시지 수 (보낸 사람은 생략: 변경 없음)
+}
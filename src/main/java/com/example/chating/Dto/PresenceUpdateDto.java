@@ -0,0 +1,24 @@
+package com.example.chating.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 채팅방 참여자 접속 상태 변경분 (/topic/{roomId}/presence)
+ * - 전송 주기 동안 모인 변경을 채팅방별로 한 번에 보냅니다. (사용자별 마지막 상태만 포함)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class PresenceUpdateDto {
+    private Long roomId;
+    private List<Long> online;     // 접속한 사용자
+    private List<Long> offline;    // 접속이 끊긴 사용자
+    private List<Long> active;     // 채팅방을 보고 있는 사용자 (/topic/{roomId} 구독)
+    private List<Long> inactive;   // 채팅방에서 나간 사용자
+}
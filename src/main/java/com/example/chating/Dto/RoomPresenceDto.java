@@ -0,0 +1,19 @@
+package com.example.chating.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 채팅방별 접속 중인 참여자 (채팅방 목록 조회용)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomPresenceDto {
+    private Long roomId;
+    private List<Long> onlineUserIds;   // 접속 중인 참여자
+    private List<Long> activeUserIds;   // 채팅방을 보고 있는 참여자
+}
@@ -0,0 +1,15 @@
+package com.example.chating.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 입력 중 상태 요청 (/app/chat/{roomId}/typing, 저장하지 않음)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingDto {
+    private boolean typing = true; // false: 입력 중지 (메시지 전송, 입력창 비움 등)
+}
@@ -0,0 +1,24 @@
+package com.example.chating.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 채팅방 입력 중 상태 변경분 (/topic/{roomId}/typing)
+ * - 전송 주기 동안 모인 변경을 채팅방별로 한 번에 보냅니다.
+ * - typing 에 포함된 사용자는 다음 갱신 없이 ttlMillis 가 지나면 입력 중지로 표시하면 됩니다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class TypingUpdateDto {
+    private Long roomId;
+    private List<Long> typing;     // 입력 중인 사용자
+    private List<Long> stopped;    // 입력을 멈춘 사용자
+    private Long ttlMillis;        // 입력 중 표시 유지 시간
+}
@@ -0,0 +1,295 @@
+package com.example.chating.Redis;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.domain.MessageType;
+import com.example.chating.domain.chat.ChatRoom;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Redis 값 직렬화 (키 종류별 타입에 맞는 형식)
+ * - 문자열(최신 메시지 미리보기, 표시값 등)과 ID(Long / Integer)는 타입 정보 없이 그대로 저장합니다. 읽을 때는 문자열로 반환됩니다.
+ * - 캐시하는 ChatRoom / ChatMessage 는 버전이 있는 바이너리 형식으로 저장합니다.
+ *   [0xC1][타입][버전][필드 존재 플래그][필드...] (정수는 zigzag varint, 문자열은 길이 + UTF-8)
+ * - 이전 형식(DefaultTyping.EVERYTHING JSON)으로 저장된 값은 이전 형식 읽기가 켜져 있는 동안만 legacySerializer 로 읽습니다.
+ *   JSON 처럼 보이는 일반 문자열(메시지 미리보기 등)도 이전 형식으로 해석될 수 있으므로, 애플리케이션에서는 시작 시
+ *   RedisFormatMigration 이 Redis 를 새 형식으로 변환할 때까지만 켜 두고 변환 후 chat.redis.legacy-read.enabled 값으로 바꿉니다.
+ * - ID 는 형식과 관계없이 toId 로 변환합니다. (이전 형식 ["java.lang.Long",5] 도 명시적으로 처리)
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC1; // UTF-8 / JSON 의 첫 바이트로 나올 수 없는 값
+    static final byte TYPE_CHAT_ROOM = 1;
+    static final byte TYPE_CHAT_MESSAGE = 2;
+    static final byte VERSION = 1;
+
+    // 이전 형식의 ID: ["java.lang.Long",5]
+    private static final Pattern LEGACY_ID = Pattern.compile("\\[\"java\\.lang\\.(?:Long|Integer|Short)\",(-?\\d+)]");
+
+    private final RedisSerializer<Object> legacySerializer;
+    private volatile boolean legacyReadEnabled;
+
+    // 이전 형식으로 읽은 값 수 (마이그레이션 진행 확인용)
+    private final LongAdder legacyReads = new LongAdder();
+
+    public CompactRedisSerializer(RedisSerializer<Object> legacySerializer, boolean legacyReadEnabled) {
+        this.legacySerializer = legacySerializer;
+        this.legacyReadEnabled = legacyReadEnabled;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (value instanceof String string) {
+            return string.getBytes(StandardCharsets.UTF_8);
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+            return value.toString().getBytes(StandardCharsets.US_ASCII);
+        }
+        if (value instanceof ChatRoom chatRoom) {
+            return encodeChatRoom(chatRoom);
+        }
+        if (value instanceof ChatMessage chatMessage) {
+            return encodeChatMessage(chatMessage);
+        }
+        throw new SerializationException("Unsupported Redis value type: " + value.getClass().getName());
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == MAGIC) {
+            return decode(bytes);
+        }
+        if (legacyReadEnabled && isLegacyJson(bytes)) {
+            try {
+                Object value = legacySerializer.deserialize(bytes);
+                legacyReads.increment();
+                return value;
+            } catch (SerializationException e) {
+                // JSON 처럼 보이는 일반 문자열
+            }
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public void setLegacyReadEnabled(boolean legacyReadEnabled) {
+        this.legacyReadEnabled = legacyReadEnabled;
+    }
+
+    public boolean isLegacyReadEnabled() {
+        return legacyReadEnabled;
+    }
+
+    public long getLegacyReads() {
+        return legacyReads.sum();
+    }
+
+    /**
+     * Set / ZSet 멤버 등에서 읽은 ID 값을 Long 으로 변환합니다.
+     * - 새 형식은 숫자 문자열, 이전 형식 읽기가 켜져 있으면 Long, 꺼진 뒤 이전 버전 노드가 쓴 값은 ["java.lang.Long",5]
+     *
+     * @return ID 가 아닌 값이면 null
+     */
+    public static Long toId(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        String text = String.valueOf(value);
+        Matcher legacy = LEGACY_ID.matcher(text);
+        if (legacy.matches()) {
+            text = legacy.group(1);
+        }
+        try {
+            return Long.valueOf(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // 이전 형식: 객체 {"@class":...}, 타입 배열 ["java.lang.Long",1], 따옴표 문자열 "..."
+    private static boolean isLegacyJson(byte[] bytes) {
+        byte first = bytes[0];
+        byte last = bytes[bytes.length - 1];
+        return (first == '{' && last == '}') || (first == '[' && last == ']') || (first == '"' && last == '"' && bytes.length > 1);
+    }
+
+    private static byte[] encodeChatRoom(ChatRoom chatRoom) {
+        Writer writer = new Writer(TYPE_CHAT_ROOM);
+        int flags = 0;
+        if (chatRoom.getId() != null) flags |= 1;
+        if (chatRoom.getName() != null) flags |= 1 << 1;
+        if (chatRoom.getCreatedAt() != null) flags |= 1 << 2;
+        if (chatRoom.getUpdatedAt() != null) flags |= 1 << 3;
+        writer.writeByte(flags);
+        if (chatRoom.getId() != null) writer.writeLong(chatRoom.getId());
+        if (chatRoom.getName() != null) writer.writeString(chatRoom.getName());
+        if (chatRoom.getCreatedAt() != null) writer.writeDateTime(chatRoom.getCreatedAt());
+        if (chatRoom.getUpdatedAt() != null) writer.writeDateTime(chatRoom.getUpdatedAt());
+        return writer.toByteArray();
+    }
+
+    private static byte[] encodeChatMessage(ChatMessage message) {
+        Writer writer = new Writer(TYPE_CHAT_MESSAGE);
+        int flags = 0;
+        if (message.getId() != null) flags |= 1;
+        if (message.getType() != null) flags |= 1 << 1;
+        if (message.getRoomId() != null) flags |= 1 << 2;
+        if (message.getSenderId() != null) flags |= 1 << 3;
+        if (message.getSenderName() != null) flags |= 1 << 4;
+        if (message.getContent() != null) flags |= 1 << 5;
+        if (message.getSendAt() != null) flags |= 1 << 6;
+        if (message.isRead()) flags |= 1 << 7;
+        writer.writeByte(flags);
+        if (message.getId() != null) writer.writeLong(message.getId());
+        if (message.getType() != null) writer.writeString(message.getType().name());
+        if (message.getRoomId() != null) writer.writeString(message.getRoomId());
+        if (message.getSenderId() != null) writer.writeLong(message.getSenderId());
+        if (message.getSenderName() != null) writer.writeString(message.getSenderName());
+        if (message.getContent() != null) writer.writeString(message.getContent());
+        if (message.getSendAt() != null) writer.writeDateTime(message.getSendAt());
+        writer.writeLong(message.getReadByUsersCount());
+        return writer.toByteArray();
+    }
+
+    private static Object decode(byte[] bytes) {
+        if (bytes.length < 4) {
+            throw new SerializationException("Truncated Redis value");
+        }
+        Reader reader = new Reader(bytes, 1);
+        byte type = reader.readByte();
+        byte version = reader.readByte();
+        if (version != VERSION) {
+            throw new SerializationException("Unsupported Redis value version: " + version);
+        }
+        return switch (type) {
+            case TYPE_CHAT_ROOM -> decodeChatRoom(reader);
+            case TYPE_CHAT_MESSAGE -> decodeChatMessage(reader);
+            default -> throw new SerializationException("Unknown Redis value type: " + type);
+        };
+    }
+
+    private static ChatRoom decodeChatRoom(Reader reader) {
+        int flags = reader.readByte() & 0xFF;
+        ChatRoom chatRoom = new ChatRoom();
+        if ((flags & 1) != 0) chatRoom.setId(reader.readLong());
+        if ((flags & 1 << 1) != 0) chatRoom.setName(reader.readString());
+        if ((flags & 1 << 2) != 0) chatRoom.setCreatedAt(reader.readDateTime());
+        if ((flags & 1 << 3) != 0) chatRoom.setUpdatedAt(reader.readDateTime());
+        return chatRoom;
+    }
+
+    private static ChatMessage decodeChatMessage(Reader reader) {
+        int flags = reader.readByte() & 0xFF;
+        ChatMessage message = new ChatMessage();
+        if ((flags & 1) != 0) message.setId(reader.readLong());
+        if ((flags & 1 << 1) != 0) message.setType(MessageType.valueOf(reader.readString()));
+        if ((flags & 1 << 2) != 0) message.setRoomId(reader.readString());
+        if ((flags & 1 << 3) != 0) message.setSenderId(reader.readLong());
+        if ((flags & 1 << 4) != 0) message.setSenderName(reader.readString());
+        if ((flags & 1 << 5) != 0) message.setContent(reader.readString());
+        if ((flags & 1 << 6) != 0) message.setSendAt(reader.readDateTime());
+        message.setRead((flags & 1 << 7) != 0);
+        message.setReadByUsersCount((int) reader.readLong());
+        return message;
+    }
+
+    private static final class Writer {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+
+        Writer(byte type) {
+            out.write(MAGIC);
+            out.write(type);
+            out.write(VERSION);
+        }
+
+        void writeByte(int value) {
+            out.write(value);
+        }
+
+        // zigzag varint
+        void writeLong(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                out.write((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            out.write((int) zigzag);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeLong(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        void writeDateTime(LocalDateTime value) {
+            writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            writeLong(value.getNano());
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        byte readByte() {
+            if (position >= bytes.length) {
+                throw new SerializationException("Truncated Redis value");
+            }
+            return bytes[position++];
+        }
+
+        long readLong() {
+            long zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (shift > 63) {
+                    throw new SerializationException("Malformed varint in Redis value");
+                }
+                b = readByte();
+                zigzag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        String readString() {
+            int length = (int) readLong();
+            if (length < 0 || position + length > bytes.length) {
+                throw new SerializationException("Truncated Redis value");
+            }
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        LocalDateTime readDateTime() {
+            long epochSecond = readLong();
+            int nano = (int) readLong();
+            return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+        }
+    }
+}
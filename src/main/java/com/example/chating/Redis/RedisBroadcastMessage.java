@@ -0,0 +1,24 @@
+package com.example.chating.Redis;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 노드 간 STOMP 메시지 전달용 Redis pub/sub 메시지
+ * - origin: 발행한 노드 ID (자신이 발행한 메시지는 이미 로컬로 전달했으므로 무시)
+ * - destination: STOMP 목적지 (/topic/{roomId}, /queue/rooms 등)
+ * - user: 사용자 목적지인 경우 대상 사용자 ID
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RedisBroadcastMessage {
+    private String origin;
+    private String destination;
+    private String user;
+    private JsonNode payload;
+}
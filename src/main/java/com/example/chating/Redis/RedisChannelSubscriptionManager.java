@@ -0,0 +1,235 @@
+package com.example.chating.Redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 클러스터 모드에서 이 노드에 구독자가 있는 채널만 Redis 에서 구독합니다.
+ * - STOMP 구독 /topic/{roomId} -> chatroom.{roomId}, /user/queue/** -> chatuser.{userId}
+ * - 채널별로 이 노드의 STOMP 구독 수를 세고, 처음 구독할 때 Redis 채널을 구독합니다.
+ * - 구독 수가 0이 되어도 바로 해지하지 않고 debounce 시간 뒤에 해지하여,
+ *   재연결을 반복하는 클라이언트 때문에 SUBSCRIBE / UNSUBSCRIBE 가 반복되지 않게 합니다.
+ */
+@Slf4j
+@Component
+public class RedisChannelSubscriptionManager implements DisposableBean {
+
+    private static final String ROOM_DESTINATION_PREFIX = "/topic/";
+    private static final String USER_DESTINATION_PREFIX = "/user/queue/";
+    private static final String ROOM_CHANNEL = "chatroom.%s";
+    private static final String USER_CHANNEL = "chatuser.%s";
+
+    private final RedisMessageListenerContainer container;
+    private final MessageListener listener;
+    private final boolean enabled;
+    private final long debounceMillis;
+    private final ScheduledExecutorService scheduler;
+
+    // 채널별 구독 상태 (Redis SUBSCRIBE 응답을 기다리는 동안 잡고 있으므로 가상 스레드를 고정하지 않는 ReentrantLock 사용)
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, ChannelInterest> channels = new HashMap<>();
+    // 세션별 구독 ID -> 채널 (UNSUBSCRIBE 에는 구독 ID 만 있음)
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+
+    // 구독 지표
+    private final LongAdder redisSubscribes = new LongAdder();
+    private final LongAdder redisUnsubscribes = new LongAdder();
+    private final LongAdder debouncedUnsubscribes = new LongAdder();
+
+    @Autowired
+    public RedisChannelSubscriptionManager(@Qualifier("redisContainer") RedisMessageListenerContainer container,
+                                           RedisSubscriber redisSubscriber,
+                                           @Value("${chat.cluster.enabled:false}") boolean enabled,
+                                           @Value("${chat.cluster.unsubscribe-debounce-ms:5000}") long debounceMillis) {
+        this(container, (MessageListener) redisSubscriber, enabled, debounceMillis);
+    }
+
+    RedisChannelSubscriptionManager(RedisMessageListenerContainer container, MessageListener listener,
+                                    boolean enabled, long debounceMillis) {
+        this.container = container;
+        this.listener = listener;
+        this.enabled = enabled;
+        this.debounceMillis = debounceMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-unsubscribe-debounce");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        subscribe(accessor.getSessionId(), accessor.getSubscriptionId(), accessor.getDestination(), event.getUser());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        unsubscribe(accessor.getSessionId(), accessor.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        disconnect(event.getSessionId());
+    }
+
+    public void subscribe(String sessionId, String subscriptionId, String destination, Principal user) {
+        String channel = toChannel(destination, user);
+        if (!enabled || channel == null || sessionId == null || subscriptionId == null) {
+            return;
+        }
+        String previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(subscriptionId, channel);
+        if (previous != null) {
+            release(previous);
+        }
+        acquire(channel);
+    }
+
+    public void unsubscribe(String sessionId, String subscriptionId) {
+        Map<String, String> subscriptions = sessionId != null ? sessions.get(sessionId) : null;
+        if (subscriptions == null || subscriptionId == null) {
+            return;
+        }
+        String channel = subscriptions.remove(subscriptionId);
+        if (channel != null) {
+            release(channel);
+        }
+    }
+
+    public void disconnect(String sessionId) {
+        Map<String, String> subscriptions = sessionId != null ? sessions.remove(sessionId) : null;
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    private void acquire(String channel) {
+        lock.lock();
+        try {
+            ChannelInterest interest = channels.computeIfAbsent(channel, key -> new ChannelInterest());
+            interest.references++;
+            if (interest.pendingUnsubscribe != null) {
+                // 해지 대기 중에 다시 구독하면 Redis 구독을 그대로 유지
+                interest.pendingUnsubscribe.cancel(false);
+                interest.pendingUnsubscribe = null;
+                debouncedUnsubscribes.increment();
+            }
+            if (!interest.subscribed) {
+                container.addMessageListener(listener, new ChannelTopic(channel));
+                interest.subscribed = true;
+                redisSubscribes.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(String channel) {
+        lock.lock();
+        try {
+            ChannelInterest interest = channels.get(channel);
+            if (interest == null || interest.references == 0) {
+                return;
+            }
+            interest.references--;
+            if (interest.references == 0 && interest.pendingUnsubscribe == null) {
+                interest.pendingUnsubscribe = scheduler.schedule(() -> unsubscribeIfIdle(channel), debounceMillis, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void unsubscribeIfIdle(String channel) {
+        lock.lock();
+        try {
+            ChannelInterest interest = channels.get(channel);
+            if (interest == null || interest.references > 0) {
+                return;
+            }
+            interest.pendingUnsubscribe = null;
+            if (interest.subscribed) {
+                container.removeMessageListener(listener, new ChannelTopic(channel));
+                redisUnsubscribes.increment();
+            }
+            channels.remove(channel);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // STOMP 목적지 -> Redis 채널 (노드 간 전달 대상이 아니면 null)
+    static String toChannel(String destination, Principal user) {
+        if (destination == null) {
+            return null;
+        }
+        if (destination.startsWith(ROOM_DESTINATION_PREFIX)) {
+            String roomId = destination.substring(ROOM_DESTINATION_PREFIX.length());
+            int slash = roomId.indexOf('/');
+            if (slash >= 0) {
+                roomId = roomId.substring(0, slash); // /topic/{roomId}/presence 등 하위 목적지도 채팅방 채널 사용
+            }
+            return roomId.chars().allMatch(Character::isDigit) && !roomId.isEmpty() ? String.format(ROOM_CHANNEL, roomId) : null;
+        }
+        if (destination.startsWith(USER_DESTINATION_PREFIX) && user != null) {
+            return String.format(USER_CHANNEL, user.getName());
+        }
+        return null;
+    }
+
+    public int getSubscribedChannels() {
+        lock.lock();
+        try {
+            return (int) channels.values().stream().filter(interest -> interest.subscribed).count();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRedisSubscribes() {
+        return redisSubscribes.sum();
+    }
+
+    public long getRedisUnsubscribes() {
+        return redisUnsubscribes.sum();
+    }
+
+    public long getDebouncedUnsubscribes() {
+        return debouncedUnsubscribes.sum();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private static class ChannelInterest {
+        private int references;
+        private boolean subscribed;
+        private ScheduledFuture<?> pendingUnsubscribe;
+    }
+}
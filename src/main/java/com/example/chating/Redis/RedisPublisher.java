@@ -2,6 +2,7 @@ package com.example.chating.Redis;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -9,10 +10,16 @@ import org.springframework.stereotype.Component;
 public class RedisPublisher {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
 
     public void publish(String topic, Object message) {
         // 로그 추가: 어떤 메시지와 토픽으로 발행하는지 확인
         System.out.println("Publishing message to topic: " + topic + ", message: " + message);
         redisTemplate.convertAndSend(topic, message);
     }
+
+    // 이미 직렬화된 JSON 문자열을 타입 정보 없이 그대로 발행
+    public void publishJson(String topic, String json) {
+        stringRedisTemplate.convertAndSend(topic, json);
+    }
 }
@@ -1,13 +1,11 @@
 package com.example.chating.Redis;
 
-import com.example.chating.Dto.ChatMessage;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.example.chating.Service.ChatBroadcastService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.connection.MessageListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
@@ -18,16 +16,14 @@ import java.io.IOException;
 public class RedisSubscriber implements MessageListener {
 
     private final ObjectMapper objectMapper;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ChatBroadcastService chatBroadcastService;
 
     @Override
     public void onMessage(Message message, byte[] pattern) {
         try {
-            System.out.println("Received message from Redis: " + new String(message.getBody()));
-            ChatMessage chatMessage = objectMapper.readValue(message.getBody(), ChatMessage.class);
-            System.out.println("Sending to STOMP Broker: " + chatMessage);
-
-            messagingTemplate.convertAndSend("/topic/" + chatMessage.getRoomId(), chatMessage);
+            RedisBroadcastMessage broadcastMessage = objectMapper.readValue(message.getBody(), RedisBroadcastMessage.class);
+            // 다른 노드에서 발행한 메시지를 이 노드의 구독자에게 전달
+            chatBroadcastService.deliver(broadcastMessage);
         } catch (IOException e) {
             log.error("Failed to process Redis message: ", e);
         }
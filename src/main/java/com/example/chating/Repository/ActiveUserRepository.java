@@ -1,13 +0,0 @@
-//package com.example.chating.Repository;
-//
-//import com.example.chating.domain.chat.ActiveUser;
-//import com.example.chating.domain.chat.ChatRoom;
-//import org.springframework.data.jpa.repository.JpaRepository;
-//import org.springframework.stereotype.Repository;
-//
-//import java.util.Optional;
-//
-//@Repository
-//public interface ActiveUserRepository extends JpaRepository<ActiveUser, Long> {
-//    Optional<ActiveUser> findByChatRoomAndUserId(ChatRoom chatRoom, Long userId);
-//}
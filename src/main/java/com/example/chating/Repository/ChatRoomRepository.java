@@ -3,13 +3,30 @@ package com.example.chating.Repository;
 import com.example.chating.domain.User;
 import com.example.chating.domain.chat.ChatRoom;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
-    @Query("SELECT ucr.chatRoom FROM UserChatRoom ucr WHERE ucr.user.id = :userId")
+    @Query("SELECT ucr.chatRoom FROM UserChatRoom ucr WHERE ucr.user.id = :userId AND ucr.chatRoom.deletedAt IS NULL")
     List<ChatRoom> findChatRoomsByUserId(Long userId);
+
+    // 삭제 표시 (이미 표시된 채팅방이면 0 반환)
+    @Modifying
+    @Query("UPDATE ChatRoom c SET c.deletedAt = :deletedAt WHERE c.id = :chatRoomId AND c.deletedAt IS NULL")
+    int markDeleted(@Param("chatRoomId") Long chatRoomId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // 정리가 끝나지 않은 삭제 표시 채팅방 (재시작 시 이어서 정리)
+    @Query("SELECT c.id FROM ChatRoom c WHERE c.deletedAt IS NOT NULL")
+    List<Long> findDeletedIds();
+
+    @Modifying
+    @Query("DELETE FROM ChatRoom c WHERE c.id = :chatRoomId AND c.deletedAt IS NOT NULL")
+    int deleteTombstoned(@Param("chatRoomId") Long chatRoomId);
 }
 
@@ -1,21 +1,96 @@
 package com.example.chating.Repository;
 
+import com.example.chating.domain.MessageType;
 import com.example.chating.domain.chat.Message;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
     Page<Message> findByChatRoomId(Long chatRoomId, Pageable pageable);  // Pageable 사용
-    List<Message> findByChatRoomId(Long chatRoomId);  // 전체 조회
-    @Query("SELECT m FROM Message m WHERE m.chatRoom.id = :chatRoomId ORDER BY m.sentAt DESC")
+    @Query("SELECT m FROM Message m WHERE m.chatRoom.id = :chatRoomId ORDER BY m.id DESC")
     List<Message> findLatestMessageByChatRoomId(Long chatRoomId, Pageable pageable);
+
+    // 커서 기반 조회: (chatroom_id, id) 인덱스를 사용하며 COUNT 쿼리를 실행하지 않음
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.chatRoom.id = :chatRoomId AND m.id < :beforeId ORDER BY m.id DESC")
+    List<Message> findByChatRoomIdBefore(@Param("chatRoomId") Long chatRoomId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.chatRoom.id = :chatRoomId AND m.id > :afterId ORDER BY m.id ASC")
+    List<Message> findByChatRoomIdAfter(@Param("chatRoomId") Long chatRoomId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // 여러 채팅방의 최신 메시지 내용 (채팅방별 MAX(id) 는 (chatroom_id, id) 인덱스로 조회)
+    @Query("SELECT m.chatRoom.id AS chatRoomId, m.content AS content FROM Message m " +
+            "WHERE m.id IN (SELECT MAX(m2.id) FROM Message m2 WHERE m2.chatRoom.id IN :chatRoomIds GROUP BY m2.chatRoom.id)")
+    List<LatestMessage> findLatestMessagesByChatRoomIds(@Param("chatRoomIds") Collection<Long> chatRoomIds);
+
+    // 채팅방 전체 메시지 내보내기용 (엔티티 대신 프로젝션, 전방향 커서로 fetch-size 단위로 읽음)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m.id AS id, m.messageType AS type, s.id AS senderId, s.name AS senderName, " +
+            "m.content AS content, m.sentAt AS sentAt " +
+            "FROM Message m LEFT JOIN m.sender s WHERE m.chatRoom.id = :chatRoomId ORDER BY m.id")
+    Stream<ExportedMessage> streamForExport(@Param("chatRoomId") Long chatRoomId);
+
+    // 검색 색인용 (ID 순 keyset 페이지, 삭제 표시된 채팅방 제외)
+    @Query("SELECT m.id AS id, m.chatRoom.id AS chatRoomId, m.content AS content FROM Message m " +
+            "WHERE m.id > :afterId AND m.id <= :toId AND m.chatRoom.deletedAt IS NULL ORDER BY m.id")
+    List<IndexedMessage> findForIndex(@Param("afterId") Long afterId, @Param("toId") Long toId, Pageable pageable);
+
+    @Query("SELECT MIN(m.id) AS minId, MAX(m.id) AS maxId FROM Message m")
+    IdRange findIdRange();
+
+    // 검색 결과 조회 (ID 목록, 발신자 함께 조회)
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.id IN :ids")
+    List<Message> findAllWithSenderByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 채팅방 메시지 ID 청크 (채팅방 삭제 후 정리용, (chatroom_id, id) 인덱스 사용)
+    @Query("SELECT m.id FROM Message m WHERE m.chatRoom.id = :chatRoomId ORDER BY m.id")
+    List<Long> findIdsByChatRoomId(@Param("chatRoomId") Long chatRoomId, Pageable pageable);
+
+    // 엔티티를 불러오지 않고 한 번의 DELETE 로 삭제
+    @Modifying
+    @Query("DELETE FROM Message m WHERE m.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface ExportedMessage {
+        Long getId();
+        MessageType getType();
+        Long getSenderId();
+        String getSenderName();
+        String getContent();
+        LocalDateTime getSentAt();
+    }
+
+    interface IndexedMessage {
+        Long getId();
+        Long getChatRoomId();
+        String getContent();
+    }
+
+    interface IdRange {
+        Long getMinId();
+        Long getMaxId();
+    }
+
+    interface LatestMessage {
+        Long getChatRoomId();
+        String getContent();
+    }
 //    @Query("SELECT m FROM Message m " +
 //            "WHERE m.chatRoom.id = :chatRoomId " +
 //            "AND :userId NOT MEMBER OF m.readByUsers")
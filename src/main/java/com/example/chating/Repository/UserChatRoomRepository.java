@@ -1,13 +1,18 @@
 package com.example.chating.Repository;
 
+import com.example.chating.domain.Emoji;
 import com.example.chating.domain.User;
 import com.example.chating.domain.chat.ChatRoom;
 import com.example.chating.domain.chat.UserChatRoom;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,5 +24,79 @@ public interface UserChatRoomRepository extends JpaRepository<UserChatRoom, Long
     @Query("SELECT uc.user FROM UserChatRoom uc WHERE uc.chatRoom.id = :chatRoomId")
     List<User> findUsersByChatRoomId(@Param("chatRoomId") Long chatRoomId);
 
+    // 읽음 워터마크 갱신 (더 최신 메시지일 때만 이동)
+    @Modifying
+    @Query("UPDATE UserChatRoom ucr SET ucr.lastReadMessageId = :messageId " +
+            "WHERE ucr.user.id = :userId AND ucr.chatRoom.id = :chatRoomId " +
+            "AND (ucr.lastReadMessageId IS NULL OR ucr.lastReadMessageId < :messageId)")
+    int advanceLastReadMessageId(@Param("chatRoomId") Long chatRoomId, @Param("userId") Long userId, @Param("messageId") Long messageId);
+
+    // 채팅방 참여자들의 읽음 워터마크
+    @Query("SELECT ucr.user.id AS userId, ucr.lastReadMessageId AS lastReadMessageId FROM UserChatRoom ucr WHERE ucr.chatRoom.id = :chatRoomId")
+    List<ReadWatermark> findReadWatermarksByChatRoomId(@Param("chatRoomId") Long chatRoomId);
+
+    // 여러 채팅방의 참여자 ID
+    @Query("SELECT ucr.chatRoom.id AS chatRoomId, ucr.user.id AS userId FROM UserChatRoom ucr WHERE ucr.chatRoom.id IN :chatRoomIds")
+    List<RoomMember> findMemberIdsByChatRoomIds(@Param("chatRoomIds") Collection<Long> chatRoomIds);
+
+    // 사용자의 채팅방별 안 읽은 메시지 수 (읽음 워터마크 이후, 내가 보낸 메시지 제외)
+    @Query("SELECT ucr.chatRoom.id AS chatRoomId, COUNT(m) AS unreadCount FROM UserChatRoom ucr, Message m " +
+            "WHERE ucr.user.id = :userId AND ucr.chatRoom.deletedAt IS NULL AND m.chatRoom.id = ucr.chatRoom.id AND m.sender.id <> :userId " +
+            "AND (ucr.lastReadMessageId IS NULL OR m.id > ucr.lastReadMessageId) " +
+            "GROUP BY ucr.chatRoom.id")
+    List<UnreadCount> countUnreadMessagesByUserId(@Param("userId") Long userId);
+
+    // 여러 채팅방의 참여자 프로필 (채팅방 목록 조회 시 한 번에 조회)
+    @Query("SELECT ucr.chatRoom.id AS chatRoomId, u.id AS userId, u.name AS name, u.emoji AS emoji " +
+            "FROM UserChatRoom ucr JOIN ucr.user u WHERE ucr.chatRoom.id IN :chatRoomIds")
+    List<MemberProfile> findMemberProfilesByChatRoomIds(@Param("chatRoomIds") Collection<Long> chatRoomIds);
+
+    // 사용자별 채팅방 활동 시각 (활동 순서 인덱스 재생성용)
+    @Query("SELECT ucr.user.id AS userId, ucr.chatRoom.id AS chatRoomId, ucr.chatRoom.createdAt AS createdAt, " +
+            "(SELECT MAX(m.sentAt) FROM Message m WHERE m.chatRoom.id = ucr.chatRoom.id) AS lastMessageAt " +
+            "FROM UserChatRoom ucr WHERE ucr.user.id IN :userIds AND ucr.chatRoom.deletedAt IS NULL")
+    List<MemberRoomActivity> findRoomActivitiesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // 채팅방에 참여 중인 사용자 ID (ID 순, 커서 기반)
+    @Query("SELECT DISTINCT ucr.user.id FROM UserChatRoom ucr WHERE ucr.user.id > :afterUserId ORDER BY ucr.user.id")
+    List<Long> findMemberUserIdsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
+
+    // 채팅방 참여 행 ID 청크 (채팅방 삭제 후 정리용)
+    @Query("SELECT ucr.id FROM UserChatRoom ucr WHERE ucr.chatRoom.id = :chatRoomId ORDER BY ucr.id")
+    List<Long> findIdsByChatRoomId(@Param("chatRoomId") Long chatRoomId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM UserChatRoom ucr WHERE ucr.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface MemberRoomActivity {
+        Long getUserId();
+        Long getChatRoomId();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getLastMessageAt();
+    }
+
+    interface RoomMember {
+        Long getChatRoomId();
+        Long getUserId();
+    }
+
+    interface MemberProfile {
+        Long getChatRoomId();
+        Long getUserId();
+        String getName();
+        Emoji getEmoji();
+    }
+
+    interface UnreadCount {
+        Long getChatRoomId();
+        Long getUnreadCount();
+    }
+
+    interface ReadWatermark {
+        Long getUserId();
+        Long getLastReadMessageId();
+    }
+
 }
 
@@ -1,6 +1,7 @@
 package com.example.chating.Service;
 
 import com.example.chating.Dto.TokenResponseDTO;
+import com.example.chating.domain.Emoji;
 import com.example.chating.domain.User;
 import com.example.chating.Dto.LoginRequestDTO;
 import com.example.chating.Dto.LoginResponseDTO;
@@ -33,6 +34,7 @@ public class AuthService {
         User user = new User();
         user.setName(signUpRequestDTO.getUsername());
         user.setPassword(encodedPassword);
+        user.setEmoji(Emoji.ETC); // emoji 컬럼은 NOT NULL (가입 시 선택하지 않으면 기본값)
         userRepository.save(user);
     }
 
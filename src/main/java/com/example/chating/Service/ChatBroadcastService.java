@@ -0,0 +1,178 @@
+package com.example.chating.Service;
+
+import com.example.chating.Redis.RedisBroadcastMessage;
+import com.example.chating.Redis.RedisPublisher;
+import com.example.chating.global.metrics.StompSessionMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * STOMP 메시지 전송 (단일 노드 / 클러스터 공통)
+ * - 메시지는 항상 이 노드의 구독자에게 먼저 전달합니다.
+ * - 클러스터 모드(chat.cluster.enabled=true)에서는 Redis 채널(chatroom.{roomId}, chatuser.{userId})로도 발행하고,
+ *   다른 노드는 RedisSubscriber 를 통해 자신의 구독자에게 한 번씩 전달합니다.
+ * - 발행한 노드는 자신의 메시지를 origin 으로 구분해 다시 전달하지 않습니다.
+ * - 묶음 전송(chat.broadcast.batching.enabled=true)에서는 바쁜 채팅방의 메시지를 모아 배열 한 프레임으로 보냅니다.
+ *   (클라이언트는 /topic/{roomId} 프레임이 배열이면 순서대로 처리, 다른 노드에도 배열 그대로 전달)
+ */
+@Slf4j
+@Service
+public class ChatBroadcastService implements DisposableBean {
+
+    private static final String ROOM_CHANNEL = "chatroom.%s";
+    private static final String USER_CHANNEL = "chatuser.%s";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RedisPublisher redisPublisher;
+    private final ObjectMapper objectMapper;
+    private final boolean clusterEnabled;
+    private final StompSessionMetrics stompSessionMetrics;
+    private final DistributionSummary roomFanout;
+    // 채팅방 메시지 묶음 전송 (사용하지 않으면 null)
+    private final RoomMessageBatcher roomMessageBatcher;
+
+    // 노드 식별자 (재시작할 때마다 새로 발급)
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // 노드 간 전달 지표
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder skippedOwn = new LongAdder();
+
+    public ChatBroadcastService(SimpMessagingTemplate messagingTemplate,
+                                RedisPublisher redisPublisher,
+                                ObjectMapper objectMapper,
+                                StompSessionMetrics stompSessionMetrics,
+                                MeterRegistry meterRegistry,
+                                @Value("${chat.cluster.enabled:false}") boolean clusterEnabled,
+                                @Value("${chat.broadcast.batching.enabled:false}") boolean batchingEnabled,
+                                @Value("${chat.broadcast.batching.max-delay-ms:5}") long batchMaxDelayMs,
+                                @Value("${chat.broadcast.batching.max-messages:50}") int batchMaxMessages) {
+        this.messagingTemplate = messagingTemplate;
+        this.redisPublisher = redisPublisher;
+        this.objectMapper = objectMapper;
+        this.stompSessionMetrics = stompSessionMetrics;
+        this.clusterEnabled = clusterEnabled;
+        this.roomFanout = fanoutSummary(meterRegistry, "room");
+        this.roomMessageBatcher = batchingEnabled
+                ? new RoomMessageBatcher(TimeUnit.MILLISECONDS.toMicros(batchMaxDelayMs), batchMaxMessages, this::sendRoomFrame)
+                : null;
+    }
+
+    // 전송 한 번에 이 노드에서 받는 구독자 수 (target: room, room-list)
+    static DistributionSummary fanoutSummary(MeterRegistry meterRegistry, String target) {
+        return DistributionSummary.builder("chat.broadcast.fanout")
+                .description("Local recipients per broadcast")
+                .tag("target", target)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // 채팅방 구독자에게 전송 (/topic/{roomId})
+    public void sendToRoom(Long roomId, Object payload) {
+        if (roomMessageBatcher != null) {
+            roomMessageBatcher.submit(roomId, payload);
+        } else {
+            sendRoomFrame(roomId, payload);
+        }
+    }
+
+    // 채팅방 프레임 하나 전송 (payload: 메시지 또는 묶음 전송된 메시지 목록)
+    private void sendRoomFrame(Long roomId, Object payload) {
+        String destination = "/topic/" + roomId;
+        messagingTemplate.convertAndSend(destination, payload);
+        roomFanout.record(stompSessionMetrics.getLocalSubscribers(destination));
+        if (clusterEnabled) {
+            publish(String.format(ROOM_CHANNEL, roomId), destination, null, payload);
+        }
+    }
+
+    // 채팅방 하위 목적지 구독자에게 전송 (/topic/{roomId}/{subDestination}, 다른 노드에는 채팅방 채널로 발행)
+    public void sendToRoom(Long roomId, String subDestination, Object payload) {
+        String destination = "/topic/" + roomId + "/" + subDestination;
+        messagingTemplate.convertAndSend(destination, payload);
+        if (clusterEnabled) {
+            publish(String.format(ROOM_CHANNEL, roomId), destination, null, payload);
+        }
+    }
+
+    // 사용자에게 전송 (/user/queue/...)
+    public void sendToUser(Long userId, String destination, Object payload) {
+        messagingTemplate.convertAndSendToUser(userId.toString(), destination, payload);
+        if (clusterEnabled) {
+            publish(String.format(USER_CHANNEL, userId), destination, userId.toString(), payload);
+        }
+    }
+
+    // 다른 노드에서 발행한 메시지를 이 노드의 구독자에게 전달
+    public void deliver(RedisBroadcastMessage message) {
+        if (nodeId.equals(message.getOrigin())) {
+            skippedOwn.increment();
+            return;
+        }
+        if (message.getUser() != null) {
+            messagingTemplate.convertAndSendToUser(message.getUser(), message.getDestination(), message.getPayload());
+        } else {
+            messagingTemplate.convertAndSend(message.getDestination(), message.getPayload());
+            roomFanout.record(stompSessionMetrics.getLocalSubscribers(message.getDestination()));
+        }
+        delivered.increment();
+    }
+
+    private void publish(String channel, String destination, String user, Object payload) {
+        try {
+            RedisBroadcastMessage message = new RedisBroadcastMessage(nodeId, destination, user, objectMapper.valueToTree(payload));
+            redisPublisher.publishJson(channel, objectMapper.writeValueAsString(message));
+            published.increment();
+        } catch (JsonProcessingException | RuntimeException e) {
+            // 로컬 전달은 이미 완료되었으므로 다른 노드 전달 실패만 기록
+            log.error("Failed to publish message to {}", channel, e);
+        }
+    }
+
+    public boolean isClusterEnabled() {
+        return clusterEnabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    public long getSkippedOwn() {
+        return skippedOwn.sum();
+    }
+
+    public long getBatchedFrames() {
+        return roomMessageBatcher != null ? roomMessageBatcher.getFrames() : 0;
+    }
+
+    public long getBatchedMessages() {
+        return roomMessageBatcher != null ? roomMessageBatcher.getMessages() : 0;
+    }
+
+    @Override
+    public void destroy() {
+        if (roomMessageBatcher != null) {
+            roomMessageBatcher.close();
+        }
+    }
+}
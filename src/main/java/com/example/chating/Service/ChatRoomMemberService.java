@@ -0,0 +1,113 @@
+package com.example.chating.Service;
+
+import com.example.chating.Redis.CompactRedisSerializer;
+import com.example.chating.Repository.UserChatRoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 채팅방 참여자 ID 조회
+ * - Redis 의 chatroom:{id}:users Set 을 우선 사용하고, 비어 있는 채팅방만 DB 에서 한 번에 조회해 다시 채웁니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatRoomMemberService {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final UserChatRoomRepository userChatRoomRepository;
+
+    private static final String CHAT_ROOM_USERS_KEY = "chatroom:%s:users";
+
+    public Set<Long> getMemberIds(Long chatRoomId) {
+        return getMemberIds(List.of(chatRoomId)).get(chatRoomId);
+    }
+
+    // 여러 채팅방의 참여자 ID (Redis 파이프라인 한 번 + 필요한 경우 DB 쿼리 한 번)
+    public Map<Long, Set<Long>> getMemberIds(Collection<Long> chatRoomIds) {
+        List<Long> roomIds = new ArrayList<>(new LinkedHashSet<>(chatRoomIds));
+        Map<Long, Set<Long>> membersByRoom = new HashMap<>();
+        if (roomIds.isEmpty()) {
+            return membersByRoom;
+        }
+
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                roomIds.forEach(roomId -> ops.opsForSet().members(String.format(CHAT_ROOM_USERS_KEY, roomId)));
+                return null;
+            }
+        });
+
+        List<Long> missingRoomIds = new ArrayList<>();
+        Set<Long> unreadableRoomIds = new HashSet<>();
+        for (int i = 0; i < roomIds.size(); i++) {
+            Collection<?> members = (Collection<?>) results.get(i);
+            if (members == null || members.isEmpty()) {
+                missingRoomIds.add(roomIds.get(i));
+                continue;
+            }
+            Set<Long> memberIds = new HashSet<>();
+            for (Object member : members) {
+                Long memberId = CompactRedisSerializer.toId(member);
+                if (memberId == null) {
+                    // 알 수 없는 형식의 멤버: 예외 대신 DB 에서 다시 채움
+                    log.warn("Unreadable member {} in {}, reloading from DB", member, String.format(CHAT_ROOM_USERS_KEY, roomIds.get(i)));
+                    memberIds = null;
+                    break;
+                }
+                memberIds.add(memberId);
+            }
+            if (memberIds == null) {
+                missingRoomIds.add(roomIds.get(i));
+                unreadableRoomIds.add(roomIds.get(i));
+                continue;
+            }
+            membersByRoom.put(roomIds.get(i), memberIds);
+        }
+
+        if (!missingRoomIds.isEmpty()) {
+            Map<Long, Set<Long>> loaded = new HashMap<>();
+            userChatRoomRepository.findMemberIdsByChatRoomIds(missingRoomIds)
+                    .forEach(row -> loaded.computeIfAbsent(row.getChatRoomId(), id -> new HashSet<>()).add(row.getUserId()));
+            cacheMemberIds(loaded, unreadableRoomIds);
+            missingRoomIds.forEach(roomId -> membersByRoom.put(roomId, loaded.getOrDefault(roomId, Set.of())));
+        }
+
+        return membersByRoom;
+    }
+
+    // unreadableRoomIds: 읽을 수 없는 멤버가 있던 채팅방 (기존 Set 을 지우고 다시 채움)
+    private void cacheMemberIds(Map<Long, Set<Long>> membersByRoom, Set<Long> unreadableRoomIds) {
+        if (membersByRoom.isEmpty() && unreadableRoomIds.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                unreadableRoomIds.forEach(roomId -> ops.delete(String.format(CHAT_ROOM_USERS_KEY, roomId)));
+                membersByRoom.forEach((roomId, memberIds) ->
+                        ops.opsForSet().add(String.format(CHAT_ROOM_USERS_KEY, roomId), memberIds.toArray()));
+                return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.chating.Service;
+
+import com.example.chating.Repository.ChatRoomRepository;
+import com.example.chating.Repository.MessageRepository;
+import com.example.chating.Repository.UserChatRoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 삭제 표시(tombstone)된 채팅방의 연관 데이터 정리
+ * - 채팅방 삭제 요청은 ChatRoom.deletedAt 만 표시하고 즉시 반환하며, 실제 삭제는 별도의 purge 스레드가 처리합니다.
+ * - 메시지 (레거시 읽음 조인 테이블 포함) -> UserChatRoom -> ChatRoom 순서로, 청크마다 하나의 트랜잭션에서
+ *   ID 목록을 조회한 뒤 한 번의 bulk DELETE 로 삭제합니다. 엔티티를 메모리에 불러오지 않습니다.
+ * - 진행 상태는 DB 자체(남은 행)이므로, 중간에 종료되더라도 시작 시 deletedAt 이 남아 있는 채팅방을 다시 큐에 넣어 이어서 정리합니다.
+ *   모든 단계는 여러 번 실행해도 안전하므로 여러 노드가 같은 채팅방을 동시에 정리해도 결과는 같습니다.
+ */
+@Slf4j
+@Service
+public class ChatRoomPurgeService implements SmartLifecycle {
+
+    private static final String LEGACY_READ_JOIN_TABLE = "message_read_by_users";
+    private static final int MAX_PURGE_ATTEMPTS = 3;
+
+    private final ChatRoomRepository chatRoomRepository;
+    private final MessageRepository messageRepository;
+    private final UserChatRoomRepository userChatRoomRepository;
+    private final MessageSearchIndexer messageSearchIndexer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    private final BlockingQueue<Long> queue = new LinkedBlockingQueue<>();
+    // 큐에 들어 있거나 정리 중인 채팅방 (중복 등록 방지)
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running = false;
+    private volatile boolean legacyReadTableExists = false;
+    private Thread purgeThread;
+
+    private final LongAdder purgedRooms = new LongAdder();
+    private final LongAdder purgedMessages = new LongAdder();
+    private final LongAdder failedRooms = new LongAdder();
+
+    public ChatRoomPurgeService(ChatRoomRepository chatRoomRepository,
+                                MessageRepository messageRepository,
+                                UserChatRoomRepository userChatRoomRepository,
+                                MessageSearchIndexer messageSearchIndexer,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${chat.purge.chunk-size:1000}") int chunkSize) {
+        this.chatRoomRepository = chatRoomRepository;
+        this.messageRepository = messageRepository;
+        this.userChatRoomRepository = userChatRoomRepository;
+        this.messageSearchIndexer = messageSearchIndexer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    // 삭제 표시가 커밋된 뒤 호출
+    public void schedule(Long chatRoomId) {
+        if (pending.add(chatRoomId)) {
+            queue.add(chatRoomId);
+        }
+    }
+
+    private void runPurger() {
+        while (running) {
+            Long chatRoomId;
+            try {
+                chatRoomId = queue.poll(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (chatRoomId == null) {
+                continue;
+            }
+            try {
+                purgeWithRetry(chatRoomId);
+            } finally {
+                pending.remove(chatRoomId);
+            }
+        }
+    }
+
+    private void purgeWithRetry(Long chatRoomId) {
+        for (int attempt = 1; attempt <= MAX_PURGE_ATTEMPTS && running; attempt++) {
+            try {
+                if (purge(chatRoomId)) {
+                    purgedRooms.increment();
+                    messageSearchIndexer.deleteRoom(chatRoomId);
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_PURGE_ATTEMPTS) {
+                    // deletedAt 이 남아 있으므로 다음 시작 시 다시 정리됨
+                    failedRooms.increment();
+                    log.error("Failed to purge chat room {} after {} attempts", chatRoomId, attempt, e);
+                    return;
+                }
+                log.warn("Purge attempt {} for chat room {} failed, retrying", attempt, chatRoomId, e);
+            }
+        }
+    }
+
+    /**
+     * 채팅방 하나를 정리합니다. 종료 중이면 중간에 멈추고, 남은 부분은 다음 시작 시 이어서 처리됩니다.
+     *
+     * @return 채팅방 행까지 삭제했으면 true
+     */
+    boolean purge(Long chatRoomId) {
+        Pageable chunk = PageRequest.of(0, chunkSize);
+
+        // 1. 메시지 (+ 레거시 읽음 조인 행)
+        while (running) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> messageIds = messageRepository.findIdsByChatRoomId(chatRoomId, chunk);
+                if (messageIds.isEmpty()) {
+                    return 0;
+                }
+                if (legacyReadTableExists) {
+                    deleteLegacyReadRows(messageIds);
+                }
+                return messageRepository.deleteAllByIdIn(messageIds);
+            });
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            purgedMessages.add(deleted);
+        }
+
+        // 2. 채팅방 참여 행
+        while (running) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> userChatRoomIds = userChatRoomRepository.findIdsByChatRoomId(chatRoomId, chunk);
+                return userChatRoomIds.isEmpty() ? 0 : userChatRoomRepository.deleteAllByIdIn(userChatRoomIds);
+            });
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+        }
+
+        // 3. 채팅방 행 (정리 도중 write-behind 로 늦게 저장된 메시지가 있으면 FK 오류 -> 재시도에서 다시 정리)
+        if (!running) {
+            return false;
+        }
+        Integer deleted = transactionTemplate.execute(status -> chatRoomRepository.deleteTombstoned(chatRoomId));
+        return deleted != null && deleted > 0;
+    }
+
+    private void deleteLegacyReadRows(List<Long> messageIds) {
+        String placeholders = String.join(",", Collections.nCopies(messageIds.size(), "?"));
+        jdbcTemplate.update("DELETE FROM " + LEGACY_READ_JOIN_TABLE + " WHERE message_id IN (" + placeholders + ")",
+                messageIds.toArray());
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, table, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        }));
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        legacyReadTableExists = tableExists(LEGACY_READ_JOIN_TABLE);
+        running = true;
+
+        // 이전 실행에서 끝나지 않은 정리 이어서 진행
+        List<Long> unfinished = chatRoomRepository.findDeletedIds();
+        unfinished.forEach(this::schedule);
+
+        purgeThread = new Thread(this::runPurger, "chat-room-purge");
+        purgeThread.setDaemon(true);
+        purgeThread.start();
+        log.info("Chat room purge started (chunkSize={}, resumed={})", chunkSize, unfinished.size());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // 진행 중인 청크만 마치고 종료 (나머지는 다음 시작 시 이어서 정리)
+        running = false;
+        try {
+            purgeThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Chat room purge stopped (purgedRooms={}, pending={})", purgedRooms.sum(), pending.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getPendingRooms() {
+        return pending.size();
+    }
+
+    public long getPurgedRooms() {
+        return purgedRooms.sum();
+    }
+
+    public long getPurgedMessages() {
+        return purgedMessages.sum();
+    }
+
+    public long getFailedRooms() {
+        return failedRooms.sum();
+    }
+}
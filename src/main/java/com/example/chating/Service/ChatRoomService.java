@@ -15,13 +15,21 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -35,10 +43,14 @@ public class ChatRoomService {
     private final UserService userService;
     private final UserChatRoomRepository userChatRoomRepository;
     private final MessageRepository messageRepository;
-//    private final ActiveUserRepository activeUserRepository;
+    private final MessageCacheService messageCacheService;
+    private final UnreadCountService unreadCountService;
+    private final RoomActivityIndexService roomActivityIndexService;
+    private final ChatRoomMemberService chatRoomMemberService;
+    private final EntityCacheService entityCacheService;
+    private final ChatRoomPurgeService chatRoomPurgeService;
 
     private static final String CHAT_ROOMS_KEY = "chatrooms";
-    private static final String CHAT_ROOM_ACTIVITY_KEY = "chatroom:activity";
     private static final String CHAT_ROOM_LATEST_MESSAGE_KEY = "chatroom:%s:latestMessage";
     // 채팅방 생성
     @Transactional
@@ -59,33 +71,53 @@ public class ChatRoomService {
     }
 
 
-    // 채팅방 삭제
+    /**
+     * 채팅방 삭제
+     * - 채팅방에 삭제 표시(deletedAt)만 하고 Redis 에서 즉시 숨긴 뒤 반환합니다.
+     * - 메시지 / 참여 행 / 채팅방 행은 커밋 후 ChatRoomPurgeService 가 청크 단위로 삭제합니다.
+     */
     @Transactional
     public void deleteChatRoom(Long chatRoomId) {
-        // 연관된 메시지 삭제
-        List<Message> messages = messageRepository.findByChatRoomId(chatRoomId);
-        if (!messages.isEmpty()) {
-            messageRepository.deleteAll(messages);
+        if (chatRoomRepository.markDeleted(chatRoomId, LocalDateTime.now()) == 0) {
+            // 없는 채팅방이거나 이미 삭제 표시됨 (정리는 이미 예약되어 있음)
+            return;
         }
 
-        // 연관된 UserChatRoom 삭제
-        List<UserChatRoom> userChatRooms = userChatRoomRepository.findByChatRoomId(chatRoomId);
-        if (!userChatRooms.isEmpty()) {
-            userChatRooms.forEach(userChatRoom -> {
-                String userChatRoomsKey = "user:" + userChatRoom.getUser().getId() + ":chatrooms";
-                redisTemplate.opsForSet().remove(userChatRoomsKey, chatRoomId);
+        // Redis 정리 (참여자 조회 1회 + 파이프라인 1회)
+        Set<Long> memberIds = chatRoomMemberService.getMemberIds(chatRoomId);
+        String roomId = chatRoomId.toString();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                memberIds.forEach(userId -> {
+                    ops.opsForSet().remove("user:" + userId + ":chatrooms", chatRoomId);
+                    unreadCountService.remove(ops, userId, roomId);
+                    roomActivityIndexService.remove(ops, userId, roomId);
+                });
+                ops.delete("chatroom:" + chatRoomId + ":users");
+                ops.delete(String.format(CHAT_ROOM_LATEST_MESSAGE_KEY, chatRoomId));
+                ops.opsForHash().delete(CHAT_ROOMS_KEY, roomId);
+                return null;
+            }
+        });
+
+        // Redis의 최근 메시지 캐시 삭제
+        messageCacheService.evictRecentMessages(chatRoomId);
+        entityCacheService.evictChatRoom(chatRoomId);
+
+        // 삭제 표시가 커밋된 뒤에 정리 시작
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    chatRoomPurgeService.schedule(chatRoomId);
+                }
             });
-            userChatRoomRepository.deleteAll(userChatRooms);
+        } else {
+            chatRoomPurgeService.schedule(chatRoomId);
         }
-
-        // Redis에서 채팅방 삭제
-        redisTemplate.opsForHash().delete(CHAT_ROOMS_KEY, chatRoomId.toString());
-
-        // Redis의 활동 시간 데이터 삭제
-        redisTemplate.opsForZSet().remove(CHAT_ROOM_ACTIVITY_KEY, chatRoomId.toString());
-
-        chatRoomRepository.deleteById(chatRoomId);
-
     }
 
 
@@ -112,6 +144,9 @@ public class ChatRoomService {
 
         userChatRoomRepository.save(userChatRoom);
 
+        // 참여한 채팅방을 사용자의 채팅방 목록 맨 위에 추가
+        roomActivityIndexService.touch(List.of(userId), chatRoomId, System.currentTimeMillis());
+
         // 확인 로그 추가
         System.out.println("User " + userId + " added to chat room " + chatRoomId);
     }
@@ -124,6 +159,8 @@ public class ChatRoomService {
         // 사용자와 채팅방 간 매핑 데이터 제거 (Redis)
         redisTemplate.opsForSet().remove(userChatRoomsKey, chatRoomId);
         redisTemplate.opsForSet().remove(chatRoomUsersKey, userId);
+        unreadCountService.remove(userId, chatRoomId);
+        roomActivityIndexService.remove(userId, chatRoomId);
 
         // DB에서 제거
         User user = userService.getUserById(userId);
@@ -135,68 +172,144 @@ public class ChatRoomService {
         userChatRoomRepository.delete(userChatRoom);
     }
 
-    // 채팅방 최신 활동 시간 업데이트
+    // 채팅방 최신 활동 시간 업데이트 (참여자별 채팅방 활동 순서)
     public void updateChatRoomActivity(Long chatRoomId) {
-        redisTemplate.opsForZSet().add(CHAT_ROOM_ACTIVITY_KEY, chatRoomId.toString(), System.currentTimeMillis());
+        roomActivityIndexService.touch(chatRoomMemberService.getMemberIds(chatRoomId), chatRoomId, System.currentTimeMillis());
     }
 
-    // 사용자 채팅방 목록 (최신 활동 기준 정렬)
     public List<ChatRoomDto> getChatRoomsByUser(Long userId) {
-        String userChatRoomsKey = "user:" + userId + ":chatrooms";
+        return getChatRoomsByUser(userId, 0, 0);
+    }
+
+    /**
+     * 사용자 채팅방 목록 (최신 활동 기준 정렬, offset / limit 페이지)
+     * - 사용자별 활동 순서 인덱스(user:{id}:rooms:activity)에서 필요한 범위만 조회합니다.
+     * - Redis 조회는 파이프라인으로 묶어 채팅방 수와 관계없이 일정한 왕복 횟수로 처리합니다.
+     * - 캐시에 없는 채팅방 / 최신 메시지와 참여자 프로필은 IN 쿼리로 한 번에 조회한 뒤 메모리에서 조립합니다.
+     *
+     * @param limit 0 이하이면 전체 조회
+     */
+    public List<ChatRoomDto> getChatRoomsByUser(Long userId, int offset, int limit) {
+        return toChatRoomDtos(userId, roomActivityIndexService.getRooms(userId, offset, limit));
+    }
+
+    /**
+     * 사용자 채팅방 목록 (점수 커서 기반)
+     *
+     * @param beforeActivityAt 이 시각(epoch millis, 이전 페이지 마지막 채팅방의 lastActivityAt)보다 이전에 활동한 채팅방 조회
+     */
+    public List<ChatRoomDto> getChatRoomsByUserBefore(Long userId, long beforeActivityAt, int limit) {
+        return toChatRoomDtos(userId, roomActivityIndexService.getRoomsBefore(userId, beforeActivityAt, limit));
+    }
+
+    private List<ChatRoomDto> toChatRoomDtos(Long userId, List<RoomActivityIndexService.RoomActivity> rooms) {
+        if (rooms.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        // Redis에서 참여 채팅방 ID 가져오기 및 변환
-        Set<Long> userChatRoomIdsSet = redisTemplate.opsForSet()
-                .members(userChatRoomsKey)
-                .stream()
-                .map(obj -> {
-                    String str = obj.toString();
-                    return Long.valueOf(str.replaceAll("\\[\"java.lang.Long\",", "").replaceAll("]", "").trim());
-                })
-                .collect(Collectors.toSet());
-
-        if (userChatRoomIdsSet == null || userChatRoomIdsSet.isEmpty()) {
-            List<UserChatRoom> userChatRooms = userChatRoomRepository.findByUserId(userId);
-            userChatRoomIdsSet = userChatRooms.stream()
-                    .map(userChatRoom -> userChatRoom.getChatRoom().getId())
-                    .collect(Collectors.toSet());
-            userChatRoomIdsSet.forEach(chatRoomId -> redisTemplate.opsForSet().add(userChatRoomsKey, chatRoomId));
+        // 1. 최신 활동 순서
+        List<Long> sortedChatRoomIds = new ArrayList<>(rooms.size());
+        Map<Long, Long> activityAt = new HashMap<>();
+        for (RoomActivityIndexService.RoomActivity room : rooms) {
+            sortedChatRoomIds.add(room.chatRoomId());
+            activityAt.put(room.chatRoomId(), (long) room.score());
         }
 
-        // Redis ZSet에서 최신 활동 기준으로 정렬된 채팅방 ID 가져오기
-        List<Long> sortedChatRoomIds = redisTemplate.opsForZSet()
-                .reverseRange(CHAT_ROOM_ACTIVITY_KEY, 0, -1)
-                .stream()
+        // 2. 채팅방 정보 / 최신 메시지 (파이프라인 1회)
+        List<Object> roomFields = sortedChatRoomIds.stream()
                 .map(Object::toString)
-                .map(Long::valueOf)
-                .filter(userChatRoomIdsSet::contains) // 참여 중인 채팅방만 포함
                 .collect(Collectors.toList());
+        List<String> latestMessageKeys = sortedChatRoomIds.stream()
+                .map(chatRoomId -> String.format(CHAT_ROOM_LATEST_MESSAGE_KEY, chatRoomId))
+                .collect(Collectors.toList());
+        List<Object> cached = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.opsForHash().multiGet(CHAT_ROOMS_KEY, roomFields);
+                ops.opsForValue().multiGet(latestMessageKeys);
+                return null;
+            }
+        });
+        List<?> cachedRooms = (List<?>) cached.get(0);
+        List<?> cachedLatestMessages = (List<?>) cached.get(1);
+
+        Map<Long, ChatRoom> chatRooms = new HashMap<>();
+        Map<Long, String> latestMessages = new HashMap<>();
+        List<Long> missingRoomIds = new ArrayList<>();
+        List<Long> missingLatestMessageIds = new ArrayList<>();
+        for (int i = 0; i < sortedChatRoomIds.size(); i++) {
+            Long chatRoomId = sortedChatRoomIds.get(i);
+            if (cachedRooms.get(i) instanceof ChatRoom chatRoom) {
+                chatRooms.put(chatRoomId, chatRoom);
+            } else {
+                missingRoomIds.add(chatRoomId);
+            }
+            if (cachedLatestMessages.get(i) instanceof String latestMessage) {
+                latestMessages.put(chatRoomId, latestMessage);
+            } else {
+                missingLatestMessageIds.add(chatRoomId);
+            }
+        }
+
+        // 3. 캐시에 없는 데이터는 DB 에서 한 번에 조회 후 Redis 에 다시 저장 (파이프라인 1회)
+        Map<Long, ChatRoom> loadedRooms = new HashMap<>();
+        if (!missingRoomIds.isEmpty()) {
+            chatRoomRepository.findAllById(missingRoomIds).stream()
+                    .filter(chatRoom -> chatRoom.getDeletedAt() == null) // 삭제 표시된 채팅방 제외
+                    .forEach(chatRoom -> loadedRooms.put(chatRoom.getId(), chatRoom));
+            chatRooms.putAll(loadedRooms);
+        }
+        Map<Long, String> loadedLatestMessages = new HashMap<>();
+        if (!missingLatestMessageIds.isEmpty()) {
+            messageRepository.findLatestMessagesByChatRoomIds(missingLatestMessageIds)
+                    .forEach(latestMessage -> loadedLatestMessages.put(latestMessage.getChatRoomId(), latestMessage.getContent()));
+            latestMessages.putAll(loadedLatestMessages);
+        }
+        if (!loadedRooms.isEmpty() || !loadedLatestMessages.isEmpty()) {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    loadedRooms.forEach((chatRoomId, chatRoom) ->
+                            ops.opsForHash().put(CHAT_ROOMS_KEY, chatRoomId.toString(), chatRoom));
+                    loadedLatestMessages.forEach((chatRoomId, latestMessage) ->
+                            ops.opsForValue().set(String.format(CHAT_ROOM_LATEST_MESSAGE_KEY, chatRoomId), latestMessage));
+                    return null;
+                }
+            });
+        }
 
-        // 정렬된 목록에 없는 채팅방 추가
-        userChatRoomIdsSet.stream()
-                .filter(id -> !sortedChatRoomIds.contains(id)) // 정렬되지 않은 채팅방 추가
-                .forEach(sortedChatRoomIds::add);
+        // 4. 참여자 프로필 (쿼리 1회)
+        Map<Long, List<UserProfileDto>> userProfiles = getUserProfilesByChatRoomIds(sortedChatRoomIds);
 
-        System.out.println("Redis userChatRoomIdsSet: " + userChatRoomIdsSet);
-        System.out.println("Sorted chatRoomIds: " + sortedChatRoomIds);
+        // 5. 채팅방별 안 읽은 메시지 수 (Redis 해시 한 번 조회)
+        Map<Long, Long> unreadCounts = unreadCountService.getUnreadCounts(userId, sortedChatRoomIds);
 
         return sortedChatRoomIds.stream()
-                .map(chatRoomId -> {
-                    ChatRoom chatRoom = getChatRoomById(chatRoomId);
-
-                    // 최신 메시지 Redis에서 가져오기
-                    String latestMessageKey = String.format(CHAT_ROOM_LATEST_MESSAGE_KEY, chatRoomId);
-                    String latestMessage = (String) redisTemplate.opsForValue().get(latestMessageKey);
-                    if (latestMessage == null) {
-                        latestMessage = getLatestMessageContentFromDb(chatRoomId);
-                        redisTemplate.opsForValue().set(latestMessageKey, latestMessage);
-                    }
-
-                    List<UserProfileDto> userProfiles = getUserProfilesByChatRoomId(chatRoomId);
-                    return new ChatRoomDto(chatRoom, latestMessage, userProfiles);
-                })
+                .filter(chatRooms::containsKey) // DB 에서도 찾을 수 없는 채팅방 제외
+                .map(chatRoomId -> new ChatRoomDto(
+                        chatRooms.get(chatRoomId),
+                        latestMessages.get(chatRoomId),
+                        userProfiles.getOrDefault(chatRoomId, new ArrayList<>()),
+                        unreadCounts.getOrDefault(chatRoomId, 0L),
+                        activityAt.get(chatRoomId)
+                ))
                 .collect(Collectors.toList());
     }
 
+    // 여러 채팅방의 참여자 프로필을 한 번에 조회
+    public Map<Long, List<UserProfileDto>> getUserProfilesByChatRoomIds(Collection<Long> chatRoomIds) {
+        Map<Long, List<UserProfileDto>> userProfiles = new HashMap<>();
+        userChatRoomRepository.findMemberProfilesByChatRoomIds(chatRoomIds)
+                .forEach(profile -> userProfiles
+                        .computeIfAbsent(profile.getChatRoomId(), id -> new ArrayList<>())
+                        .add(new UserProfileDto(profile.getUserId(), profile.getName(), profile.getEmoji())));
+        return userProfiles;
+    }
+
     public String getLatestMessageContentFromDb(Long chatRoomId) {
         Pageable pageable = PageRequest.of(0, 1); // 최신 메시지 하나만 가져옴
         List<Message> messages = messageRepository.findLatestMessageByChatRoomId(chatRoomId, pageable);
@@ -206,37 +319,6 @@ public class ChatRoomService {
                 .map(Message::getContent) // 메시지 내용만 반환
                 .orElse(null);
     }
-//
-//    @Transactional
-//    public void updateUserActiveStatus(Long roomId, Long userId, boolean isActive) {
-//        ChatRoom chatRoom = chatRoomRepository.findById(roomId)
-//                .orElseThrow(() -> new IllegalArgumentException("Chat room not found"));
-//
-//        // 활성 사용자 검색
-//        ActiveUser activeUser = activeUserRepository.findByChatRoomAndUserId(chatRoom, userId)
-//                .orElse(ActiveUser.builder()
-//                        .chatRoom(chatRoom)
-//                        .userId(userId)
-//                        .build());
-//
-//        // 상태 업데이트
-//        activeUser.setActive(isActive);
-//
-//        if (isActive) {
-//            activeUserRepository.save(activeUser);
-//        } else {
-//            activeUserRepository.delete(activeUser);
-//        }
-//    }
-//
-//    public boolean isUserActiveInRoom(Long roomId, Long userId) {
-//        ChatRoom chatRoom = chatRoomRepository.findById(roomId)
-//                .orElseThrow(() -> new IllegalArgumentException("Chat room not found"));
-//
-//        return activeUserRepository.findByChatRoomAndUserId(chatRoom, userId)
-//                .map(ActiveUser::isActive)
-//                .orElse(false);
-//    }
 
     public List<UserProfileDto> getUserProfilesByChatRoomId(Long chatRoomId) {
         List<User> users = userChatRoomRepository.findUsersByChatRoomId(chatRoomId);
@@ -258,13 +340,18 @@ public class ChatRoomService {
     }
 
 
-    // 채팅방 ID로 채팅방 정보 조회
+    // 채팅방 ID로 채팅방 정보 조회 (로컬 캐시 -> Redis -> DB)
     public ChatRoom getChatRoomById(Long chatRoomId) {
+        return entityCacheService.getChatRoom(chatRoomId, this::loadChatRoom);
+    }
+
+    private ChatRoom loadChatRoom(Long chatRoomId) {
         Object chatRoomObj = redisTemplate.opsForHash().get("chatrooms", chatRoomId.toString());
         if (chatRoomObj instanceof ChatRoom) {
             return (ChatRoom) chatRoomObj;
         }
         ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
+                .filter(room -> room.getDeletedAt() == null) // 삭제 표시된 채팅방은 없는 것으로 처리
                 .orElseThrow(() -> new IllegalArgumentException("ChatRoom not found"));
         redisTemplate.opsForHash().put("chatrooms", chatRoomId.toString(), chatRoom);
         return chatRoom;
@@ -0,0 +1,70 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.Dto.ChatRoomUpdateDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 채팅방 목록 실시간 갱신
+ * - 메시지가 저장되면 해당 채팅방 참여자에게만 사용자 목적지(/user/queue/rooms)로 변경분을 전송합니다.
+ * - 안 읽은 메시지 수는 저장 파이프라인의 HINCRBY 결과를 그대로 사용하므로 추가 조회가 없습니다.
+ */
+@Service
+public class ChatRoomUpdateService {
+
+    private final ChatBroadcastService chatBroadcastService;
+    private final DistributionSummary roomListFanout;
+
+    public ChatRoomUpdateService(ChatBroadcastService chatBroadcastService, MeterRegistry meterRegistry) {
+        this.chatBroadcastService = chatBroadcastService;
+        this.roomListFanout = ChatBroadcastService.fanoutSummary(meterRegistry, "room-list");
+    }
+
+    private static final String ROOM_UPDATES_DESTINATION = "/queue/rooms";
+    private static final int PREVIEW_LENGTH = 100;
+
+    /**
+     * @param messages 저장된 메시지
+     * @param unreadCounts 채팅방 ID -> (참여자 ID -> 안 읽은 메시지 수), 보낸 사람 제외
+     */
+    public void publish(List<ChatMessage> messages, Map<String, Map<Long, Long>> unreadCounts) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+
+        // 같은 채팅방은 마지막 메시지만 전송
+        Map<String, ChatMessage> latestByRoom = new LinkedHashMap<>();
+        for (ChatMessage message : messages) {
+            latestByRoom.put(message.getRoomId(), message);
+        }
+
+        latestByRoom.forEach((roomId, message) -> {
+            Map<Long, Long> memberUnreadCounts = unreadCounts.getOrDefault(roomId, Map.of());
+            memberUnreadCounts.forEach((memberId, unreadCount) -> send(memberId, toUpdate(message, unreadCount)));
+            if (message.getSenderId() != null) {
+                send(message.getSenderId(), toUpdate(message, null));
+            }
+            roomListFanout.record(memberUnreadCounts.size() + (message.getSenderId() != null ? 1 : 0));
+        });
+    }
+
+    private void send(Long userId, ChatRoomUpdateDto update) {
+        chatBroadcastService.sendToUser(userId, ROOM_UPDATES_DESTINATION, update);
+    }
+
+    static ChatRoomUpdateDto toUpdate(ChatMessage message, Long unreadCount) {
+        String content = message.getContent();
+        String preview = content != null && content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content;
+        Long sentAt = message.getSendAt() != null
+                ? message.getSendAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : null;
+        return new ChatRoomUpdateDto(Long.valueOf(message.getRoomId()), message.getId(), preview, sentAt, unreadCount);
+    }
+}
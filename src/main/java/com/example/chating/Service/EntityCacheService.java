@@ -0,0 +1,155 @@
+package com.example.chating.Service;
+
+import com.example.chating.domain.User;
+import com.example.chating.domain.chat.ChatRoom;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * User / ChatRoom 로컬(L1) 캐시
+ * - 메시지 하나를 처리할 때마다 반복되는 사용자 / 채팅방 조회(MySQL, Redis chatrooms Hash)를 메모리에서 처리합니다.
+ * - 최대 개수와 TTL 로 제한하며, TTL 이 지나면 L2(Redis / DB)에서 다시 읽습니다.
+ * - 사용자 / 채팅방이 변경되면 이 노드의 캐시를 지우고, 클러스터 모드에서는 Redis pub/sub 으로 다른 노드에도 알립니다.
+ * - 캐시된 객체는 여러 스레드가 공유하므로 읽기 전용으로만 사용해야 합니다.
+ */
+@Slf4j
+@Service
+public class EntityCacheService {
+
+    static final String INVALIDATION_CHANNEL = "cache.invalidate";
+    private static final String USER_PREFIX = "user:";
+    private static final String CHAT_ROOM_PREFIX = "chatroom:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final boolean clusterEnabled;
+
+    private final Cache<Long, User> users;
+    private final Cache<Long, ChatRoom> chatRooms;
+
+    // 다른 노드에서 받은 무효화 수
+    private final LongAdder remoteInvalidations = new LongAdder();
+
+    public EntityCacheService(StringRedisTemplate stringRedisTemplate,
+                              @Qualifier("redisContainer") RedisMessageListenerContainer container,
+                              @Value("${chat.cluster.enabled:false}") boolean clusterEnabled,
+                              @Value("${chat.cache.local.max-size:10000}") long maxSize,
+                              @Value("${chat.cache.local.ttl-seconds:60}") long ttlSeconds) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.clusterEnabled = clusterEnabled;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.chatRooms = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        if (clusterEnabled) {
+            container.addMessageListener((message, pattern) ->
+                    onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(INVALIDATION_CHANNEL));
+        }
+    }
+
+    // 캐시에 없으면 loader 로 조회 후 저장 (loader 예외는 그대로 전달, 결과가 null 이면 저장하지 않음)
+    public User getUser(Long userId, Function<Long, User> loader) {
+        return users.get(userId, loader);
+    }
+
+    public ChatRoom getChatRoom(Long chatRoomId, Function<Long, ChatRoom> loader) {
+        return chatRooms.get(chatRoomId, loader);
+    }
+
+    // 사용자 변경 / 삭제 시 호출
+    public void evictUser(Long userId) {
+        evict(USER_PREFIX + userId);
+    }
+
+    // 채팅방 변경 / 삭제 시 호출
+    public void evictChatRoom(Long chatRoomId) {
+        evict(CHAT_ROOM_PREFIX + chatRoomId);
+    }
+
+    private void evict(String key) {
+        invalidateLocal(key);
+        // 트랜잭션 중이면 커밋 후에 다시 지움 (커밋 전에 다른 스레드 / 노드가 이전 값을 다시 읽어 캐시하는 것 방지)
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateLocal(key);
+                    publish(key);
+                }
+            });
+        } else {
+            publish(key);
+        }
+    }
+
+    private void publish(String key) {
+        if (!clusterEnabled) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, key);
+        } catch (RuntimeException e) {
+            // 다른 노드는 TTL 이 지나면 다시 읽음
+            log.warn("Failed to publish cache invalidation for {}", key, e);
+        }
+    }
+
+    // 자신이 발행한 무효화도 받지만 한 번 더 지우는 것이므로 문제 없음
+    void onInvalidation(String key) {
+        remoteInvalidations.increment();
+        invalidateLocal(key);
+    }
+
+    private void invalidateLocal(String key) {
+        if (key.startsWith(USER_PREFIX)) {
+            users.invalidate(Long.valueOf(key.substring(USER_PREFIX.length())));
+        } else if (key.startsWith(CHAT_ROOM_PREFIX)) {
+            chatRooms.invalidate(Long.valueOf(key.substring(CHAT_ROOM_PREFIX.length())));
+        }
+    }
+
+    public CacheStats getUserStats() {
+        return users.stats();
+    }
+
+    public CacheStats getChatRoomStats() {
+        return chatRooms.stats();
+    }
+
+    public long getHits() {
+        return users.stats().hitCount() + chatRooms.stats().hitCount();
+    }
+
+    public long getMisses() {
+        return users.stats().missCount() + chatRooms.stats().missCount();
+    }
+
+    public long getEvictions() {
+        return users.stats().evictionCount() + chatRooms.stats().evictionCount();
+    }
+
+    public long getRemoteInvalidations() {
+        return remoteInvalidations.sum();
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 메시지 저장 후 Redis 캐시(최신 메시지, 참여자별 채팅방 활동 순서, 최근 메시지 목록)를 갱신합니다.
+ * - 여러 메시지를 한 번의 파이프라인 호출로 반영하여 Redis 왕복 횟수를 줄입니다.
+ * - 채팅방별 최근 N개의 메시지를 Redis List(최신순)로 유지하여 첫 페이지 조회를 DB 없이 처리합니다.
+ * - 같은 파이프라인에서 보낸 사람을 제외한 참여자의 안 읽은 메시지 수를 증가시킵니다.
+ * - 최근 메시지를 추가할 때마다 채팅방별 버전을 올리고, DB 조회 후 다시 채우기는 조회 전 버전이 그대로일 때만 반영합니다.
+ *   (조회와 다시 채우기 사이에 저장된 메시지가 지워지지 않도록)
+ */
+@Service
+@RequiredArgsConstructor
+public class MessageCacheService {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ChatRoomMemberService chatRoomMemberService;
+    private final UnreadCountService unreadCountService;
+    private final RoomActivityIndexService roomActivityIndexService;
+
+    private static final String CHAT_ROOM_LATEST_MESSAGE_KEY = "chatroom:%s:latestMessage";
+    private static final String CHAT_ROOM_RECENT_MESSAGES_KEY = "chatroom:%s:recentMessages";
+    // 최근 메시지 목록이 DB 의 최신 N개와 일치함을 나타내는 표시 (없으면 캐시 미스로 보고 DB 에서 다시 채움)
+    private static final String CHAT_ROOM_RECENT_COMPLETE_KEY = "chatroom:%s:recentMessages:complete";
+    // 최근 메시지 목록에 메시지를 추가할 때마다 증가하는 버전
+    private static final String CHAT_ROOM_RECENT_VERSION_KEY = "chatroom:%s:recentMessages:version";
+
+    // 버전이 조회 전과 같을 때만 목록을 교체하고 완료 표시 (KEYS: 목록, 완료 표시, 버전 / ARGV: 버전, TTL, 메시지...)
+    private static final DefaultRedisScript<Long> BACKFILL_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[3]) or '0') ~= ARGV[1] then return 0 end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "if #ARGV > 2 then redis.call('RPUSH', KEYS[1], unpack(ARGV, 3)) end " +
+            "redis.call('SET', KEYS[2], '1', 'EX', ARGV[2]) " +
+            "return 1",
+            Long.class);
+
+    @Value("${chat.message.recent-cache.enabled:true}")
+    private boolean recentCacheEnabled;
+
+    @Value("${chat.message.recent-cache.size:100}")
+    private int recentCacheSize;
+
+    @Value("${chat.message.recent-cache.complete-ttl-seconds:600}")
+    private long recentCompleteTtlSeconds;
+
+    // 최근 메시지 캐시 적중률 지표
+    private final LongAdder recentCacheHits = new LongAdder();
+    private final LongAdder recentCacheMisses = new LongAdder();
+
+    /**
+     * 저장된 메시지들을 채팅방별 최신 메시지 기준으로 한 번에 반영합니다.
+     *
+     * @return 채팅방 ID -> (참여자 ID -> 증가 후 안 읽은 메시지 수), 보낸 사람 제외
+     */
+    public Map<String, Map<Long, Long>> applySavedMessages(List<ChatMessage> messages) {
+        Map<String, Map<Long, Long>> unreadCounts = new LinkedHashMap<>();
+        if (messages == null || messages.isEmpty()) {
+            return unreadCounts;
+        }
+
+        // 같은 채팅방의 메시지는 마지막 메시지만 반영하면 됨
+        Map<String, ChatMessage> latestByRoom = new LinkedHashMap<>();
+        for (ChatMessage message : messages) {
+            latestByRoom.put(message.getRoomId(), message);
+        }
+
+        // 안 읽은 메시지 수 / 활동 순서를 갱신할 참여자 (채팅방별 한 번에 조회)
+        Map<Long, Set<Long>> membersByRoom = chatRoomMemberService.getMemberIds(
+                latestByRoom.keySet().stream().map(Long::valueOf).collect(Collectors.toList()));
+
+        // 안 읽은 메시지 수 증가 대상 (파이프라인 결과의 앞부분과 순서가 같음)
+        List<ChatMessage> incrementMessages = new ArrayList<>();
+        List<Long> incrementMembers = new ArrayList<>();
+        for (ChatMessage message : messages) {
+            for (Long memberId : membersByRoom.getOrDefault(Long.valueOf(message.getRoomId()), Set.of())) {
+                if (!memberId.equals(message.getSenderId())) {
+                    incrementMessages.add(message);
+                    incrementMembers.add(memberId);
+                }
+            }
+        }
+
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (int i = 0; i < incrementMessages.size(); i++) {
+                    unreadCountService.increment(ops, incrementMembers.get(i), incrementMessages.get(i).getRoomId());
+                }
+
+                latestByRoom.forEach((roomId, message) -> {
+                    ops.opsForValue().set(String.format(CHAT_ROOM_LATEST_MESSAGE_KEY, roomId), message.getContent());
+                    // 참여자별 채팅방 활동 순서 갱신 (보낸 사람 포함)
+                    double score = toEpochMillis(message);
+                    membersByRoom.getOrDefault(Long.valueOf(roomId), Set.of())
+                            .forEach(memberId -> roomActivityIndexService.touch(ops, memberId, roomId, score));
+                });
+
+                if (recentCacheEnabled) {
+                    // 진행 중인 다시 채우기가 이 메시지를 지우지 않도록 추가 전에 버전 증가
+                    latestByRoom.keySet().forEach(roomId ->
+                            ops.opsForValue().increment(String.format(CHAT_ROOM_RECENT_VERSION_KEY, roomId)));
+                    // 저장 순서대로 앞에 추가(최신순 유지) 후 N개만 남김
+                    for (ChatMessage message : messages) {
+                        ops.opsForList().leftPush(String.format(CHAT_ROOM_RECENT_MESSAGES_KEY, message.getRoomId()), message);
+                    }
+                    latestByRoom.keySet().forEach(roomId ->
+                            ops.opsForList().trim(String.format(CHAT_ROOM_RECENT_MESSAGES_KEY, roomId), 0, recentCacheSize - 1));
+                }
+                return null;
+            }
+        });
+
+        // 같은 (참여자, 채팅방)이 여러 번 증가한 경우 마지막 값이 최종 값
+        for (int i = 0; i < incrementMessages.size(); i++) {
+            if (results.get(i) instanceof Number unreadCount) {
+                unreadCounts.computeIfAbsent(incrementMessages.get(i).getRoomId(), roomId -> new LinkedHashMap<>())
+                        .put(incrementMembers.get(i), unreadCount.longValue());
+            }
+        }
+        return unreadCounts;
+    }
+
+    // 조회 범위(최신순 offset ~ offset + count)가 최근 메시지 캐시 안에 있는지 여부
+    public boolean isRecentCacheable(int offset, int count) {
+        return recentCacheEnabled && offset + count <= recentCacheSize;
+    }
+
+    public int getRecentCacheSize() {
+        return recentCacheSize;
+    }
+
+    /**
+     * 최근 메시지 캐시에서 최신순으로 offset 부터 count 개를 조회합니다.
+     * - 캐시가 채워져 있지 않으면(Redis 초기화, 만료 등) null 을 반환하며, 호출자는 DB 에서 조회 후 backfill 해야 합니다.
+     */
+    public List<ChatMessage> getRecentMessages(Long chatRoomId, int offset, int count) {
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.opsForValue().get(String.format(CHAT_ROOM_RECENT_COMPLETE_KEY, chatRoomId));
+                ops.opsForList().range(String.format(CHAT_ROOM_RECENT_MESSAGES_KEY, chatRoomId), offset, offset + count - 1);
+                return null;
+            }
+        });
+
+        if (results.get(0) == null) {
+            recentCacheMisses.increment();
+            return null;
+        }
+        recentCacheHits.increment();
+
+        // 커밋된 메시지를 포함해 다시 채운 직후 같은 메시지가 한 번 더 추가될 수 있으므로 ID 로 중복 제거
+        List<?> cached = (List<?>) results.get(1);
+        List<ChatMessage> messages = new ArrayList<>(cached.size());
+        Set<Long> ids = new HashSet<>();
+        for (Object cachedMessage : cached) {
+            ChatMessage message = (ChatMessage) cachedMessage;
+            if (message.getId() == null || ids.add(message.getId())) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * 최근 메시지 목록의 현재 버전 (DB 조회 전에 읽어 backfillRecentMessages 에 전달)
+     */
+    public String getRecentVersion(Long chatRoomId) {
+        Object version = redisTemplate.opsForValue().get(String.format(CHAT_ROOM_RECENT_VERSION_KEY, chatRoomId));
+        return version != null ? version.toString() : "0";
+    }
+
+    /**
+     * DB 에서 조회한 최신 메시지(최신순)로 최근 메시지 캐시를 다시 채웁니다.
+     * - 조회 후 새 메시지가 추가되어 버전이 바뀌었으면 반영하지 않습니다. (다음 조회에서 다시 채움)
+     *
+     * @return 반영 여부
+     */
+    public boolean backfillRecentMessages(Long chatRoomId, String expectedVersion, List<ChatMessage> newestFirst) {
+        List<String> keys = List.of(
+                String.format(CHAT_ROOM_RECENT_MESSAGES_KEY, chatRoomId),
+                String.format(CHAT_ROOM_RECENT_COMPLETE_KEY, chatRoomId),
+                String.format(CHAT_ROOM_RECENT_VERSION_KEY, chatRoomId));
+        List<Object> args = new ArrayList<>(newestFirst.size() + 2);
+        args.add(expectedVersion);
+        args.add(Long.toString(recentCompleteTtlSeconds));
+        args.addAll(newestFirst);
+
+        Long applied = redisTemplate.execute(BACKFILL_SCRIPT, keys, args.toArray());
+        return applied != null && applied == 1L;
+    }
+
+    // 채팅방 삭제 시 최근 메시지 캐시 제거
+    public void evictRecentMessages(Long chatRoomId) {
+        redisTemplate.delete(List.of(
+                String.format(CHAT_ROOM_RECENT_MESSAGES_KEY, chatRoomId),
+                String.format(CHAT_ROOM_RECENT_COMPLETE_KEY, chatRoomId),
+                String.format(CHAT_ROOM_RECENT_VERSION_KEY, chatRoomId)
+        ));
+    }
+
+    public long getRecentCacheHits() {
+        return recentCacheHits.sum();
+    }
+
+    public long getRecentCacheMisses() {
+        return recentCacheMisses.sum();
+    }
+
+    public double getRecentCacheHitRatio() {
+        long hits = recentCacheHits.sum();
+        long total = hits + recentCacheMisses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private static double toEpochMillis(ChatMessage message) {
+        if (message.getSendAt() == null) {
+            return System.currentTimeMillis();
+        }
+        return message.getSendAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
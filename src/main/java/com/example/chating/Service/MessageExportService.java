@@ -0,0 +1,87 @@
+package com.example.chating.Service;
+
+import com.example.chating.Repository.MessageRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 채팅방 전체 메시지 내보내기 (NDJSON, 한 줄에 메시지 하나)
+ * - 읽기 전용 트랜잭션 안에서 전방향 커서(Stream)로 한 행씩 읽어 바로 출력 스트림에 씁니다.
+ * - 엔티티 대신 프로젝션을 사용하므로 영속성 컨텍스트에 쌓이지 않고, 메시지 수와 관계없이 메모리 사용량이 일정합니다.
+ * - 읽음 상태는 변경하지 않습니다.
+ */
+@Slf4j
+@Service
+public class MessageExportService {
+
+    private final MessageRepository messageRepository;
+    private final JsonFactory jsonFactory;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public MessageExportService(MessageRepository messageRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.messageRepository = messageRepository;
+        // 응답 스트림은 호출자(gzip 등)가 닫음
+        this.jsonFactory = objectMapper.getFactory().copy()
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * @return 내보낸 메시지 수
+     */
+    public long export(Long chatRoomId, OutputStream out) {
+        long startedAt = System.currentTimeMillis();
+        Long exported = readOnlyTransaction.execute(status -> {
+            try (Stream<MessageRepository.ExportedMessage> messages = messageRepository.streamForExport(chatRoomId)) {
+                return writeNdjson(jsonFactory, chatRoomId, messages, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} messages of chat room {} in {} ms", exported, chatRoomId, System.currentTimeMillis() - startedAt);
+        return exported == null ? 0 : exported;
+    }
+
+    // 메시지를 한 줄씩 쓰며 아무것도 모아두지 않음 (생성기 버퍼가 차면 out 으로 내보냄)
+    static long writeNdjson(JsonFactory jsonFactory, Long chatRoomId,
+                            Stream<MessageRepository.ExportedMessage> messages, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            String roomId = chatRoomId.toString();
+            Iterator<MessageRepository.ExportedMessage> iterator = messages.iterator();
+            while (iterator.hasNext()) {
+                MessageRepository.ExportedMessage message = iterator.next();
+                generator.writeStartObject();
+                generator.writeNumberField("id", message.getId());
+                generator.writeStringField("type", message.getType() == null ? null : message.getType().name());
+                generator.writeStringField("roomId", roomId);
+                if (message.getSenderId() == null) {
+                    generator.writeNullField("senderId");
+                } else {
+                    generator.writeNumberField("senderId", message.getSenderId());
+                }
+                generator.writeStringField("senderName", message.getSenderName());
+                generator.writeStringField("content", message.getContent());
+                generator.writeStringField("sendAt", message.getSentAt() == null ? null : message.getSentAt().toString());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,412 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.Repository.MessageRepository;
+import com.example.chating.global.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.ko.KoreanAnalyzer;
+import org.apache.lucene.analysis.ko.KoreanPartOfSpeechStopFilter;
+import org.apache.lucene.analysis.ko.KoreanTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 메시지 전문 검색 색인 (로컬 디스크의 Lucene 역색인, 한국어 형태소 분석: Nori)
+ * - 저장된 메시지를 제한된 크기의 큐에 넣고 즉시 반환하며, 별도의 indexer 스레드가 배치로 색인합니다.
+ * - 배치마다 검색기를 갱신(NRT)하고, commit-interval 마다 디스크에 commit 하면서 색인한 최대 메시지 ID 를 함께 기록합니다.
+ * - 시작 시 기록된 ID 이후의 메시지를 DB 에서 따라잡고, 색인이 비어 있거나 rebuild-on-start 이면 DB 에서 병렬로 다시 만듭니다.
+ * - 메시지 ID 를 키로 갱신하므로 같은 메시지를 여러 번 색인해도 결과는 같습니다.
+ */
+@Slf4j
+@Service
+public class MessageSearchIndexer implements SmartLifecycle {
+
+    static final String FIELD_UID = "uid";
+    static final String FIELD_ID = "id";
+    static final String FIELD_ROOM_ID = "roomId";
+    static final String FIELD_CONTENT = "content";
+    private static final String CHECKPOINT_KEY = "maxMessageId";
+
+    private final MessageRepository messageRepository;
+    private final Analyzer analyzer;
+
+    private final boolean enabled;
+    private final Path indexPath;
+    private final int batchSize;
+    private final int rebuildParallelism;
+    private final boolean rebuildOnStart;
+    private final long commitIntervalMs;
+    private final long catchUpIntervalMs;
+    private final long catchUpWindowMs;
+    private final BlockingQueue<IndexTask> queue;
+
+    private volatile boolean running = false;
+    private Directory directory;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+    private Thread indexerThread;
+
+    // 색인한 최대 메시지 ID (commit 시 함께 기록)
+    private final AtomicLong maxIndexedId = new AtomicLong();
+
+    private final LongAdder indexedMessages = new LongAdder();
+    private final LongAdder droppedMessages = new LongAdder();
+    // 큐가 가득 차서 버린 메시지 중 가장 작은 ID (없으면 Long.MAX_VALUE), indexer 스레드가 DB 에서 다시 색인
+    private final AtomicLong minDroppedId = new AtomicLong(Long.MAX_VALUE);
+
+    public MessageSearchIndexer(MessageRepository messageRepository,
+                                @Value("${chat.search.enabled:false}") boolean enabled,
+                                @Value("${chat.search.index-path:data/search-index}") String indexPath,
+                                @Value("${chat.search.queue-capacity:10000}") int queueCapacity,
+                                @Value("${chat.search.batch-size:500}") int batchSize,
+                                @Value("${chat.search.rebuild-parallelism:4}") int rebuildParallelism,
+                                @Value("${chat.search.rebuild-on-start:false}") boolean rebuildOnStart,
+                                @Value("${chat.search.commit-interval-seconds:30}") long commitIntervalSeconds,
+                                @Value("${chat.search.catch-up-interval-seconds:0}") long catchUpIntervalSeconds,
+                                @Value("${chat.search.catch-up-window-seconds:60}") long catchUpWindowSeconds) {
+        this.messageRepository = messageRepository;
+        this.enabled = enabled;
+        this.indexPath = Path.of(indexPath);
+        this.batchSize = batchSize;
+        this.rebuildParallelism = Math.max(1, rebuildParallelism);
+        this.rebuildOnStart = rebuildOnStart;
+        this.commitIntervalMs = TimeUnit.SECONDS.toMillis(commitIntervalSeconds);
+        this.catchUpIntervalMs = TimeUnit.SECONDS.toMillis(catchUpIntervalSeconds);
+        this.catchUpWindowMs = TimeUnit.SECONDS.toMillis(catchUpWindowSeconds);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        // 복합어는 원형과 분해된 형태를 모두 색인 (예: 삼성전자 -> 삼성전자, 삼성, 전자)
+        this.analyzer = new KoreanAnalyzer(null, KoreanTokenizer.DecompoundMode.MIXED,
+                KoreanPartOfSpeechStopFilter.DEFAULT_STOP_TAGS, false);
+    }
+
+    Analyzer getAnalyzer() {
+        return analyzer;
+    }
+
+    /**
+     * 저장된 메시지를 색인 큐에 추가합니다. 큐가 가득 차면(재생성 중 등) 버리며, indexer 스레드가 버린 메시지 이후를 DB 에서 다시 색인합니다.
+     */
+    public void index(List<ChatMessage> messages) {
+        if (!running) {
+            return;
+        }
+        for (ChatMessage message : messages) {
+            if (message.getId() == null || message.getContent() == null) {
+                continue;
+            }
+            if (!queue.offer(new IndexTask(message.getId(), Long.valueOf(message.getRoomId()), message.getContent()))) {
+                droppedMessages.increment();
+                minDroppedId.accumulateAndGet(message.getId(), Math::min);
+            }
+        }
+    }
+
+    // 채팅방 정리가 끝난 뒤 호출
+    public void deleteRoom(Long chatRoomId) {
+        if (!running) {
+            return;
+        }
+        try {
+            indexWriter.deleteDocuments(new Term(FIELD_ROOM_ID, chatRoomId.toString()));
+        } catch (IOException e) {
+            log.warn("Failed to delete chat room {} from the search index", chatRoomId, e);
+        }
+    }
+
+    // 검색 시 acquire / release
+    IndexSearcher acquireSearcher() throws IOException {
+        return searcherManager.acquire();
+    }
+
+    void releaseSearcher(IndexSearcher searcher) throws IOException {
+        searcherManager.release(searcher);
+    }
+
+    private void runIndexer() {
+        try {
+            if (rebuildOnStart || maxIndexedId.get() == 0) {
+                rebuild();
+            } else {
+                catchUp();
+            }
+        } catch (RuntimeException e) {
+            log.error("Search index rebuild / catch-up failed", e);
+        }
+
+        long lastCommitAt = System.currentTimeMillis();
+        long lastCatchUpAt = lastCommitAt;
+        List<IndexTask> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                IndexTask first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    apply(batch);
+                    searcherManager.maybeRefresh();
+                }
+                // 큐가 가득 차서 버린 메시지 (시작 시 재생성 / 따라잡기 중 포함)
+                if (replayDropped() > 0) {
+                    searcherManager.maybeRefresh();
+                }
+
+                long now = System.currentTimeMillis();
+                // 다른 노드에서 저장된 메시지 따라잡기 (클러스터 모드)
+                if (catchUpIntervalMs > 0 && now - lastCatchUpAt >= catchUpIntervalMs) {
+                    catchUp();
+                    searcherManager.maybeRefresh();
+                    lastCatchUpAt = now;
+                }
+                if (now - lastCommitAt >= commitIntervalMs) {
+                    commit();
+                    lastCommitAt = now;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to index {} messages", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void apply(List<IndexTask> batch) throws IOException {
+        for (IndexTask task : batch) {
+            indexWriter.updateDocument(new Term(FIELD_UID, task.id().toString()), toDocument(task));
+            maxIndexedId.accumulateAndGet(task.id(), Math::max);
+        }
+        indexedMessages.add(batch.size());
+    }
+
+    private Document toDocument(IndexTask task) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_UID, task.id().toString(), Field.Store.NO));
+        document.add(new LongPoint(FIELD_ID, task.id()));
+        document.add(new NumericDocValuesField(FIELD_ID, task.id())); // 최신순 정렬
+        document.add(new StoredField(FIELD_ID, task.id()));
+        document.add(new StringField(FIELD_ROOM_ID, task.chatRoomId().toString(), Field.Store.NO));
+        document.add(new TextField(FIELD_CONTENT, task.content(), Field.Store.NO));
+        return document;
+    }
+
+    /**
+     * 마지막으로 색인한 메시지 이후를 DB 에서 색인합니다.
+     * - 여러 노드 / write-behind 로 저장 순서와 ID 순서가 어긋날 수 있으므로 catch-up-window 만큼 앞에서부터 다시 읽습니다.
+     */
+    private void catchUp() {
+        long checkpoint = maxIndexedId.get();
+        long fromId = Math.min(checkpoint,
+                SnowflakeIdGenerator.minIdAt(SnowflakeIdGenerator.extractTimestamp(checkpoint) - catchUpWindowMs));
+        long indexed = indexRange(fromId, Long.MAX_VALUE);
+        if (indexed > 0) {
+            log.info("Search index caught up {} messages after id {}", indexed, fromId);
+        }
+    }
+
+    // 버린 메시지 중 가장 작은 ID 부터 DB 에서 다시 색인 (같은 ID 는 갱신되므로 이미 색인한 메시지가 섞여도 됨)
+    private long replayDropped() {
+        long fromId = minDroppedId.getAndSet(Long.MAX_VALUE);
+        if (fromId == Long.MAX_VALUE) {
+            return 0;
+        }
+        long indexed = indexRange(fromId - 1, Long.MAX_VALUE);
+        log.info("Search index re-indexed {} messages from id {} after queue overflow", indexed, fromId);
+        return indexed;
+    }
+
+    /**
+     * DB 에서 색인을 다시 만듭니다.
+     * - 메시지 ID 범위를 rebuild-parallelism 개로 나누어 각 범위를 keyset 페이지로 병렬 색인합니다.
+     */
+    private void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        MessageRepository.IdRange range = messageRepository.findIdRange();
+        try {
+            indexWriter.deleteAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        maxIndexedId.set(0);
+        if (range == null || range.getMinId() == null) {
+            commit();
+            return;
+        }
+
+        long from = range.getMinId() - 1;
+        long to = range.getMaxId();
+        long sliceSize = Math.max(1, (to - from) / rebuildParallelism + 1);
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildParallelism);
+        try {
+            List<Future<Long>> slices = new ArrayList<>();
+            for (long sliceFrom = from; sliceFrom < to; sliceFrom += sliceSize) {
+                long afterId = sliceFrom;
+                long toId = Math.min(to, sliceFrom + sliceSize);
+                slices.add(executor.submit(() -> indexRange(afterId, toId)));
+            }
+            long indexed = 0;
+            for (Future<Long> slice : slices) {
+                indexed += slice.get();
+            }
+            commit();
+            log.info("Search index rebuilt with {} messages in {} ms", indexed, System.currentTimeMillis() - startedAt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search index rebuild failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // (afterId, toId] 범위의 메시지를 batch-size 단위로 색인
+    private long indexRange(long afterId, long toId) {
+        long indexed = 0;
+        long cursor = afterId;
+        while (running) {
+            List<MessageRepository.IndexedMessage> page =
+                    messageRepository.findForIndex(cursor, toId, PageRequest.of(0, batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<IndexTask> batch = new ArrayList<>(page.size());
+            page.forEach(message -> batch.add(new IndexTask(message.getId(), message.getChatRoomId(),
+                    message.getContent() == null ? "" : message.getContent())));
+            try {
+                apply(batch);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            indexed += page.size();
+            cursor = page.get(page.size() - 1).getId();
+        }
+        return indexed;
+    }
+
+    private void commit() {
+        try {
+            Map<String, String> commitData = new HashMap<>();
+            commitData.put(CHECKPOINT_KEY, Long.toString(maxIndexedId.get()));
+            indexWriter.setLiveCommitData(commitData.entrySet());
+            indexWriter.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("Failed to commit the search index", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        try {
+            directory = FSDirectory.open(indexPath);
+            indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            searcherManager = new SearcherManager(indexWriter, new SearcherFactory());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open search index at " + indexPath, e);
+        }
+
+        // 마지막 commit 에 기록된 최대 메시지 ID
+        Iterable<Map.Entry<String, String>> commitData = indexWriter.getLiveCommitData();
+        if (commitData != null) {
+            commitData.forEach(entry -> {
+                if (CHECKPOINT_KEY.equals(entry.getKey())) {
+                    maxIndexedId.set(Long.parseLong(entry.getValue()));
+                }
+            });
+        }
+
+        running = true;
+        indexerThread = new Thread(this::runIndexer, "message-search-indexer");
+        indexerThread.start();
+        log.info("Message search index opened at {} (checkpoint={})", indexPath.toAbsolutePath(), maxIndexedId.get());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // 큐에 남은 메시지를 색인하고 commit 한 뒤 종료
+        running = false;
+        try {
+            indexerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        commit();
+        try {
+            searcherManager.close();
+            indexWriter.close();
+            directory.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the search index", e);
+        }
+        log.info("Message search index closed (indexed={}, dropped={})", indexedMessages.sum(), droppedMessages.sum());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // write-behind 가 종료하며 저장한 메시지까지 색인하도록 그보다 늦게 종료
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE + 500;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getIndexedMessages() {
+        return indexedMessages.sum();
+    }
+
+    public long getDroppedMessages() {
+        return droppedMessages.sum();
+    }
+
+    private record IndexTask(Long id, Long chatRoomId, String content) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.Repository.MessageRepository;
+import com.example.chating.domain.chat.Message;
+import lombok.RequiredArgsConstructor;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 메시지 전문 검색
+ * - 사용자가 참여 중인 채팅방으로 범위를 제한하고, 최신 메시지부터 before(메시지 ID) 커서로 페이지를 나눕니다.
+ * - 색인에서는 메시지 ID 만 찾고, 내용은 DB 에서 ID 목록으로 한 번에 조회합니다. (색인에 원문을 저장하지 않음)
+ */
+@Service
+@RequiredArgsConstructor
+public class MessageSearchService {
+
+    private static final int MAX_SIZE = 100;
+
+    private final MessageSearchIndexer messageSearchIndexer;
+    private final MessageRepository messageRepository;
+    private final RoomActivityIndexService roomActivityIndexService;
+
+    /**
+     * @param chatRoomId 검색할 채팅방 (null 이면 사용자가 참여 중인 모든 채팅방, 지정한 경우 참여 여부는 호출자가 확인)
+     * @param beforeId 이 메시지 ID 보다 이전 메시지 검색 (다음 페이지)
+     * @return 최신 메시지부터 정렬된 검색 결과
+     */
+    public List<ChatMessage> search(Long userId, Long chatRoomId, String text, Long beforeId, int size) {
+        if (!messageSearchIndexer.isRunning()) {
+            throw new IllegalStateException("Message search is disabled.");
+        }
+        if (text == null || text.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> roomIds = chatRoomId != null
+                ? List.of(chatRoomId)
+                : roomActivityIndexService.getRooms(userId, 0, 0).stream()
+                        .map(RoomActivityIndexService.RoomActivity::chatRoomId)
+                        .collect(Collectors.toList());
+        if (roomIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Query query = buildQuery(text, roomIds, beforeId);
+        if (query == null) {
+            return new ArrayList<>(); // 검색어에서 색인 가능한 단어가 없음 (조사, 기호 등)
+        }
+        List<Long> messageIds = searchIds(query, Math.min(Math.max(size, 1), MAX_SIZE));
+        if (messageIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 색인 순서(최신순) 유지, 색인 후 삭제된 메시지 제외
+        Map<Long, Message> messages = messageRepository.findAllWithSenderByIdIn(messageIds).stream()
+                .collect(Collectors.toMap(Message::getId, Function.identity()));
+        return messageIds.stream()
+                .map(messages::get)
+                .filter(Objects::nonNull)
+                .map(MessageService::toChatMessage)
+                .collect(Collectors.toList());
+    }
+
+    Query buildQuery(String text, Collection<Long> roomIds, Long beforeId) {
+        Query contentQuery = new QueryBuilder(messageSearchIndexer.getAnalyzer())
+                .createBooleanQuery(MessageSearchIndexer.FIELD_CONTENT, text, BooleanClause.Occur.MUST);
+        if (contentQuery == null) {
+            return null;
+        }
+
+        List<BytesRef> roomTerms = roomIds.stream()
+                .map(roomId -> new BytesRef(roomId.toString()))
+                .collect(Collectors.toList());
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(contentQuery, BooleanClause.Occur.MUST)
+                .add(new TermInSetQuery(MessageSearchIndexer.FIELD_ROOM_ID, roomTerms), BooleanClause.Occur.FILTER);
+        if (beforeId != null) {
+            builder.add(LongPoint.newRangeQuery(MessageSearchIndexer.FIELD_ID, Long.MIN_VALUE, beforeId - 1), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private List<Long> searchIds(Query query, int size) {
+        try {
+            IndexSearcher searcher = messageSearchIndexer.acquireSearcher();
+            try {
+                TopDocs topDocs = searcher.search(query, size,
+                        new Sort(new SortField(MessageSearchIndexer.FIELD_ID, SortField.Type.LONG, true)));
+                List<Long> messageIds = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    messageIds.add(searcher.storedFields().document(scoreDoc.doc)
+                            .getField(MessageSearchIndexer.FIELD_ID).numericValue().longValue());
+                }
+                return messageIds;
+            } finally {
+                messageSearchIndexer.releaseSearcher(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
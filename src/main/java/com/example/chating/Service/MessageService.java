@@ -1,9 +1,12 @@
 package com.example.chating.Service;
 
 import com.example.chating.Repository.MessageRepository;
+import com.example.chating.Repository.UserChatRoomRepository;
 import com.example.chating.Dto.ChatMessage;
 import com.example.chating.domain.MessageType;
 import com.example.chating.domain.chat.Message;
+import com.example.chating.global.SnowflakeIdGenerator;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,9 +16,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import com.example.chating.domain.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -26,15 +33,19 @@ public class MessageService {
 
     private final RedisTemplate<String, Object> redisTemplate;
     private final MessageRepository messageRepository;
+    private final UserChatRoomRepository userChatRoomRepository;
     @Autowired
     private final ChatRoomService chatRoomService;
     private final UserService userService;
-
-    private static final String CHAT_ROOM_ACTIVITY_KEY = "chatroom:activity";
-    private static final String CHAT_ROOM_LATEST_MESSAGE_KEY = "chatroom:%s:latestMessage";
+    private final MessageCacheService messageCacheService;
+    private final MessageWriteBehindService messageWriteBehindService;
+    private final UnreadCountService unreadCountService;
+    private final ChatRoomUpdateService chatRoomUpdateService;
+    private final MessageSearchIndexer messageSearchIndexer;
 
     // 메시지 저장
     @Transactional
+    @Timed(value = "chat.message.save", description = "Message save latency (sync save or write-behind enqueue)", histogram = true)
     public ChatMessage saveMessage(Long chatRoomId, Long senderId, String content, MessageType messageType) {
         if (chatRoomId == null || senderId == null) {
             throw new IllegalArgumentException("Chat Room ID or Sender ID must not be null.");
@@ -42,6 +53,24 @@ public class MessageService {
 
         String senderName = userService.getUserNameById(senderId);
 
+        // write-behind 모드: 큐에 넣고 바로 반환 (DB 저장과 Redis 갱신은 writer 스레드가 배치로 처리)
+        if (messageWriteBehindService.isAccepting()) {
+            chatRoomService.getChatRoomById(chatRoomId); // 존재하지 않는 채팅방이면 예외
+            ChatMessage pendingMessage = new ChatMessage(
+                    SnowflakeIdGenerator.getInstance().nextId(), // 저장 전에 ID 를 미리 발급
+                    messageType,
+                    chatRoomId.toString(),
+                    senderId,
+                    senderName,
+                    content,
+                    LocalDateTime.now()
+            );
+            if (messageWriteBehindService.offer(pendingMessage)) {
+                return pendingMessage;
+            }
+            // 큐가 가득 찬 경우 동기 저장으로 처리
+        }
+
         // 메시지 저장
         Message messageEntity = Message.builder()
                 .chatRoom(chatRoomService.getChatRoomById(chatRoomId))
@@ -52,13 +81,7 @@ public class MessageService {
                 .build();
         messageRepository.save(messageEntity);
 
-        // Redis 업데이트를 트랜잭션 내에서 동기적으로 처리
-        String latestMessageKey = String.format(CHAT_ROOM_LATEST_MESSAGE_KEY, chatRoomId);
-        redisTemplate.opsForValue().set(latestMessageKey, content);
-        redisTemplate.opsForZSet().add(CHAT_ROOM_ACTIVITY_KEY, chatRoomId.toString(), System.currentTimeMillis());
-        //System.out.println("Redis 캐시 업데이트 완료");
-
-        return new ChatMessage(
+        ChatMessage savedMessage = new ChatMessage(
                 messageEntity.getId(),
                 messageType,
                 chatRoomId.toString(),
@@ -67,6 +90,26 @@ public class MessageService {
                 content,
                 messageEntity.getSentAt()
         );
+
+        // Redis 업데이트 (최신 메시지, 활동 시간, 안 읽은 메시지 수)를 한 번의 파이프라인으로 처리한 뒤 참여자에게 목록 변경분 전송
+        // 커밋 후에 반영 (커밋 전에 최근 메시지 캐시에 넣으면 그 사이 DB 에서 다시 채운 캐시가 이 메시지를 지울 수 있음)
+        List<ChatMessage> savedMessages = List.of(savedMessage);
+        Runnable applySaved = () -> {
+            chatRoomUpdateService.publish(savedMessages, messageCacheService.applySavedMessages(savedMessages));
+            messageSearchIndexer.index(savedMessages);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applySaved.run();
+                }
+            });
+        } else {
+            applySaved.run();
+        }
+
+        return savedMessage;
     }
 
 //    @Transactional
@@ -96,52 +139,142 @@ public class MessageService {
     // 메시지 조회
     @Transactional
     public List<ChatMessage> getMessagesByChatRoomWithReadUpdate(Long chatRoomId, Long userId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("sentAt").descending());
-        Page<Message> dbMessages = messageRepository.findByChatRoomId(chatRoomId, pageable);
-
-        // 사용자 객체 가져오기
-        User user = userService.getUserById(userId);
-
-        // 메시지 읽음 처리 및 변환
-        List<Message> updatedMessages = dbMessages.stream()
-                .peek(message -> {
-                    // 내가 보낸 메시지는 읽음 처리 안함
-                    if (!message.getSender().getId().equals(userId) && !message.getReadByUsers().contains(user)) {
-                        message.addReadByUser(user); // 읽은 사용자 추가
-                        message.setIsRead(true); // 메시지 읽음 상태 설정
-                        message.setReadByUsersCount(message.getReadByUsers().size());
-                    }
-                })
-                .collect(Collectors.toList());
+        // 최근 메시지 범위의 페이지는 Redis 캐시에서 조회
+        List<ChatMessage> messages = getRecentMessages(chatRoomId, page * size, size);
 
-        // 변경된 메시지 저장
-        messageRepository.saveAll(updatedMessages);
+        if (messages == null) {
+            Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
+            Page<Message> dbMessages = messageRepository.findByChatRoomId(chatRoomId, pageable);
+
+            // ChatMessage로 변환
+            messages = dbMessages.stream()
+                    .map(MessageService::toChatMessage)
+                    .collect(Collectors.toList());
+        }
+
+        // 읽음 처리 (첫 페이지는 최신 메시지까지 읽은 것으로 봄)
+        updateReadStatus(chatRoomId, userId, messages, page == 0);
 
         // **실시간 저장된 메시지를 추가로 포함**
-        if (!updatedMessages.isEmpty()) {
-            Message latestMessage = updatedMessages.get(0);
-            if (latestMessage.getSentAt().isAfter(LocalDateTime.now().minusSeconds(1))) {
-                updatedMessages.add(latestMessage);
+        if (!messages.isEmpty()) {
+            ChatMessage latestMessage = messages.get(0);
+            if (latestMessage.getSendAt().isAfter(LocalDateTime.now().minusSeconds(1))) {
+                messages.add(latestMessage);
             }
         }
 
-        // ChatMessage로 변환
-        return updatedMessages.stream()
-                .map(message -> new ChatMessage(
-                        message.getId(),
-                        MessageType.TALK,
-                        message.getChatRoom().getId().toString(),
-                        message.getSender().getId(),
-                        message.getSender().getName(),
-                        message.getContent(),
-                        message.getSentAt(),
-                        true,
-                        message.getReadByUsersCount()
-                ))
+        return messages;
+    }
+
+    /**
+     * 메시지 조회 (커서 기반)
+     * - OFFSET 스캔과 COUNT 쿼리 없이 (chatroom_id, id) 인덱스로 바로 조회하므로 오래된 메시지도 일정한 속도로 조회됩니다.
+     * - 결과는 페이지 조회와 같이 최신 메시지부터 정렬됩니다.
+     *
+     * @param beforeId 이 메시지 ID 보다 이전 메시지 조회 (위로 스크롤)
+     * @param afterId 이 메시지 ID 보다 이후 메시지 조회 (새 메시지 따라잡기)
+     */
+    @Transactional
+    public List<ChatMessage> getMessagesByChatRoomWithCursor(Long chatRoomId, Long userId, Long beforeId, Long afterId, int size) {
+        if (beforeId != null && afterId != null) {
+            throw new IllegalArgumentException("before and after cannot be used together.");
+        }
+
+        Pageable limit = PageRequest.of(0, size);
+        List<Message> dbMessages;
+        if (afterId != null) {
+            dbMessages = new ArrayList<>(messageRepository.findByChatRoomIdAfter(chatRoomId, afterId, limit));
+            Collections.reverse(dbMessages); // 최신 메시지부터 정렬
+        } else {
+            dbMessages = messageRepository.findByChatRoomIdBefore(chatRoomId, beforeId, limit);
+        }
+
+        List<ChatMessage> messages = dbMessages.stream()
+                .map(MessageService::toChatMessage)
                 .collect(Collectors.toList());
+        // 이후 메시지가 size 보다 적으면 최신 메시지까지 따라잡은 것으로 봄
+        updateReadStatus(chatRoomId, userId, messages, afterId != null && messages.size() < size);
+        return messages;
     }
 
+    /**
+     * 최근 메시지 캐시에서 조회
+     * - 캐시 범위를 벗어나면 null 을 반환합니다.
+     * - 캐시 미스(Redis 초기화, 만료 등)이면 DB 에서 최근 메시지를 조회해 캐시를 다시 채운 뒤 반환합니다.
+     */
+    private List<ChatMessage> getRecentMessages(Long chatRoomId, int offset, int size) {
+        if (!messageCacheService.isRecentCacheable(offset, size)) {
+            return null;
+        }
+
+        List<ChatMessage> cached = messageCacheService.getRecentMessages(chatRoomId, offset, size);
+        if (cached != null) {
+            cached.forEach(message -> message.setRead(true));
+            return cached;
+        }
+
+        // 조회 전 버전: 조회 후 추가된 메시지가 있으면 다시 채우지 않음
+        String recentVersion = messageCacheService.getRecentVersion(chatRoomId);
+        List<ChatMessage> recentMessages = messageRepository
+                .findLatestMessageByChatRoomId(chatRoomId, PageRequest.of(0, messageCacheService.getRecentCacheSize()))
+                .stream()
+                .map(MessageService::toChatMessage)
+                .collect(Collectors.toList());
+        messageCacheService.backfillRecentMessages(chatRoomId, recentVersion, recentMessages);
+
+        int fromIndex = Math.min(offset, recentMessages.size());
+        int toIndex = Math.min(offset + size, recentMessages.size());
+        return new ArrayList<>(recentMessages.subList(fromIndex, toIndex));
+    }
 
+    /**
+     * 읽음 처리
+     * - 조회한 메시지 중 가장 최신 메시지 ID 까지 사용자의 읽음 워터마크를 UPDATE 한 번으로 이동합니다.
+     * - 각 메시지의 읽은 사용자 수는 채팅방 참여자들의 워터마크로 계산합니다. (보낸 사람은 제외)
+     * - 최신 메시지까지 읽은 경우 안 읽은 메시지 수를 0으로 초기화합니다.
+     */
+    private void updateReadStatus(Long chatRoomId, Long userId, List<ChatMessage> messages, boolean readToLatest) {
+        if (readToLatest) {
+            unreadCountService.reset(userId, chatRoomId);
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Long latestMessageId = messages.stream()
+                .map(ChatMessage::getId)
+                .max(Long::compare)
+                .orElseThrow();
+        userChatRoomRepository.advanceLastReadMessageId(chatRoomId, userId, latestMessageId);
+
+        List<UserChatRoomRepository.ReadWatermark> watermarks = userChatRoomRepository.findReadWatermarksByChatRoomId(chatRoomId);
+        for (ChatMessage message : messages) {
+            int readCount = 0;
+            for (UserChatRoomRepository.ReadWatermark watermark : watermarks) {
+                if (watermark.getLastReadMessageId() != null
+                        && watermark.getLastReadMessageId() >= message.getId()
+                        && !watermark.getUserId().equals(message.getSenderId())) {
+                    readCount++;
+                }
+            }
+            message.setReadByUsersCount(readCount);
+        }
+    }
+
+    // 조회한 메시지 엔티티 -> ChatMessage (JMH 벤치마크에서도 사용)
+    static ChatMessage toChatMessage(Message message) {
+        return new ChatMessage(
+                message.getId(),
+                message.getMessageType() != null ? message.getMessageType() : MessageType.TALK,
+                message.getChatRoom().getId().toString(),
+                message.getSender().getId(),
+                message.getSender().getName(),
+                message.getContent(),
+                message.getSentAt(),
+                true,
+                0
+        );
+    }
 
     public String getLatestMessageContentFromDb(Long chatRoomId) {
         Pageable pageable = PageRequest.of(0, 1); // 최신 메시지 하나만 가져옴
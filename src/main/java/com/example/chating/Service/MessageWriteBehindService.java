@@ -0,0 +1,334 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.Repository.ChatRoomRepository;
+import com.example.chating.Repository.MessageRepository;
+import com.example.chating.Repository.UserRepository;
+import com.example.chating.domain.chat.Message;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * 메시지 write-behind 저장
+ * - saveMessage 에서 받은 메시지를 제한된 크기의 메모리 큐에 넣고 즉시 반환합니다.
+ * - 별도의 writer 스레드가 큐에 쌓인 메시지를 모아 하나의 트랜잭션(JDBC batch)으로 저장하고,
+ *   Redis 캐시는 배치당 한 번의 파이프라인으로 갱신합니다.
+ * - 배치 저장이 계속 실패하면 메시지별 트랜잭션으로 다시 저장하고, 그래도 실패한 메시지는
+ *   Redis 의 dead-letter 목록(message:deadletter)에 남깁니다. (나머지 메시지는 정상 처리)
+ * - 애플리케이션 종료 시 큐에 남은 메시지를 모두 저장한 뒤 종료합니다.
+ */
+@Slf4j
+@Service
+public class MessageWriteBehindService implements SmartLifecycle {
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+    // 저장하지 못한 메시지 (운영자가 확인 후 다시 저장하거나 삭제)
+    static final String DEAD_LETTER_KEY = "message:deadletter";
+
+    private final MessageRepository messageRepository;
+    private final ChatRoomRepository chatRoomRepository;
+    private final UserRepository userRepository;
+    private final MessageCacheService messageCacheService;
+    private final ChatRoomUpdateService chatRoomUpdateService;
+    private final MessageSearchIndexer messageSearchIndexer;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final BlockingQueue<PendingMessage> queue;
+
+    private volatile boolean running = false;
+    private volatile boolean accepting = false;
+    // offer 는 읽기 잠금 안에서 accepting 확인과 큐 추가를 함께 수행, stop 은 쓰기 잠금으로 accepting 을 끔
+    // (stop 이후에 큐에 들어가 저장되지 않는 메시지가 없도록)
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private Thread writerThread;
+
+    // 배치 크기 / 지연 시간 지표
+    private final LongAdder flushedBatches = new LongAdder();
+    private final LongAdder flushedMessages = new LongAdder();
+    private final LongAdder failedMessages = new LongAdder();
+    private final LongAdder lostMessages = new LongAdder();
+    private final LongAdder rejectedOffers = new LongAdder();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    public MessageWriteBehindService(MessageRepository messageRepository,
+                                     ChatRoomRepository chatRoomRepository,
+                                     UserRepository userRepository,
+                                     MessageCacheService messageCacheService,
+                                     ChatRoomUpdateService chatRoomUpdateService,
+                                     MessageSearchIndexer messageSearchIndexer,
+                                     RedisTemplate<String, Object> redisTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${chat.message.write-behind.enabled:false}") boolean enabled,
+                                     @Value("${chat.message.write-behind.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${chat.message.write-behind.batch-size:200}") int batchSize,
+                                     @Value("${chat.message.write-behind.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.messageRepository = messageRepository;
+        this.chatRoomRepository = chatRoomRepository;
+        this.userRepository = userRepository;
+        this.messageCacheService = messageCacheService;
+        this.chatRoomUpdateService = chatRoomUpdateService;
+        this.messageSearchIndexer = messageSearchIndexer;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    // write-behind 모드로 메시지를 받을 수 있는지 여부
+    public boolean isAccepting() {
+        return accepting;
+    }
+
+    /**
+     * 메시지를 큐에 추가합니다.
+     * - 큐가 가득 차서 제한 시간 안에 넣지 못하면 false 를 반환하며, 호출자는 동기 저장으로 처리해야 합니다.
+     */
+    public boolean offer(ChatMessage message) {
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                return false;
+            }
+            if (queue.offer(new PendingMessage(message, System.nanoTime()), offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+        rejectedOffers.increment();
+        return false;
+    }
+
+    private void runWriter() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // 큐에 남은 메시지를 호출 스레드에서 모두 저장
+    private void drainRemaining() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingMessage> batch) {
+        List<ChatMessage> messages = batch.stream()
+                .map(PendingMessage::message)
+                .collect(Collectors.toList());
+
+        List<ChatMessage> savedMessages = messages;
+        for (int attempt = 1; attempt <= MAX_FLUSH_ATTEMPTS; attempt++) {
+            try {
+                save(messages);
+                break;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_FLUSH_ATTEMPTS) {
+                    log.error("Failed to flush {} messages after {} attempts, saving one by one", messages.size(), attempt, e);
+                    savedMessages = saveIndividually(messages);
+                    break;
+                }
+                log.warn("Flush attempt {} failed, retrying", attempt, e);
+            }
+        }
+
+        if (!savedMessages.isEmpty()) {
+            try {
+                chatRoomUpdateService.publish(savedMessages, messageCacheService.applySavedMessages(savedMessages));
+            } catch (RuntimeException e) {
+                log.error("Failed to update Redis cache / room list for {} messages", savedMessages.size(), e);
+            }
+            messageSearchIndexer.index(savedMessages);
+        }
+
+        recordBatch(batch, savedMessages.size());
+    }
+
+    private void save(List<ChatMessage> messages) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Message> entities = messages.stream()
+                    .map(this::toEntity)
+                    .collect(Collectors.toList());
+            messageRepository.saveAll(entities);
+        });
+    }
+
+    // 메시지별 트랜잭션으로 저장 (한 메시지의 오류가 같은 배치의 다른 메시지를 잃게 하지 않도록)
+    private List<ChatMessage> saveIndividually(List<ChatMessage> messages) {
+        List<ChatMessage> savedMessages = new ArrayList<>(messages.size());
+        for (ChatMessage message : messages) {
+            try {
+                save(List.of(message));
+                savedMessages.add(message);
+            } catch (RuntimeException e) {
+                deadLetter(message, e);
+            }
+        }
+        return savedMessages;
+    }
+
+    private void deadLetter(ChatMessage message, RuntimeException cause) {
+        failedMessages.increment();
+        log.error("Failed to save message {} (room {}), moving to {}", message.getId(), message.getRoomId(), DEAD_LETTER_KEY, cause);
+        try {
+            redisTemplate.opsForList().rightPush(DEAD_LETTER_KEY, message);
+        } catch (RuntimeException e) {
+            lostMessages.increment();
+            log.error("Failed to write message {} to {}: {}", message.getId(), DEAD_LETTER_KEY, message, e);
+        }
+    }
+
+    private Message toEntity(ChatMessage message) {
+        return Message.builder()
+                .reservedId(message.getId())
+                .chatRoom(chatRoomRepository.getReferenceById(Long.valueOf(message.getRoomId())))
+                .sender(userRepository.getReferenceById(message.getSenderId()))
+                .content(message.getContent())
+                .messageType(message.getType())
+                .sentAt(message.getSendAt())
+                .build();
+    }
+
+    private void recordBatch(List<PendingMessage> batch, int savedCount) {
+        long lagMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batch.get(0).enqueuedAtNanos());
+        flushedBatches.increment();
+        flushedMessages.add(savedCount);
+        lastBatchSize.set(batch.size());
+        maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+        lastLagMillis.set(lagMillis);
+        maxLagMillis.accumulateAndGet(lagMillis, Math::max);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        accepting = true;
+        writerThread = new Thread(this::runWriter, "message-write-behind");
+        writerThread.start();
+        log.info("Message write-behind enabled (batchSize={}, capacity={})", batchSize, queue.remainingCapacity());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // 새 메시지는 동기 저장으로 돌리고 (진행 중인 offer 가 끝날 때까지 대기), 큐에 남은 메시지를 모두 저장한 뒤 종료
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainRemaining();
+        log.info("Message write-behind stopped (flushed={}, failed={}, lost={})",
+                flushedMessages.sum(), failedMessages.sum(), lostMessages.sum());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 종료는 phase 가 높은 순서: 웹 서버 graceful shutdown (DEFAULT_PHASE - 1024) 과 웹 서버 종료 (DEFAULT_PHASE - 2048) 뒤,
+    // 마지막 flush 에서 사용하는 Redis 연결(LettuceConnectionFactory, phase 0)이 닫히기 전에 종료
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getFlushedBatches() {
+        return flushedBatches.sum();
+    }
+
+    public long getFlushedMessages() {
+        return flushedMessages.sum();
+    }
+
+    public long getFailedMessages() {
+        return failedMessages.sum();
+    }
+
+    public long getLostMessages() {
+        return lostMessages.sum();
+    }
+
+    public long getRejectedOffers() {
+        return rejectedOffers.sum();
+    }
+
+    public long getLastBatchSize() {
+        return lastBatchSize.get();
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis.get();
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis.get();
+    }
+
+    private record PendingMessage(ChatMessage message, long enqueuedAtNanos) {
+    }
+}
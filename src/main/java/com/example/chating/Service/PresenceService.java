@@ -0,0 +1,457 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.PresenceUpdateDto;
+import com.example.chating.Dto.RoomPresenceDto;
+import com.example.chating.Redis.CompactRedisSerializer;
+import com.example.chating.global.config.AuthenticatedUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 사용자 접속 상태 (Redis, MySQL 사용 안 함)
+ * - 접속: STOMP CONNECT 시 presence:user:{userId} 를 TTL 과 함께 저장하고, 세션에서 받는 모든 프레임(SEND, SUBSCRIBE, STOMP heart-beat,
+ *   /app/presence/heartbeat)으로 TTL 을 연장합니다. (PresenceInboundInterceptor)
+ *   여러 기기 / 노드의 세션은 presence:user:{userId}:sessions 해시로 관리하여 마지막 세션이 끊길 때만 접속 종료로 봅니다.
+ * - 채팅방 보기: /topic/{roomId} 구독 중인 세션을 presence:room:{roomId}:active (멤버: {userId}:{sessionId}, 점수: 만료 시각) 에 저장합니다.
+ *   같은 사용자의 다른 세션(다른 탭 / 노드)이 남아 있으면 한 세션이 나가도 채팅방 보기 종료로 보지 않습니다.
+ * - 상태 변경은 전송 주기 동안 모아 채팅방별로 한 번씩 /topic/{roomId}/presence 로 전송합니다.
+ * - TTL 동안 받은 프레임이 없는 이 노드의 세션은 접속 종료로 처리합니다. (노드가 종료된 경우 키는 TTL 후 만료되며 변경 알림은 보내지 않음)
+ */
+@Slf4j
+@Service
+public class PresenceService implements DisposableBean {
+
+    private static final String USER_ONLINE_KEY = "presence:user:%s";
+    private static final String USER_SESSIONS_KEY = "presence:user:%s:sessions";
+    private static final String ROOM_ACTIVE_KEY = "presence:room:%s:active";
+    private static final String USER_CHAT_ROOMS_KEY = "user:%s:chatrooms";
+    private static final String ROOM_DESTINATION_PREFIX = "/topic/";
+    private static final String PRESENCE_DESTINATION = "presence";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ChatRoomMemberService chatRoomMemberService;
+    private final ChatBroadcastService chatBroadcastService;
+    private final long ttlMillis;
+    // heartbeat 를 Redis 에 반영하는 최소 간격 (TTL 의 1/3)
+    private final long refreshIntervalMillis;
+    private final ScheduledExecutorService scheduler;
+
+    // 이 노드의 STOMP 세션
+    private final Map<String, LocalSession> sessions = new ConcurrentHashMap<>();
+
+    // 전송 대기 중인 변경 (사용자별 마지막 상태만 유지)
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private Map<Long, Boolean> pendingOnline = new HashMap<>();
+    private Map<Long, Map<Long, Boolean>> pendingActive = new HashMap<>();
+
+    // 전송한 채팅방별 변경 알림 수
+    private final LongAdder broadcastUpdates = new LongAdder();
+
+    public PresenceService(StringRedisTemplate stringRedisTemplate,
+                           RedisTemplate<String, Object> redisTemplate,
+                           ChatRoomMemberService chatRoomMemberService,
+                           ChatBroadcastService chatBroadcastService,
+                           @Value("${chat.presence.ttl-seconds:60}") long ttlSeconds,
+                           @Value("${chat.presence.broadcast-interval-ms:1000}") long broadcastIntervalMs) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisTemplate = redisTemplate;
+        this.chatRoomMemberService = chatRoomMemberService;
+        this.chatBroadcastService = chatBroadcastService;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.refreshIntervalMillis = ttlMillis / 3;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "presence-broadcast");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::tick, broadcastIntervalMs, broadcastIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        Long userId = toUserId(event.getUser());
+        if (sessionId == null || userId == null) {
+            return;
+        }
+        LocalSession session = new LocalSession(userId);
+        sessions.put(sessionId, session);
+        refresh(sessionId, session);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        LocalSession session = accessor.getSessionId() != null ? sessions.get(accessor.getSessionId()) : null;
+        Long roomId = toRoomId(accessor.getDestination());
+        if (session == null || roomId == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        session.rooms.put(accessor.getSubscriptionId(), roomId);
+        // 같은 사용자의 다른 세션이 이미 보고 있어도 다시 알릴 수 있음 (클라이언트는 집합으로 처리)
+        Boolean added = stringRedisTemplate.opsForZSet().add(String.format(ROOM_ACTIVE_KEY, roomId),
+                activeMember(session.userId, accessor.getSessionId()), System.currentTimeMillis() + ttlMillis);
+        if (Boolean.TRUE.equals(added)) {
+            queueActive(roomId, session.userId, true);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        LocalSession session = accessor.getSessionId() != null ? sessions.get(accessor.getSessionId()) : null;
+        if (session == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Long roomId = session.rooms.remove(accessor.getSubscriptionId());
+        if (roomId != null && !session.rooms.containsValue(roomId)) {
+            leaveRoom(roomId, accessor.getSessionId(), session.userId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        LocalSession session = event.getSessionId() != null ? sessions.remove(event.getSessionId()) : null;
+        if (session != null) {
+            goOffline(event.getSessionId(), session);
+        }
+    }
+
+    /**
+     * 세션 heartbeat (TTL 연장, 세션에서 프레임을 받을 때마다 호출)
+     * - refresh 간격보다 자주 호출되면 Redis 에 쓰지 않습니다.
+     */
+    public void heartbeat(String sessionId) {
+        LocalSession session = sessionId != null ? sessions.get(sessionId) : null;
+        if (session == null) {
+            return;
+        }
+        if (System.currentTimeMillis() - session.lastRefreshAt >= refreshIntervalMillis) {
+            refresh(sessionId, session);
+        }
+    }
+
+    /**
+     * 여러 채팅방의 접속 중인 참여자 (참여자 조회 + Redis 파이프라인 1회)
+     *
+     * @param userId 조회하는 사용자 (참여 중이 아닌 채팅방은 결과에서 제외)
+     */
+    public Map<Long, RoomPresenceDto> getPresence(Long userId, Collection<Long> chatRoomIds) {
+        Map<Long, RoomPresenceDto> presence = new LinkedHashMap<>();
+        if (chatRoomIds.isEmpty()) {
+            return presence;
+        }
+        Map<Long, Set<Long>> membersByRoom = chatRoomMemberService.getMemberIds(chatRoomIds);
+        List<Long> roomIds = new LinkedHashSet<>(chatRoomIds).stream()
+                .filter(roomId -> membersByRoom.getOrDefault(roomId, Set.of()).contains(userId))
+                .toList();
+        if (roomIds.isEmpty()) {
+            return presence;
+        }
+
+        Set<Long> memberIds = new LinkedHashSet<>();
+        roomIds.forEach(roomId -> memberIds.addAll(membersByRoom.get(roomId)));
+        List<Long> userIds = new ArrayList<>(memberIds);
+        List<String> onlineKeys = userIds.stream().map(memberId -> String.format(USER_ONLINE_KEY, memberId)).toList();
+        long now = System.currentTimeMillis();
+
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                if (!onlineKeys.isEmpty()) {
+                    ops.opsForValue().multiGet(onlineKeys);
+                }
+                roomIds.forEach(roomId -> {
+                    String key = String.format(ROOM_ACTIVE_KEY, roomId);
+                    ops.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, now); // 만료된 사용자 정리
+                    ops.opsForZSet().rangeByScore(key, now, Double.POSITIVE_INFINITY);
+                });
+                return null;
+            }
+        });
+
+        int index = 0;
+        Set<Long> online = new HashSet<>();
+        if (!onlineKeys.isEmpty()) {
+            List<?> values = (List<?>) results.get(index++);
+            for (int i = 0; i < userIds.size(); i++) {
+                if (values.get(i) != null) {
+                    online.add(userIds.get(i));
+                }
+            }
+        }
+        for (Long roomId : roomIds) {
+            index++; // ZREMRANGEBYSCORE 결과
+            Collection<?> activeMembers = (Collection<?>) results.get(index++);
+            Set<Long> members = membersByRoom.get(roomId);
+            List<Long> onlineUserIds = members.stream().filter(online::contains).sorted().toList();
+            List<Long> activeUserIds = activeMembers == null ? List.of() : activeMembers.stream()
+                    .map(PresenceService::toActiveUserId)
+                    .filter(members::contains)
+                    .distinct()
+                    .sorted()
+                    .toList();
+            presence.put(roomId, new RoomPresenceDto(roomId, onlineUserIds, activeUserIds));
+        }
+        return presence;
+    }
+
+    // 접속 / 채팅방 보기 TTL 연장 (파이프라인 1회)
+    private void refresh(String sessionId, LocalSession session) {
+        session.lastRefreshAt = System.currentTimeMillis();
+        session.expired = false;
+        long expiresAt = session.lastRefreshAt + ttlMillis;
+        String onlineKey = String.format(USER_ONLINE_KEY, session.userId);
+        String sessionsKey = String.format(USER_SESSIONS_KEY, session.userId);
+        Set<Long> roomIds = new HashSet<>(session.rooms.values());
+        Duration ttl = Duration.ofMillis(ttlMillis);
+
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.opsForValue().setIfAbsent(onlineKey, Long.toString(session.lastRefreshAt), ttl);
+                ops.expire(onlineKey, ttl);
+                ops.opsForHash().put(sessionsKey, sessionId, Long.toString(expiresAt));
+                ops.expire(sessionsKey, ttl);
+                roomIds.forEach(roomId -> ops.opsForZSet()
+                        .add(String.format(ROOM_ACTIVE_KEY, roomId), activeMember(session.userId, sessionId), expiresAt));
+                return null;
+            }
+        });
+
+        if (Boolean.TRUE.equals(results.get(0))) {
+            queueOnline(session.userId, true);
+        }
+        int index = 4;
+        for (Long roomId : roomIds) {
+            if (Boolean.TRUE.equals(results.get(index++))) {
+                queueActive(roomId, session.userId, true);
+            }
+        }
+    }
+
+    // 세션 종료 (마지막 세션이면 접속 종료)
+    private void goOffline(String sessionId, LocalSession session) {
+        String onlineKey = String.format(USER_ONLINE_KEY, session.userId);
+        String sessionsKey = String.format(USER_SESSIONS_KEY, session.userId);
+        new HashSet<>(session.rooms.values()).forEach(roomId -> leaveRoom(roomId, sessionId, session.userId));
+
+        stringRedisTemplate.opsForHash().delete(sessionsKey, sessionId);
+        long now = System.currentTimeMillis();
+        boolean otherSessionAlive = stringRedisTemplate.opsForHash().values(sessionsKey).stream()
+                .anyMatch(expiresAt -> Long.parseLong(expiresAt.toString()) > now);
+        if (!otherSessionAlive) {
+            stringRedisTemplate.delete(List.of(onlineKey, sessionsKey));
+            queueOnline(session.userId, false);
+        }
+    }
+
+    // 세션이 채팅방 보기 종료 (같은 사용자의 다른 세션이 보고 있지 않을 때만 알림)
+    private void leaveRoom(Long roomId, String sessionId, Long userId) {
+        String key = String.format(ROOM_ACTIVE_KEY, roomId);
+        Long removed = stringRedisTemplate.opsForZSet().remove(key, activeMember(userId, sessionId));
+        if (removed != null && removed > 0 && !isActiveInOtherSession(key, userId)) {
+            queueActive(roomId, userId, false);
+        }
+    }
+
+    // 만료되지 않은 같은 사용자의 멤버({userId}:*)가 남아 있는지 여부
+    private boolean isActiveInOtherSession(String key, Long userId) {
+        long now = System.currentTimeMillis();
+        ScanOptions options = ScanOptions.scanOptions().match(userId + ":*").count(100).build();
+        try (Cursor<ZSetOperations.TypedTuple<String>> cursor = stringRedisTemplate.opsForZSet().scan(key, options)) {
+            while (cursor.hasNext()) {
+                Double expiresAt = cursor.next().getScore();
+                if (expiresAt != null && expiresAt > now) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String activeMember(Long userId, String sessionId) {
+        return userId + ":" + sessionId;
+    }
+
+    private static Long toActiveUserId(Object member) {
+        String value = member.toString();
+        int separator = value.indexOf(':');
+        return Long.valueOf(separator < 0 ? value : value.substring(0, separator));
+    }
+
+    private void queueOnline(Long userId, boolean online) {
+        pendingLock.lock();
+        try {
+            pendingOnline.put(userId, online);
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private void queueActive(Long roomId, Long userId, boolean active) {
+        pendingLock.lock();
+        try {
+            pendingActive.computeIfAbsent(roomId, id -> new HashMap<>()).put(userId, active);
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private void tick() {
+        try {
+            expireSilentSessions();
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to broadcast presence changes", e);
+        }
+    }
+
+    // TTL 동안 받은 프레임이 없는 세션은 연결이 남아 있어도 접속 종료로 처리 (다시 프레임을 보내면 접속으로 복귀)
+    void expireSilentSessions() {
+        long now = System.currentTimeMillis();
+        sessions.forEach((sessionId, session) -> {
+            if (!session.expired && now - session.lastRefreshAt >= ttlMillis) {
+                session.expired = true;
+                goOffline(sessionId, session);
+            }
+        });
+    }
+
+    // 모인 변경을 채팅방별로 한 번씩 전송
+    void flush() {
+        Map<Long, Boolean> online;
+        Map<Long, Map<Long, Boolean>> active;
+        pendingLock.lock();
+        try {
+            if (pendingOnline.isEmpty() && pendingActive.isEmpty()) {
+                return;
+            }
+            online = pendingOnline;
+            active = pendingActive;
+            pendingOnline = new HashMap<>();
+            pendingActive = new HashMap<>();
+        } finally {
+            pendingLock.unlock();
+        }
+
+        Map<Long, PresenceUpdateDto> updates = new HashMap<>();
+        getChatRoomIds(online.keySet()).forEach((userId, roomIds) -> roomIds.forEach(roomId -> {
+            PresenceUpdateDto update = updates.computeIfAbsent(roomId, PresenceService::emptyUpdate);
+            (online.get(userId) ? update.getOnline() : update.getOffline()).add(userId);
+        }));
+        active.forEach((roomId, users) -> users.forEach((userId, isActive) -> {
+            PresenceUpdateDto update = updates.computeIfAbsent(roomId, PresenceService::emptyUpdate);
+            (isActive ? update.getActive() : update.getInactive()).add(userId);
+        }));
+
+        updates.forEach((roomId, update) -> chatBroadcastService.sendToRoom(roomId, PRESENCE_DESTINATION, update));
+        broadcastUpdates.add(updates.size());
+    }
+
+    // 사용자별 참여 채팅방 (파이프라인 1회)
+    private Map<Long, List<Long>> getChatRoomIds(Collection<Long> userIds) {
+        List<Long> ids = new ArrayList<>(userIds);
+        Map<Long, List<Long>> roomsByUser = new HashMap<>();
+        if (ids.isEmpty()) {
+            return roomsByUser;
+        }
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ids.forEach(userId -> ops.opsForSet().members(String.format(USER_CHAT_ROOMS_KEY, userId)));
+                return null;
+            }
+        });
+        for (int i = 0; i < ids.size(); i++) {
+            Collection<?> rooms = (Collection<?>) results.get(i);
+            roomsByUser.put(ids.get(i), rooms == null ? List.of()
+                    : rooms.stream().map(CompactRedisSerializer::toId).filter(Objects::nonNull).toList());
+        }
+        return roomsByUser;
+    }
+
+    private static PresenceUpdateDto emptyUpdate(Long roomId) {
+        return new PresenceUpdateDto(roomId, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    }
+
+    private static Long toUserId(Principal principal) {
+        return principal instanceof AuthenticatedUser authenticatedUser ? authenticatedUser.getUserId() : null;
+    }
+
+    // /topic/{roomId} 만 채팅방 보기로 봄 (/topic/{roomId}/presence 등 하위 목적지 제외)
+    static Long toRoomId(String destination) {
+        if (destination == null || !destination.startsWith(ROOM_DESTINATION_PREFIX)) {
+            return null;
+        }
+        String roomId = destination.substring(ROOM_DESTINATION_PREFIX.length());
+        return !roomId.isEmpty() && roomId.chars().allMatch(Character::isDigit) ? Long.valueOf(roomId) : null;
+    }
+
+    public int getLocalSessions() {
+        return sessions.size();
+    }
+
+    public long getBroadcastUpdates() {
+        return broadcastUpdates.sum();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private static class LocalSession {
+        private final Long userId;
+        // 구독 ID -> 채팅방 ID
+        private final Map<String, Long> rooms = new ConcurrentHashMap<>();
+        private volatile long lastRefreshAt;
+        private volatile boolean expired;
+
+        private LocalSession(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.chating.Service;
+
+import com.example.chating.Redis.CompactRedisSerializer;
+import com.example.chating.Repository.UserChatRoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사용자별 채팅방 활동 순서 인덱스
+ * - user:{id}:rooms:activity ZSet (멤버: 채팅방 ID, 점수: 마지막 활동 시각 epoch millis)
+ * - 메시지 저장 시 채팅방 참여자마다 갱신하므로, 채팅방 목록은 전체 채팅방이 아닌 사용자의 채팅방만 조회합니다.
+ * - 인덱스가 DB 기준으로 만들어졌음을 나타내는 멤버(점수 -1)가 없으면(Redis 초기화 등)
+ *   DB 의 참여 정보와 마지막 메시지 시각으로 다시 만듭니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoomActivityIndexService {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final UserChatRoomRepository userChatRoomRepository;
+
+    private static final String USER_ROOMS_ACTIVITY_KEY = "user:%s:rooms:activity";
+    // 인덱스가 DB 기준으로 채워졌음을 나타내는 멤버 (항상 가장 오래된 위치)
+    private static final String INITIALIZED_MEMBER = "_initialized";
+    private static final double INITIALIZED_SCORE = -1;
+
+    // 파이프라인 안에서 채팅방 활동 시각 갱신
+    public void touch(RedisOperations<String, Object> operations, Long userId, String chatRoomId, double score) {
+        operations.opsForZSet().add(String.format(USER_ROOMS_ACTIVITY_KEY, userId), chatRoomId, score);
+    }
+
+    // 여러 사용자의 채팅방 활동 시각 갱신 (파이프라인 1회)
+    public void touch(Collection<Long> userIds, Long chatRoomId, double score) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                userIds.forEach(userId -> touch(ops, userId, chatRoomId.toString(), score));
+                return null;
+            }
+        });
+    }
+
+    // 파이프라인 안에서 제거 (채팅방 삭제 시 참여자 전체)
+    public void remove(RedisOperations<String, Object> operations, Long userId, String chatRoomId) {
+        operations.opsForZSet().remove(String.format(USER_ROOMS_ACTIVITY_KEY, userId), chatRoomId);
+    }
+
+    public void remove(Long userId, Long chatRoomId) {
+        redisTemplate.opsForZSet().remove(String.format(USER_ROOMS_ACTIVITY_KEY, userId), chatRoomId.toString());
+    }
+
+    /**
+     * 최신 활동 순으로 offset 부터 limit 개 조회 (limit <= 0 이면 전체)
+     */
+    public List<RoomActivity> getRooms(Long userId, int offset, int limit) {
+        String key = String.format(USER_ROOMS_ACTIVITY_KEY, userId);
+        long end = limit > 0 ? offset + limit - 1 : -1;
+
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.opsForZSet().score(key, INITIALIZED_MEMBER);
+                ops.opsForZSet().reverseRangeWithScores(key, offset, end);
+                return null;
+            }
+        });
+
+        if (results.get(0) == null) {
+            rebuild(List.of(userId));
+            return toRoomActivities(redisTemplate.opsForZSet().reverseRangeWithScores(key, offset, end));
+        }
+        return toRoomActivities(results.get(1));
+    }
+
+    /**
+     * 점수 커서 기반 조회: beforeScore 보다 이전에 활동한 채팅방을 최신 활동 순으로 limit 개 조회
+     */
+    public List<RoomActivity> getRoomsBefore(Long userId, double beforeScore, int limit) {
+        return toRoomActivities(redisTemplate.opsForZSet().reverseRangeByScoreWithScores(
+                String.format(USER_ROOMS_ACTIVITY_KEY, userId),
+                0,
+                Math.nextDown(beforeScore),
+                0,
+                limit > 0 ? limit : -1));
+    }
+
+    /**
+     * DB 의 참여 정보와 채팅방별 마지막 메시지 시각으로 사용자들의 인덱스를 다시 만듭니다.
+     * - 메시지가 없는 채팅방은 채팅방 생성 시각을 사용합니다.
+     *
+     * @return 인덱스에 추가된 채팅방 수
+     */
+    public int rebuild(Collection<Long> userIds) {
+        Map<Long, Map<String, Double>> scoresByUser = new HashMap<>();
+        userChatRoomRepository.findRoomActivitiesByUserIds(userIds).forEach(row -> {
+            LocalDateTime activityAt = row.getLastMessageAt() != null ? row.getLastMessageAt() : row.getCreatedAt();
+            double score = activityAt != null ? activityAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+            scoresByUser.computeIfAbsent(row.getUserId(), id -> new HashMap<>()).put(row.getChatRoomId().toString(), score);
+        });
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (Long userId : userIds) {
+                    String key = String.format(USER_ROOMS_ACTIVITY_KEY, userId);
+                    ops.delete(key);
+                    ops.opsForZSet().add(key, INITIALIZED_MEMBER, INITIALIZED_SCORE);
+                    scoresByUser.getOrDefault(userId, Map.of())
+                            .forEach((chatRoomId, score) -> ops.opsForZSet().add(key, chatRoomId, score));
+                }
+                return null;
+            }
+        });
+
+        return scoresByUser.values().stream().mapToInt(Map::size).sum();
+    }
+
+    // ZREVRANGE WITHSCORES 결과 -> 채팅방 ID / 점수 (순서 유지, JMH 벤치마크에서도 사용)
+    static List<RoomActivity> toRoomActivities(Object tuples) {
+        List<RoomActivity> rooms = new ArrayList<>();
+        if (!(tuples instanceof Collection<?> collection)) {
+            return rooms;
+        }
+        for (Object element : collection) {
+            ZSetOperations.TypedTuple<?> tuple = (ZSetOperations.TypedTuple<?>) element;
+            Long chatRoomId = INITIALIZED_MEMBER.equals(tuple.getValue()) ? null : CompactRedisSerializer.toId(tuple.getValue());
+            if (chatRoomId == null) {
+                continue;
+            }
+            rooms.add(new RoomActivity(chatRoomId, tuple.getScore() != null ? tuple.getScore() : 0));
+        }
+        return rooms;
+    }
+
+    public record RoomActivity(Long chatRoomId, double score) {
+    }
+}
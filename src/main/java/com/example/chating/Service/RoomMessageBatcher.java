@@ -0,0 +1,149 @@
+package com.example.chating.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * 채팅방 메시지 묶음 전송 (chat.broadcast.batching.enabled=true)
+ * - 최근 max-delay 동안 보낸 프레임이 없는 채팅방의 메시지는 바로 한 프레임으로 보냅니다.
+ * - 그 외에는 마지막 전송 후 max-delay 가 될 때까지 (또는 max-messages 개가 모일 때까지) 모아 배열 한 프레임으로 보냅니다.
+ *   → 메시지가 드문 채팅방은 지연 없음, 바쁜 채팅방은 채팅방마다 max-delay 당 최대 한 프레임 (+ 크기로 보낸 프레임)
+ * - 채팅방별 잠금 안에서 보내므로 채팅방 안의 메시지 순서는 유지됩니다.
+ */
+@Slf4j
+class RoomMessageBatcher {
+
+    // 보낸 지 오래된 채팅방 상태 정리 주기
+    private static final long SWEEP_INTERVAL_SECONDS = 60;
+
+    private final long maxDelayNanos;
+    private final int maxMessages;
+    // (채팅방 ID, 메시지 또는 메시지 목록) 전송
+    private final BiConsumer<Long, Object> sender;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Long, RoomBatch> rooms = new ConcurrentHashMap<>();
+
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+
+    RoomMessageBatcher(long maxDelayMicros, int maxMessages, BiConsumer<Long, Object> sender) {
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+        this.maxMessages = maxMessages;
+        this.sender = sender;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "room-broadcast-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    void submit(Long roomId, Object payload) {
+        while (true) {
+            RoomBatch room = rooms.computeIfAbsent(roomId, RoomBatch::new);
+            room.lock.lock();
+            try {
+                if (room.removed) {
+                    continue; // 정리된 상태 객체: 새로 만든 것으로 다시 시도
+                }
+                long now = System.nanoTime();
+                long sinceLastFrame = now - room.lastSentAt;
+                if (room.pending.isEmpty() && sinceLastFrame >= maxDelayNanos) {
+                    send(room, payload, 1); // 한가한 채팅방: 바로 전송
+                    return;
+                }
+                room.pending.add(payload);
+                if (room.pending.size() >= maxMessages) {
+                    flush(room);
+                } else if (room.pending.size() == 1) {
+                    scheduler.schedule(() -> flushLater(room), Math.max(0, maxDelayNanos - sinceLastFrame), TimeUnit.NANOSECONDS);
+                }
+                return;
+            } finally {
+                room.lock.unlock();
+            }
+        }
+    }
+
+    private void flushLater(RoomBatch room) {
+        room.lock.lock();
+        try {
+            flush(room);
+        } catch (RuntimeException e) {
+            log.error("Failed to send batched messages to room {}", room.roomId, e);
+        } finally {
+            room.lock.unlock();
+        }
+    }
+
+    // room.lock 안에서 호출
+    private void flush(RoomBatch room) {
+        if (room.pending.isEmpty()) {
+            return;
+        }
+        List<Object> batch = room.pending;
+        room.pending = new ArrayList<>();
+        send(room, batch.size() == 1 ? batch.get(0) : batch, batch.size());
+    }
+
+    private void send(RoomBatch room, Object payload, int count) {
+        room.lastSentAt = System.nanoTime();
+        sender.accept(room.roomId, payload);
+        frames.increment();
+        messages.add(count);
+    }
+
+    private void sweep() {
+        long idleSince = System.nanoTime() - TimeUnit.SECONDS.toNanos(SWEEP_INTERVAL_SECONDS);
+        rooms.values().forEach(room -> {
+            if (!room.lock.tryLock()) {
+                return;
+            }
+            try {
+                if (room.pending.isEmpty() && room.lastSentAt - idleSince < 0) {
+                    room.removed = true;
+                    rooms.remove(room.roomId, room);
+                }
+            } finally {
+                room.lock.unlock();
+            }
+        });
+    }
+
+    // 모인 메시지를 모두 보내고 종료
+    void close() {
+        scheduler.shutdownNow();
+        rooms.values().forEach(this::flushLater);
+    }
+
+    long getFrames() {
+        return frames.sum();
+    }
+
+    long getMessages() {
+        return messages.sum();
+    }
+
+    private static class RoomBatch {
+        private final Long roomId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private List<Object> pending = new ArrayList<>();
+        private long lastSentAt;
+        private boolean removed;
+
+        private RoomBatch(Long roomId) {
+            this.roomId = roomId;
+            this.lastSentAt = System.nanoTime() - Long.MAX_VALUE / 2; // 처음 메시지는 바로 전송
+        }
+    }
+}
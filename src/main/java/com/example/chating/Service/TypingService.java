@@ -0,0 +1,185 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.TypingUpdateDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 입력 중 표시 (저장하지 않음, Redis 에 쓰지 않음)
+ * - 사용자 / 채팅방별로 min-interval 안에 다시 온 입력 중 요청은 버립니다.
+ * - 변경은 전송 주기 동안 모아 채팅방별로 한 번씩 /topic/{roomId}/typing 으로 전송합니다. (다른 노드에는 채팅방 채널로 전달)
+ * - 입력 중인 사용자는 ttl 의 절반마다 다시 알리고, ttl 동안 갱신이 없으면 입력 중지로 알립니다.
+ */
+@Slf4j
+@Service
+public class TypingService implements DisposableBean {
+
+    private static final String TYPING_DESTINATION = "typing";
+
+    private final ChatRoomMemberService chatRoomMemberService;
+    private final ChatBroadcastService chatBroadcastService;
+    private final long minIntervalMillis;
+    private final long ttlMillis;
+    private final ScheduledExecutorService scheduler;
+
+    // 이 노드에서 입력 중인 사용자 (채팅방 ID -> 사용자 ID -> 상태)
+    private final Map<Long, Map<Long, Typer>> typers = new ConcurrentHashMap<>();
+
+    // 전송 대기 중인 변경 (채팅방 ID -> 사용자 ID -> 입력 중 여부, 사용자별 마지막 상태만 유지)
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private Map<Long, Map<Long, Boolean>> pending = new HashMap<>();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder broadcastUpdates = new LongAdder();
+
+    public TypingService(ChatRoomMemberService chatRoomMemberService,
+                         ChatBroadcastService chatBroadcastService,
+                         @Value("${chat.typing.min-interval-ms:1000}") long minIntervalMillis,
+                         @Value("${chat.typing.ttl-ms:5000}") long ttlMillis,
+                         @Value("${chat.typing.broadcast-interval-ms:500}") long broadcastIntervalMs) {
+        this.chatRoomMemberService = chatRoomMemberService;
+        this.chatBroadcastService = chatBroadcastService;
+        this.minIntervalMillis = minIntervalMillis;
+        this.ttlMillis = ttlMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "typing-broadcast");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::tick, broadcastIntervalMs, broadcastIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 입력 중 상태 변경
+     * - 처음 입력을 시작할 때만 참여 여부를 확인합니다. (이후 갱신은 로컬 상태로 처리)
+     */
+    public void update(Long roomId, Long userId, boolean typing) {
+        if (!typing) {
+            stop(roomId, userId);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<Long, Typer> roomTypers = typers.get(roomId);
+        Typer typer = roomTypers != null ? roomTypers.get(userId) : null;
+        if (typer != null && now - typer.refreshedAt < minIntervalMillis) {
+            throttled.increment();
+            return;
+        }
+        if (typer == null) {
+            if (!chatRoomMemberService.getMemberIds(roomId).contains(userId)) {
+                return;
+            }
+            typer = new Typer();
+            typer.refreshedAt = now;
+            typer.announcedAt = now;
+            Typer added = typer;
+            typers.compute(roomId, (id, users) -> {
+                Map<Long, Typer> roomUsers = users != null ? users : new ConcurrentHashMap<>();
+                roomUsers.put(userId, added);
+                return roomUsers;
+            });
+            queue(roomId, userId, true);
+        } else if (now - typer.announcedAt >= ttlMillis / 2) {
+            typer.announcedAt = now; // 다른 사용자의 표시가 만료되기 전에 다시 알림
+            queue(roomId, userId, true);
+        }
+        typer.refreshedAt = now;
+        accepted.increment();
+    }
+
+    // 입력 중지 (중지 요청, 메시지 전송)
+    public void stop(Long roomId, Long userId) {
+        Map<Long, Typer> roomTypers = typers.get(roomId);
+        if (roomTypers != null && roomTypers.remove(userId) != null) {
+            queue(roomId, userId, false);
+        }
+    }
+
+    private void queue(Long roomId, Long userId, boolean typing) {
+        pendingLock.lock();
+        try {
+            pending.computeIfAbsent(roomId, id -> new HashMap<>()).put(userId, typing);
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private void tick() {
+        try {
+            expire();
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to broadcast typing changes", e);
+        }
+    }
+
+    // ttl 동안 갱신이 없는 사용자는 입력 중지
+    private void expire() {
+        long now = System.currentTimeMillis();
+        typers.forEach((roomId, roomTypers) -> {
+            roomTypers.forEach((userId, typer) -> {
+                if (now - typer.refreshedAt >= ttlMillis && roomTypers.remove(userId, typer)) {
+                    queue(roomId, userId, false);
+                }
+            });
+            typers.computeIfPresent(roomId, (id, users) -> users.isEmpty() ? null : users);
+        });
+    }
+
+    // 모인 변경을 채팅방별로 한 번씩 전송
+    void flush() {
+        Map<Long, Map<Long, Boolean>> changes;
+        pendingLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            changes = pending;
+            pending = new HashMap<>();
+        } finally {
+            pendingLock.unlock();
+        }
+
+        changes.forEach((roomId, users) -> {
+            TypingUpdateDto update = new TypingUpdateDto(roomId, new ArrayList<>(), new ArrayList<>(), ttlMillis);
+            users.forEach((userId, typing) -> (typing ? update.getTyping() : update.getStopped()).add(userId));
+            chatBroadcastService.sendToRoom(roomId, TYPING_DESTINATION, update);
+        });
+        broadcastUpdates.add(changes.size());
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getThrottled() {
+        return throttled.sum();
+    }
+
+    public long getBroadcastUpdates() {
+        return broadcastUpdates.sum();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private static class Typer {
+        private volatile long refreshedAt;
+        private volatile long announcedAt;
+    }
+}
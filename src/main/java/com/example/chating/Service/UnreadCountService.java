@@ -0,0 +1,98 @@
+package com.example.chating.Service;
+
+import com.example.chating.Repository.UserChatRoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사용자별 / 채팅방별 안 읽은 메시지 수
+ * - user:{id}:unreadCounts 해시(필드: 채팅방 ID)에 저장하며, 메시지 저장 시 보낸 사람을 제외한 참여자마다 1씩 증가합니다.
+ * - 사용자가 최신 메시지까지 읽으면 0으로 초기화합니다.
+ * - Redis 가 초기화되어 해시가 없으면 DB 의 읽음 워터마크 기준으로 다시 계산합니다.
+ * - HINCRBY 와 호환되도록 값은 문자열 숫자로 저장합니다. (StringRedisTemplate 사용)
+ */
+@Service
+@RequiredArgsConstructor
+public class UnreadCountService {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final UserChatRoomRepository userChatRoomRepository;
+
+    private static final String USER_UNREAD_COUNTS_KEY = "user:%s:unreadCounts";
+    // 해시가 DB 기준으로 채워졌음을 나타내는 필드 (없으면 DB 에서 다시 계산)
+    private static final String INITIALIZED_FIELD = "_initialized";
+
+    // 메시지 저장 파이프라인 안에서 안 읽은 메시지 수 증가
+    public void increment(RedisOperations<String, Object> operations, Long userId, String chatRoomId) {
+        operations.opsForHash().increment(String.format(USER_UNREAD_COUNTS_KEY, userId), chatRoomId, 1);
+    }
+
+    // 채팅방별 안 읽은 메시지 수 (HMGET 한 번)
+    public Map<Long, Long> getUnreadCounts(Long userId, Collection<Long> chatRoomIds) {
+        List<Object> fields = new ArrayList<>();
+        fields.add(INITIALIZED_FIELD);
+        chatRoomIds.forEach(chatRoomId -> fields.add(chatRoomId.toString()));
+
+        List<Object> values = stringRedisTemplate.opsForHash().multiGet(String.format(USER_UNREAD_COUNTS_KEY, userId), fields);
+        if (values.get(0) == null) {
+            return rebuild(userId);
+        }
+
+        Map<Long, Long> unreadCounts = new HashMap<>();
+        int index = 1;
+        for (Long chatRoomId : chatRoomIds) {
+            Object value = values.get(index++);
+            unreadCounts.put(chatRoomId, value == null ? 0L : Long.parseLong(value.toString()));
+        }
+        return unreadCounts;
+    }
+
+    // DB 의 읽음 워터마크 기준으로 사용자의 안 읽은 메시지 수를 다시 계산하여 저장
+    public Map<Long, Long> rebuild(Long userId) {
+        Map<Long, Long> unreadCounts = new HashMap<>();
+        Map<String, String> hash = new HashMap<>();
+        userChatRoomRepository.countUnreadMessagesByUserId(userId).forEach(row -> {
+            unreadCounts.put(row.getChatRoomId(), row.getUnreadCount());
+            hash.put(row.getChatRoomId().toString(), row.getUnreadCount().toString());
+        });
+        hash.put(INITIALIZED_FIELD, "1");
+
+        String key = String.format(USER_UNREAD_COUNTS_KEY, userId);
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.delete(key);
+                ops.opsForHash().putAll(key, hash);
+                return null;
+            }
+        });
+        return unreadCounts;
+    }
+
+    // 최신 메시지까지 읽음
+    public void reset(Long userId, Long chatRoomId) {
+        stringRedisTemplate.opsForHash().put(String.format(USER_UNREAD_COUNTS_KEY, userId), chatRoomId.toString(), "0");
+    }
+
+    // 파이프라인 안에서 제거 (채팅방 삭제 시 참여자 전체)
+    public void remove(RedisOperations<String, Object> operations, Long userId, String chatRoomId) {
+        operations.opsForHash().delete(String.format(USER_UNREAD_COUNTS_KEY, userId), chatRoomId);
+    }
+
+    // 채팅방에서 나가거나 채팅방이 삭제된 경우
+    public void remove(Long userId, Long chatRoomId) {
+        stringRedisTemplate.opsForHash().delete(String.format(USER_UNREAD_COUNTS_KEY, userId), chatRoomId.toString());
+    }
+}
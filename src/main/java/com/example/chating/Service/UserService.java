@@ -12,13 +12,16 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    private final EntityCacheService entityCacheService;
+
     public User findByName(String name) {
         return userRepository.findByName(name).orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    // 로컬 캐시 우선 조회 (반환된 User 는 공유 객체이므로 수정하지 않음)
     public User getUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
+        return entityCacheService.getUser(userId, id -> userRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + id)));
     }
 
     // 사용자 이름 조회
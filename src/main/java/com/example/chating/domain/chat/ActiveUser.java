@@ -1,24 +0,0 @@
-//package com.example.chating.domain.chat;
-//
-//import jakarta.persistence.*;
-//import lombok.*;
-//
-//@Entity
-//@Getter
-//@Setter
-//@NoArgsConstructor
-//@AllArgsConstructor
-//@Builder
-//public class ActiveUser {
-//
-//    @Id
-//    @GeneratedValue(strategy = GenerationType.IDENTITY)
-//    private Long id;
-//
-//    @ManyToOne(fetch = FetchType.LAZY)
-//    @JoinColumn(name = "chat_room_id")
-//    private ChatRoom chatRoom;
-//
-//    private Long userId; // 사용자 ID
-//    private boolean isActive; // 활성화 상태
-//}
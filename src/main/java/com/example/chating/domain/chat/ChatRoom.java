@@ -1,5 +1,6 @@
 package com.example.chating.domain.chat;
 
+import com.example.chating.global.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -19,7 +20,7 @@ import java.util.Set;
 public class ChatRoom implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     private String name;
@@ -30,9 +31,8 @@ public class ChatRoom implements Serializable {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
-//    // 활성 사용자 목록
-//    @OneToMany(mappedBy = "chatRoom", cascade = CascadeType.ALL, orphanRemoval = true)
-//    private Set<ActiveUser> activeUsers = new HashSet<>();
+    // 삭제 표시 (tombstone): 값이 있으면 조회에서 제외되고, 메시지 등 연관 데이터는 백그라운드에서 정리된 뒤 행이 삭제됨
+    private LocalDateTime deletedAt;
 
     @Override
     public String toString() {
@@ -41,6 +41,7 @@ public class ChatRoom implements Serializable {
                 ", name='" + name + '\'' +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", deletedAt=" + deletedAt +
                 '}';
     }
 }
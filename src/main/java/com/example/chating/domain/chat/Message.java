@@ -2,13 +2,13 @@ package com.example.chating.domain.chat;
 
 import com.example.chating.domain.MessageType;
 import com.example.chating.domain.User;
+import com.example.chating.global.ReservedIdHolder;
+import com.example.chating.global.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
 
 @Entity
 @Getter
@@ -16,11 +16,16 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Message {
+@Table(indexes = @Index(name = "idx_message_chatroom_id_id", columnList = "chatroom_id, id")) // 커서 기반 조회용
+public class Message implements ReservedIdHolder {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
+    // write-behind 저장 시 미리 발급한 ID (저장 시 이 값이 id 로 사용됨)
+    @Transient
+    private Long reservedId;
+
     @ManyToOne
     @JoinColumn(name = "chatroom_id")
     private ChatRoom chatRoom;
@@ -34,20 +39,13 @@ public class Message {
     @CreationTimestamp
     private LocalDateTime sentAt;
 
-    // 메시지 읽음 상태를 추적할 사용자 리스트
-    @ManyToMany
-    private Set<User> readByUsers = new HashSet<>();
-
+    // 읽음 상태는 UserChatRoom.lastReadMessageId(읽음 워터마크)로부터 조회 시 계산 (DB 컬럼 아님)
+    @Transient
     private boolean isRead = false; // 메시지 읽음 상태 필드 추가
 
     @Enumerated(EnumType.STRING) // ENUM 타입으로 저장
     private MessageType messageType;
 
-    // 읽은 사용자 추가
-    public void addReadByUser(User user) {
-        this.readByUsers.add(user);
-    }
-
     // setIsRead 메서드 추가
     public void setIsRead(boolean isRead) {
         this.isRead = isRead;
@@ -60,5 +58,6 @@ public class Message {
         this.readByUsersCount = readByUsersCount;
     }
 
+    @Transient
     private int readByUsersCount; // 읽은 사용자 수를 추적하는 필드 추가
 }
@@ -1,6 +1,7 @@
 package com.example.chating.domain.chat;
 
 import com.example.chating.domain.User;
+import com.example.chating.global.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -15,7 +16,7 @@ import java.time.LocalDateTime;
 @Builder
 public class UserChatRoom {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @ManyToOne
@@ -28,4 +29,7 @@ public class UserChatRoom {
 
     @CreationTimestamp
     private LocalDateTime joinedAt;
+
+    // 읽음 워터마크: 이 채팅방에서 사용자가 마지막으로 읽은 메시지 ID (이 ID 이하의 메시지는 모두 읽음)
+    private Long lastReadMessageId;
 }
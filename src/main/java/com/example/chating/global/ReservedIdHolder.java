@@ -0,0 +1,9 @@
+package com.example.chating.global;
+
+/**
+ * 저장 전에 미리 ID 를 발급받는 엔티티
+ * - write-behind 저장처럼 DB 저장보다 먼저 클라이언트에게 ID 를 알려줘야 할 때 사용합니다.
+ */
+public interface ReservedIdHolder {
+    Long getReservedId();
+}
@@ -0,0 +1,20 @@
+package com.example.chating.global;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * 엔티티 ID 를 {@link SnowflakeIdGenerator} 로 생성합니다.
+ * - IDENTITY 와 달리 INSERT 전에 ID 가 정해지므로 Hibernate 가 INSERT 를 JDBC batch 로 묶을 수 있습니다.
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface SnowflakeId {
+}
@@ -0,0 +1,83 @@
+package com.example.chating.global;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 시간 순서가 보장되는 애플리케이션 측 ID 생성기 (Snowflake 방식)
+ * - [타임스탬프 41bit][노드 5bit][시퀀스 7bit] = 53bit 로 구성하여 JavaScript Number 로도 손실 없이 표현됩니다.
+ * - 락 없이 CAS 로 동작하며, 노드 내에서는 항상 증가하는 값을 반환합니다.
+ *   (같은 ms 에서 시퀀스가 넘치거나 시계가 뒤로 가면 논리 시계를 1ms 앞당겨 단조 증가를 유지)
+ * - ID 상위 비트가 생성 시각이므로 sentAt 대신 id 로 정렬할 수 있습니다.
+ */
+public class SnowflakeIdGenerator {
+
+    // 2025-01-01T00:00:00Z
+    public static final long EPOCH_MILLIS = 1735689600000L;
+
+    static final int NODE_BITS = 5;
+    static final int SEQUENCE_BITS = 7;
+    static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static volatile SnowflakeIdGenerator instance = new SnowflakeIdGenerator(0);
+
+    private final long nodeId;
+    private final LongSupplier clock;
+
+    // 상위 비트: 마지막으로 사용한 타임스탬프(EPOCH 기준), 하위 SEQUENCE_BITS: 시퀀스
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    // 애플리케이션 전체에서 공유하는 생성기 (Hibernate ID 생성기에서 사용)
+    public static SnowflakeIdGenerator getInstance() {
+        return instance;
+    }
+
+    // 노드 ID 설정 (애플리케이션 시작 시 한 번 호출)
+    public static void configure(int nodeId) {
+        if (instance.nodeId != nodeId) {
+            instance = new SnowflakeIdGenerator(nodeId);
+        }
+    }
+
+    public long nextId() {
+        while (true) {
+            long last = state.get();
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            // 시계가 앞으로 갔으면 새 타임스탬프 + 시퀀스 0, 아니면 +1 (시퀀스가 넘치면 타임스탬프로 올림)
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (state.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << TIMESTAMP_SHIFT) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // ID 에 기록된 생성 시각 (epoch millis)
+    public static long extractTimestamp(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS;
+    }
+
+    // 이 시각(epoch millis) 이후에 생성된 ID 의 최솟값 (시각 기준 ID 범위 조회용)
+    public static long minIdAt(long epochMillis) {
+        return Math.max(0, epochMillis - EPOCH_MILLIS) << TIMESTAMP_SHIFT;
+    }
+
+    public static int extractNodeId(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+}
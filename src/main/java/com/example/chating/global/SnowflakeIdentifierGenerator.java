@@ -0,0 +1,19 @@
+package com.example.chating.global;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * {@link SnowflakeId} 가 붙은 엔티티의 Hibernate ID 생성기
+ * - 엔티티가 미리 발급받은 ID 를 가지고 있으면({@link ReservedIdHolder}) 그 값을 그대로 사용합니다.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (object instanceof ReservedIdHolder holder && holder.getReservedId() != null) {
+            return holder.getReservedId();
+        }
+        return SnowflakeIdGenerator.getInstance().nextId();
+    }
+}
@@ -1,19 +1,64 @@
 package com.example.chating.global;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
 public class TokenProvider {
 
-    private static final SecretKey SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS512); // 단일 토큰용 비밀키
+    static final SecretKey SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS512); // 단일 토큰용 비밀키
+
+    // 파서는 thread-safe 하므로 한 번만 생성
+    private final JwtParser jwtParser = Jwts.parserBuilder()
+            .setSigningKey(SECRET_KEY)
+            .build();
+
+    // 서명 검증이 끝난 토큰 -> 클레임 (토큰 만료 시각에 함께 만료, 클레임은 읽기 전용으로 사용, max-size 0 이면 사용 안 함)
+    private final Cache<String, Claims> verifiedTokens;
+
+    // 검증 캐시 지표
+    private final LongAdder verifiedTokenHits = new LongAdder();
+    private final LongAdder verifiedTokenMisses = new LongAdder();
+
+    public TokenProvider(@Value("${chat.auth.token-cache.max-size:10000}") long maxSize) {
+        this.verifiedTokens = maxSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        Date expiration = claims.getExpiration();
+                        long remainingMillis = expiration == null
+                                ? TimeUnit.HOURS.toMillis(1)
+                                : expiration.getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
 
     // 토큰 생성
     public String generateToken(String username, Long userId) {
@@ -29,11 +74,7 @@ public class TokenProvider {
     // 토큰 검증 및 클레임 추출
     public Claims extractClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(SECRET_KEY)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return verify(token);
         } catch (ExpiredJwtException e) {
             // 만료된 토큰에서도 클레임 추출
             return e.getClaims();
@@ -53,13 +94,34 @@ public class TokenProvider {
     // 토큰 유효성 확인
     public boolean isValidToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(SECRET_KEY)
-                    .build()
-                    .parseClaimsJws(token);
+            verify(token);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
+
+    // 검증 캐시에 있으면 서명 검증 생략, 없으면 검증 후 저장 (유효하지 않은 토큰은 예외)
+    private Claims verify(String token) {
+        if (verifiedTokens == null) {
+            return jwtParser.parseClaimsJws(token).getBody();
+        }
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            verifiedTokenHits.increment();
+            return cached;
+        }
+        verifiedTokenMisses.increment();
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        verifiedTokens.put(token, claims);
+        return claims;
+    }
+
+    public long getVerifiedTokenHits() {
+        return verifiedTokenHits.sum();
+    }
+
+    public long getVerifiedTokenMisses() {
+        return verifiedTokenMisses.sum();
+    }
 }
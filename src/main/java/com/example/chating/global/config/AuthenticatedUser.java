@@ -12,8 +12,13 @@ public class AuthenticatedUser implements Principal {
         this.userId = userId;
     }
 
+    // 사용자 목적지(/user/queue/...)는 Principal 이름으로 세션을 찾으므로 고유한 사용자 ID 를 사용
     @Override
     public String getName() {
+        return String.valueOf(this.userId);
+    }
+
+    public String getUsername() {
         return this.username;
     }
 
@@ -21,5 +26,3 @@ public class AuthenticatedUser implements Principal {
         return this.userId;
     }
 }
-
-
@@ -0,0 +1,30 @@
+package com.example.chating.global.config;
+
+import com.example.chating.global.SnowflakeIdGenerator;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+public class IdGeneratorConfig {
+
+    // 인스턴스마다 다른 값을 지정해야 함 (0 ~ 31), 단일 인스턴스에서는 지정하지 않으면 0
+    @Value("${chat.id.node-id:#{null}}")
+    private Integer nodeId;
+
+    @Value("${chat.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    @PostConstruct
+    public void configureIdGenerator() {
+        // 여러 인스턴스가 기본값 0 을 함께 쓰면 같은 ID 가 만들어지므로 클러스터 모드에서는 시작하지 않음
+        if (nodeId == null && clusterEnabled) {
+            throw new IllegalStateException("chat.id.node-id must be set explicitly when chat.cluster.enabled=true");
+        }
+        int configuredNodeId = nodeId == null ? 0 : nodeId;
+        SnowflakeIdGenerator.configure(configuredNodeId);
+        log.info("Snowflake ID generator node: {}", configuredNodeId);
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.chating.global.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 세션별 아웃바운드 역압 (clientOutbound 채널)
+ * - 세션마다 채널에 넘긴 프레임 수와 소켓에 쓴 프레임 수의 차이(밀린 프레임)를 셉니다.
+ * - 밀린 프레임이 low-priority-backlog 이상이면 우선순위가 낮은 목적지(채팅방 목록, 접속 상태, 입력 중)는
+ *   목적지별 마지막 프레임만 보관했다가 밀린 프레임이 줄면 보냅니다. (건너뛴 수는 coalesced 헤더로 전달, 클라이언트는 다시 조회)
+ * - 채팅방 메시지는 그대로 보내고, 밀린 프레임이 max-backlog 이상이거나 느린 전송이 반복되면 연결을 끊습니다.
+ *   (종료 코드 4008, 이유에 재연결 대기 시간 포함)
+ * - 마지막 안전장치로 Spring 의 전송 시간 / 버퍼 크기 제한(send-time-limit-ms, send-buffer-size-limit)도 함께 적용됩니다.
+ */
+@Slf4j
+@Component
+public class OutboundBackpressureInterceptor implements ChannelInterceptor {
+
+    public static final String COALESCED_HEADER = "coalesced";
+    static final CloseStatus SLOW_CONSUMER = new CloseStatus(4008, "slow-consumer");
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> lowPriorityDestinations;
+    private final int lowPriorityBacklog;
+    private final int maxBacklog;
+    private final long slowSendMillis;
+    private final int maxSlowSends;
+    private final long slowSendWindowMillis;
+    private final CloseStatus evictStatus;
+
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder slowSendEvictions = new LongAdder();
+    private final LongAdder backlogEvictions = new LongAdder();
+
+    public OutboundBackpressureInterceptor(
+            @Value("${chat.websocket.outbound.low-priority-destinations:/user/queue/rooms,/topic/*/presence,/topic/*/typing}") List<String> lowPriorityDestinations,
+            @Value("${chat.websocket.outbound.low-priority-backlog:32}") int lowPriorityBacklog,
+            @Value("${chat.websocket.outbound.max-backlog:1000}") int maxBacklog,
+            @Value("${chat.websocket.outbound.slow-send-ms:2000}") long slowSendMillis,
+            @Value("${chat.websocket.outbound.max-slow-sends:3}") int maxSlowSends,
+            @Value("${chat.websocket.outbound.slow-send-window-seconds:60}") long slowSendWindowSeconds,
+            @Value("${chat.websocket.outbound.reconnect-delay-ms:5000}") long reconnectDelayMillis) {
+        this.lowPriorityDestinations = lowPriorityDestinations;
+        this.lowPriorityBacklog = lowPriorityBacklog;
+        this.maxBacklog = maxBacklog;
+        this.slowSendMillis = slowSendMillis;
+        this.maxSlowSends = maxSlowSends;
+        this.slowSendWindowMillis = slowSendWindowSeconds * 1000;
+        this.evictStatus = SLOW_CONSUMER.withReason("slow-consumer; reconnect-after=" + reconnectDelayMillis);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        SessionState state = sessionId != null ? sessions.get(sessionId) : null;
+        if (state == null) {
+            return message;
+        }
+        if (state.evicted.get()) {
+            dropped.increment();
+            return null;
+        }
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            state.queued.increment(); // CONNECTED, heartbeat 등은 항상 전송
+            return message;
+        }
+
+        String destination = destinationOf(message);
+        if (isLowPriority(destination)) {
+            // 밀려 있거나 같은 목적지에 보관 중인 프레임이 있으면 (순서 유지) 마지막 프레임만 보관
+            if (state.backlog() >= lowPriorityBacklog || state.held.containsKey(destination)) {
+                hold(state, destination, message, channel);
+                return null;
+            }
+        } else if (state.backlog() >= maxBacklog) {
+            evict(state, backlogEvictions, "backlog");
+            dropped.increment();
+            return null;
+        }
+        state.queued.increment();
+        return message;
+    }
+
+    private void hold(SessionState state, String destination, Message<?> message, MessageChannel channel) {
+        state.held.compute(destination, (key, previous) -> {
+            if (previous == null) {
+                return new HeldFrame(message, channel, 0);
+            }
+            coalesced.increment();
+            return new HeldFrame(message, channel, previous.skipped + 1);
+        });
+    }
+
+    // 밀린 프레임이 줄었으면 보관 중인 프레임 전송 (다시 preSend 를 거침)
+    private void drain(SessionState state) {
+        if (state.held.isEmpty() || state.backlog() >= lowPriorityBacklog || state.evicted.get()) {
+            return;
+        }
+        for (String destination : state.held.keySet()) {
+            HeldFrame frame = state.held.remove(destination);
+            if (frame != null) {
+                frame.channel.send(frame.skipped > 0 ? withCoalescedHeader(frame.message, frame.skipped) : frame.message);
+            }
+        }
+    }
+
+    private void evict(SessionState state, LongAdder reason, String description) {
+        if (!state.evicted.compareAndSet(false, true)) {
+            return;
+        }
+        reason.increment();
+        dropped.add(state.held.size());
+        state.held.clear();
+        log.warn("Evicting slow STOMP session {} ({}, backlog={})", state.session.getId(), description, state.backlog());
+        try {
+            state.session.close(evictStatus);
+        } catch (IOException e) {
+            log.debug("Failed to close slow STOMP session {}", state.session.getId(), e);
+        }
+    }
+
+    private boolean isLowPriority(String destination) {
+        if (destination == null) {
+            return false;
+        }
+        for (String pattern : lowPriorityDestinations) {
+            if (pathMatcher.match(pattern, destination)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 사용자 목적지는 클라이언트가 구독한 원래 목적지(/user/queue/...)로 판단
+    private static String destinationOf(Message<?> message) {
+        Object original = message.getHeaders().get(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION);
+        return original != null ? original.toString() : SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+    }
+
+    private static Message<?> withCoalescedHeader(Message<?> message, int skipped) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        accessor.setNativeHeader(COALESCED_HEADER, Integer.toString(skipped));
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+
+    /**
+     * STOMP 핸들러가 받는 세션을 전송 시간을 재는 세션으로 감쌉니다. (WebSocketTransportRegistration.addDecoratorFactory)
+     */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SessionState state = new SessionState(session);
+                sessions.put(session.getId(), state);
+                super.afterConnectionEstablished(new MeasuringSession(session, state));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                SessionState state = sessions.remove(session.getId());
+                if (state != null) {
+                    dropped.add(state.held.size());
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    public int getHeldFrames() {
+        return sessions.values().stream().mapToInt(state -> state.held.size()).sum();
+    }
+
+    public long getCoalescedFrames() {
+        return coalesced.sum();
+    }
+
+    public long getDroppedFrames() {
+        return dropped.sum();
+    }
+
+    public long getSlowSendEvictions() {
+        return slowSendEvictions.sum();
+    }
+
+    public long getBacklogEvictions() {
+        return backlogEvictions.sum();
+    }
+
+    // 프레임 하나를 소켓에 쓰는 시간 측정 (Spring 의 ConcurrentWebSocketSessionDecorator 가 세션별로 한 스레드씩 호출)
+    private class MeasuringSession extends WebSocketSessionDecorator {
+
+        private final SessionState state;
+
+        private MeasuringSession(WebSocketSession session, SessionState state) {
+            super(session);
+            this.state = state;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            long startedAt = System.currentTimeMillis();
+            try {
+                super.sendMessage(message);
+            } finally {
+                state.sent.increment();
+                long elapsed = System.currentTimeMillis() - startedAt;
+                if (elapsed >= slowSendMillis) {
+                    if (startedAt - state.firstSlowSendAt > slowSendWindowMillis) {
+                        state.firstSlowSendAt = startedAt;
+                        state.slowSends = 0;
+                    }
+                    if (++state.slowSends >= maxSlowSends) {
+                        evict(state, slowSendEvictions, "slow-send");
+                    }
+                }
+                drain(state);
+            }
+        }
+    }
+
+    private static class SessionState {
+        private final WebSocketSession session;
+        private final LongAdder queued = new LongAdder();
+        private final LongAdder sent = new LongAdder();
+        // 목적지 -> 보관 중인 마지막 프레임
+        private final Map<String, HeldFrame> held = new ConcurrentHashMap<>();
+        private final AtomicBoolean evicted = new AtomicBoolean();
+        private volatile long firstSlowSendAt;
+        private volatile int slowSends;
+
+        private SessionState(WebSocketSession session) {
+            this.session = session;
+        }
+
+        // 채널에 넘겼지만 아직 소켓에 쓰지 않은 프레임 수 (채널 밖에서 보낸 ERROR 프레임 등은 0 으로 보정)
+        private long backlog() {
+            return Math.max(0, queued.sum() - sent.sum());
+        }
+    }
+
+    private record HeldFrame(Message<?> message, MessageChannel channel, int skipped) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.chating.global.config;
+
+import com.example.chating.Service.PresenceService;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 세션에서 받은 모든 프레임(SEND, SUBSCRIBE, STOMP heart-beat 등)으로 접속 상태 TTL 을 연장합니다. (clientInbound 채널)
+ * - PresenceService.heartbeat 는 TTL 의 1/3 보다 자주 호출되면 Redis 에 쓰지 않으므로 프레임마다 호출해도 됩니다.
+ */
+@Component
+public class PresenceInboundInterceptor implements ChannelInterceptor {
+
+    private final PresenceService presenceService;
+
+    // PresenceService -> ChatBroadcastService -> 메시지 브로커 설정 -> WebSocketConfig 순환 참조를 피하기 위해 지연 주입
+    public PresenceInboundInterceptor(@Lazy PresenceService presenceService) {
+        this.presenceService = presenceService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId != null) {
+            presenceService.heartbeat(sessionId);
+        }
+        return message;
+    }
+}
@@ -1,53 +1,57 @@
 package com.example.chating.global.config;
 
-import com.example.chating.Redis.RedisSubscriber;
+import com.example.chating.Redis.CompactRedisSerializer;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.listener.ChannelTopic;
-import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
-@RequiredArgsConstructor
 public class RedisConfig {
 
-    private final RedisSubscriber redisSubscriber;
-
+    // 이전 형식 읽기는 시작 시 RedisFormatMigration 이 Redis 의 값 형식을 확인(필요하면 변환)할 때까지 켜 둠
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+        return createRedisTemplate(connectionFactory, true);
+    }
+
+    public static RedisTemplate<String, Object> createRedisTemplate(RedisConnectionFactory connectionFactory, boolean legacyReadEnabled) {
         RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
         redisTemplate.setConnectionFactory(connectionFactory);
 
-        // Jackson 설정: 타입 정보 추가
+        // Key와 HashKey 직렬화
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+
+        // Value와 HashValue 직렬화: ID / 문자열은 그대로, ChatRoom / ChatMessage 는 바이너리
+        // (이전 형식인 타입 정보 포함 JSON 은 이전 형식 읽기가 켜져 있는 동안만 읽기 지원)
+        CompactRedisSerializer valueSerializer = new CompactRedisSerializer(
+                new GenericJackson2JsonRedisSerializer(legacyObjectMapper()), legacyReadEnabled);
+        redisTemplate.setValueSerializer(valueSerializer);
+        redisTemplate.setHashValueSerializer(valueSerializer);
+
+        return redisTemplate;
+    }
+
+    // 이전 형식(모든 값에 타입 정보 포함)의 Jackson 설정
+    public static ObjectMapper legacyObjectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-        // 타입 정보 활성화 (대체 방법)
         objectMapper.activateDefaultTyping(
                 objectMapper.getPolymorphicTypeValidator(),
                 ObjectMapper.DefaultTyping.EVERYTHING,
                 JsonTypeInfo.As.PROPERTY
         );
-
-        // Key와 HashKey 직렬화
-        redisTemplate.setKeySerializer(new StringRedisSerializer());
-        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
-
-        // Value와 HashValue 직렬화
-        redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer(objectMapper));
-        redisTemplate.setHashValueSerializer(new GenericJackson2JsonRedisSerializer(objectMapper));
-
-        return redisTemplate;
+        return objectMapper;
     }
 
     @Bean
@@ -67,10 +71,8 @@ public class RedisConfig {
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
 
-        // 패턴 토픽 구독 및 로깅 추가
-        container.addMessageListener(redisSubscriber::onMessage, new PatternTopic("chatroom.*"));
-        System.out.println("Subscribed to chatroom.*");
-
+        // 채널(chatroom.{roomId}, chatuser.{userId}) 구독은 이 노드의 STOMP 구독에 따라
+        // RedisChannelSubscriptionManager 가 추가 / 해지
         return container;
     }
 }
@@ -1,11 +1,13 @@
 package com.example.chating.global.config;
 
 import com.example.chating.global.TokenProvider;
+import io.jsonwebtoken.Claims;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -19,18 +21,31 @@ public class StompAuthenticationInterceptor implements ChannelInterceptor {
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
-        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        // 세션에 사용자를 설정하려면 메시지의 (변경 가능한) accessor 를 사용해야 함
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
 
+        if (accessor == null) {
+            return message;
+        }
         if (StompCommand.CONNECT.equals(accessor.getCommand())) {
             String token = accessor.getFirstNativeHeader("Authorization");
-            // JWT 인증 로직
+            if (token == null) {
+                throw new IllegalArgumentException("Missing Token");
+            }
+            if (token.startsWith("Bearer ")) {
+                token = token.substring(7); // "Bearer " 제거
+            }
+            // JWT 인증 로직 (세션당 한 번, 이후 프레임은 세션에 저장된 사용자를 사용)
             if (tokenProvider.isValidToken(token)) {
-                String username = tokenProvider.extractUsernameFromToken(token);
-                Long userId = tokenProvider.extractUserIdFromToken(token);
-                accessor.setUser(new AuthenticatedUser(username, userId));  // 인증된 사용자 설정
+                Claims claims = tokenProvider.extractClaims(token); // 검증 캐시에서 조회
+                accessor.setUser(new AuthenticatedUser(claims.getSubject(), claims.get("userId", Long.class)));  // 인증된 사용자 설정
             } else {
                 throw new IllegalArgumentException("Invalid Token");
             }
+        } else if ((StompCommand.SUBSCRIBE.equals(accessor.getCommand()) || StompCommand.SEND.equals(accessor.getCommand()))
+                && accessor.getUser() == null) {
+            // 인증된 사용자가 없는 세션의 구독 / 전송 거부
+            throw new IllegalArgumentException("Unauthenticated Session");
         }
         return message;
     }
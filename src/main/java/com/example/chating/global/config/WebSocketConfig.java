@@ -1,6 +1,14 @@
 package com.example.chating.global.config;
 
+import com.example.chating.global.metrics.ChannelMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.config.ChannelRegistration;
@@ -8,18 +16,101 @@ import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthenticationInterceptor stompAuthenticationInterceptor;
+    private final MeterRegistry meterRegistry;
+    private final OutboundBackpressureInterceptor outboundBackpressureInterceptor;
+    private final PresenceInboundInterceptor presenceInboundInterceptor;
+
+    // STOMP heart-beat 전송 / 확인용 (메시지 브로커가 만드는 스케줄러)
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    // 서버 / 클라이언트 heart-beat 간격 (클라이언트의 heart-beat 도 접속 상태 TTL 을 연장)
+    @Value("${chat.websocket.heartbeat-ms:10000}")
+    private long heartbeatMillis;
+
+    // true: STOMP 인바운드 / 아웃바운드 채널도 가상 스레드에서 처리 (웹 요청은 Spring Boot 가 같은 설정으로 전환)
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    // 프레임 하나를 보내는 데 걸릴 수 있는 최대 시간 / 세션별 전송 대기 버퍼 최대 크기 (넘으면 연결 종료)
+    @Value("${chat.websocket.outbound.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${chat.websocket.outbound.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    // 가상 스레드 모드에서 인바운드 채널이 동시에 처리할 최대 메시지 수 (기본값: DB 커넥션 풀 크기)
+    // 넘으면 프레임을 받은 스레드가 대기 (-1 이면 제한 없음: 메시지가 커넥션 풀에서 대기하다 connection-timeout 뒤 실패)
+    @Value("${chat.websocket.virtual-threads.concurrency-limit:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int virtualThreadConcurrencyLimit;
+
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler taskScheduler) {
+        this.messageBrokerTaskScheduler = taskScheduler;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic"); // 메시지 브로커
+        config.enableSimpleBroker("/topic", "/queue") // 메시지 브로커 (/queue: 사용자별 메시지)
+                .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                .setTaskScheduler(messageBrokerTaskScheduler);
         config.setApplicationDestinationPrefixes("/app"); // 클라이언트 요청 prefix
+        config.setUserDestinationPrefix("/user"); // 사용자 목적지 prefix (/user/queue/rooms)
+        if (virtualThreadsEnabled) {
+            // 메시지마다 다른 가상 스레드에서 처리하므로 세션별 받은 / 보내는 프레임 순서를 따로 유지
+            config.setPreserveReceiveOrder(true);
+            config.setPreservePublishOrder(true);
+        }
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(
+                stompAuthenticationInterceptor, // CONNECT 시 JWT 로 사용자 설정
+                presenceInboundInterceptor, // 받은 프레임마다 접속 상태 TTL 연장 (TTL 의 1/3 간격으로만 Redis 반영)
+                new ChannelMetricsInterceptor(meterRegistry, "inbound")
+        );
+        if (virtualThreadsEnabled) {
+            // 메시지 처리(saveMessage 등)는 대부분 MySQL / Redis 대기이므로 고정 크기 스레드 풀 대신 메시지마다 가상 스레드 사용
+            registration.executor(virtualThreadExecutor("stomp-inbound-", virtualThreadConcurrencyLimit));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(
+                outboundBackpressureInterceptor, // 느린 세션: 낮은 우선순위 목적지 합치기, 반복되면 연결 종료
+                new ChannelMetricsInterceptor(meterRegistry, "outbound")
+        );
+        if (virtualThreadsEnabled) {
+            // 전송은 DB 를 쓰지 않으므로 동시 처리 수를 제한하지 않음 (세션별 전송 대기는 send-buffer-size-limit 으로 제한)
+            registration.executor(virtualThreadExecutor("stomp-outbound-", SimpleAsyncTaskExecutor.UNBOUNDED_CONCURRENCY));
+        }
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMillis);
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit);
+        registration.addDecoratorFactory(outboundBackpressureInterceptor::decorate);
+    }
+
+    private static SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        return executor;
     }
 
     @Override
@@ -0,0 +1,63 @@
+package com.example.chating.global.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * STOMP 채널(clientInbound / clientOutbound)의 대기 중인 처리 수와 처리 중인 스레드 수
+ * - executor 종류(스레드 풀 / 가상 스레드)와 관계없이 채널 인터셉터로 집계합니다.
+ * - 메시지 하나는 채널 구독 handler 수만큼 executor 작업이 되므로 구독 handler 수 단위로 셉니다.
+ */
+public class ChannelMetricsInterceptor implements ExecutorChannelInterceptor {
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+
+    public ChannelMetricsInterceptor(MeterRegistry meterRegistry, String channel) {
+        Gauge.builder("chat.stomp.channel.queued", queued, AtomicInteger::get)
+                .description("Handler tasks waiting for an executor thread")
+                .tag("channel", channel)
+                .register(meterRegistry);
+        Gauge.builder("chat.stomp.channel.active", active, AtomicInteger::get)
+                .description("Handler tasks currently running")
+                .tag("channel", channel)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        queued.addAndGet(handlerCount(channel));
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (!sent) {
+            // executor 에 넘기지 못한 경우 (거절 등)
+            queued.addAndGet(-handlerCount(channel));
+        }
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        queued.decrementAndGet();
+        active.incrementAndGet();
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        active.decrementAndGet();
+    }
+
+    private static int handlerCount(MessageChannel channel) {
+        return channel instanceof AbstractSubscribableChannel subscribable ? subscribable.getSubscribers().size() : 1;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.chating.global.metrics;
+
+import com.example.chating.Redis.RedisChannelSubscriptionManager;
+import com.example.chating.Service.ChatBroadcastService;
+import com.example.chating.Service.ChatRoomPurgeService;
+import com.example.chating.Service.EntityCacheService;
+import com.example.chating.Service.MessageCacheService;
+import com.example.chating.Service.MessageSearchIndexer;
+import com.example.chating.Service.MessageWriteBehindService;
+import com.example.chating.Service.PresenceService;
+import com.example.chating.Service.TypingService;
+import com.example.chating.global.TokenProvider;
+import com.example.chating.global.config.OutboundBackpressureInterceptor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 각 서비스가 직접 집계하던 지표(LongAdder / 게이지 getter)를 Micrometer 에 연결합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatMetricsBinder implements MeterBinder {
+
+    private final MessageWriteBehindService messageWriteBehindService;
+    private final MessageCacheService messageCacheService;
+    private final ChatBroadcastService chatBroadcastService;
+    private final RedisChannelSubscriptionManager redisChannelSubscriptionManager;
+    private final EntityCacheService entityCacheService;
+    private final TokenProvider tokenProvider;
+    private final ChatRoomPurgeService chatRoomPurgeService;
+    private final MessageSearchIndexer messageSearchIndexer;
+    private final PresenceService presenceService;
+    private final TypingService typingService;
+    private final OutboundBackpressureInterceptor outboundBackpressureInterceptor;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // 메시지 write-behind
+        Gauge.builder("chat.message.write_behind.queue.depth", messageWriteBehindService, MessageWriteBehindService::getQueueDepth)
+                .register(registry);
+        FunctionCounter.builder("chat.message.write_behind.batches", messageWriteBehindService, MessageWriteBehindService::getFlushedBatches)
+                .register(registry);
+        FunctionCounter.builder("chat.message.write_behind.messages", messageWriteBehindService, MessageWriteBehindService::getFlushedMessages)
+                .tag("result", "flushed")
+                .register(registry);
+        FunctionCounter.builder("chat.message.write_behind.messages", messageWriteBehindService, MessageWriteBehindService::getFailedMessages)
+                .tag("result", "failed")
+                .register(registry);
+        FunctionCounter.builder("chat.message.write_behind.messages", messageWriteBehindService, MessageWriteBehindService::getLostMessages)
+                .tag("result", "lost")
+                .register(registry);
+        FunctionCounter.builder("chat.message.write_behind.rejected", messageWriteBehindService, MessageWriteBehindService::getRejectedOffers)
+                .register(registry);
+        Gauge.builder("chat.message.write_behind.lag", messageWriteBehindService, MessageWriteBehindService::getLastLagMillis)
+                .baseUnit("milliseconds")
+                .register(registry);
+
+        // 삭제된 채팅방 정리
+        Gauge.builder("chat.room.purge.pending", chatRoomPurgeService, ChatRoomPurgeService::getPendingRooms)
+                .register(registry);
+        FunctionCounter.builder("chat.room.purge.rooms", chatRoomPurgeService, ChatRoomPurgeService::getPurgedRooms)
+                .tag("result", "purged")
+                .register(registry);
+        FunctionCounter.builder("chat.room.purge.rooms", chatRoomPurgeService, ChatRoomPurgeService::getFailedRooms)
+                .tag("result", "failed")
+                .register(registry);
+        FunctionCounter.builder("chat.room.purge.messages", chatRoomPurgeService, ChatRoomPurgeService::getPurgedMessages)
+                .register(registry);
+
+        // 검색 색인
+        Gauge.builder("chat.search.index.queue.depth", messageSearchIndexer, MessageSearchIndexer::getQueueDepth)
+                .register(registry);
+        FunctionCounter.builder("chat.search.index.messages", messageSearchIndexer, MessageSearchIndexer::getIndexedMessages)
+                .tag("result", "indexed")
+                .register(registry);
+        FunctionCounter.builder("chat.search.index.messages", messageSearchIndexer, MessageSearchIndexer::getDroppedMessages)
+                .tag("result", "dropped")
+                .register(registry);
+
+        // 접속 상태
+        Gauge.builder("chat.presence.sessions", presenceService, PresenceService::getLocalSessions)
+                .register(registry);
+        FunctionCounter.builder("chat.presence.updates", presenceService, PresenceService::getBroadcastUpdates)
+                .register(registry);
+
+        // 입력 중 표시
+        FunctionCounter.builder("chat.typing.requests", typingService, TypingService::getAccepted)
+                .tag("result", "accepted")
+                .register(registry);
+        FunctionCounter.builder("chat.typing.requests", typingService, TypingService::getThrottled)
+                .tag("result", "throttled")
+                .register(registry);
+        FunctionCounter.builder("chat.typing.updates", typingService, TypingService::getBroadcastUpdates)
+                .register(registry);
+
+        // 느린 세션 아웃바운드 정책
+        Gauge.builder("chat.websocket.outbound.held", outboundBackpressureInterceptor, OutboundBackpressureInterceptor::getHeldFrames)
+                .register(registry);
+        FunctionCounter.builder("chat.websocket.outbound.frames", outboundBackpressureInterceptor, OutboundBackpressureInterceptor::getCoalescedFrames)
+                .tag("policy", "coalesce")
+                .register(registry);
+        FunctionCounter.builder("chat.websocket.outbound.frames", outboundBackpressureInterceptor, OutboundBackpressureInterceptor::getDroppedFrames)
+                .tag("policy", "drop")
+                .register(registry);
+        FunctionCounter.builder("chat.websocket.outbound.evictions", outboundBackpressureInterceptor, OutboundBackpressureInterceptor::getSlowSendEvictions)
+                .tag("reason", "slow-send")
+                .register(registry);
+        FunctionCounter.builder("chat.websocket.outbound.evictions", outboundBackpressureInterceptor, OutboundBackpressureInterceptor::getBacklogEvictions)
+                .tag("reason", "backlog")
+                .register(registry);
+
+        // 최근 메시지 캐시
+        FunctionCounter.builder("chat.cache.requests", messageCacheService, MessageCacheService::getRecentCacheHits)
+                .tag("cache", "recent-messages").tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("chat.cache.requests", messageCacheService, MessageCacheService::getRecentCacheMisses)
+                .tag("cache", "recent-messages").tag("result", "miss")
+                .register(registry);
+
+        // 사용자 / 채팅방 로컬 캐시
+        FunctionCounter.builder("chat.cache.requests", entityCacheService, EntityCacheService::getHits)
+                .tag("cache", "entity").tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("chat.cache.requests", entityCacheService, EntityCacheService::getMisses)
+                .tag("cache", "entity").tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("chat.cache.evictions", entityCacheService, EntityCacheService::getEvictions)
+                .tag("cache", "entity")
+                .register(registry);
+        FunctionCounter.builder("chat.cache.remote_invalidations", entityCacheService, EntityCacheService::getRemoteInvalidations)
+                .tag("cache", "entity")
+                .register(registry);
+
+        // JWT 검증 캐시
+        FunctionCounter.builder("chat.cache.requests", tokenProvider, TokenProvider::getVerifiedTokenHits)
+                .tag("cache", "verified-token").tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("chat.cache.requests", tokenProvider, TokenProvider::getVerifiedTokenMisses)
+                .tag("cache", "verified-token").tag("result", "miss")
+                .register(registry);
+
+        // 채팅방 메시지 묶음 전송 (frames 대비 messages 가 클수록 묶음 효과가 큼)
+        FunctionCounter.builder("chat.broadcast.batch.frames", chatBroadcastService, ChatBroadcastService::getBatchedFrames)
+                .register(registry);
+        FunctionCounter.builder("chat.broadcast.batch.messages", chatBroadcastService, ChatBroadcastService::getBatchedMessages)
+                .register(registry);
+
+        // 클러스터 전달 / Redis 채널 구독
+        FunctionCounter.builder("chat.cluster.messages", chatBroadcastService, ChatBroadcastService::getPublished)
+                .tag("result", "published")
+                .register(registry);
+        FunctionCounter.builder("chat.cluster.messages", chatBroadcastService, ChatBroadcastService::getDelivered)
+                .tag("result", "delivered")
+                .register(registry);
+        FunctionCounter.builder("chat.cluster.messages", chatBroadcastService, ChatBroadcastService::getSkippedOwn)
+                .tag("result", "skipped-own")
+                .register(registry);
+        Gauge.builder("chat.cluster.redis.channels", redisChannelSubscriptionManager, RedisChannelSubscriptionManager::getSubscribedChannels)
+                .register(registry);
+        FunctionCounter.builder("chat.cluster.redis.subscribes", redisChannelSubscriptionManager, RedisChannelSubscriptionManager::getRedisSubscribes)
+                .register(registry);
+        FunctionCounter.builder("chat.cluster.redis.unsubscribes", redisChannelSubscriptionManager, RedisChannelSubscriptionManager::getRedisUnsubscribes)
+                .register(registry);
+    }
+}
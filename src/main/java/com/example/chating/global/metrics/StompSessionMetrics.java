@@ -0,0 +1,118 @@
+package com.example.chating.global.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 이 노드의 STOMP 세션 / 구독 수
+ * - 구독 수는 목적지 prefix(/topic, /user/queue, /queue, other) 별로만 집계합니다. (채팅방 ID 를 태그로 쓰지 않음)
+ * - 목적지별 구독자 수는 지표로 내보내지 않고 전송 fan-out 크기 계산에만 사용합니다.
+ */
+@Component
+public class StompSessionMetrics {
+
+    private static final List<String> PREFIXES = List.of("/topic", "/user/queue", "/queue");
+    private static final String OTHER_PREFIX = "other";
+
+    // 세션 ID -> (구독 ID -> 목적지)
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> subscriptionsByPrefix = new LinkedHashMap<>();
+    private final Map<String, AtomicInteger> subscribersByDestination = new ConcurrentHashMap<>();
+
+    public StompSessionMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("chat.stomp.sessions", sessions, Map::size)
+                .description("Open STOMP sessions on this node")
+                .register(meterRegistry);
+        for (String prefix : PREFIXES) {
+            subscriptionsByPrefix.put(prefix, new AtomicInteger());
+        }
+        subscriptionsByPrefix.put(OTHER_PREFIX, new AtomicInteger());
+        subscriptionsByPrefix.forEach((prefix, count) -> Gauge.builder("chat.stomp.subscriptions", count, AtomicInteger::get)
+                .description("STOMP subscriptions on this node by destination prefix")
+                .tag("prefix", prefix)
+                .register(meterRegistry));
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        if (sessionId != null) {
+            sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>());
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String sessionId = accessor.getSessionId();
+        String destination = accessor.getDestination();
+        if (sessionId == null || accessor.getSubscriptionId() == null || destination == null) {
+            return;
+        }
+        String previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), destination);
+        if (previous != null) {
+            removeSubscription(previous);
+        }
+        subscriptionsByPrefix.get(toPrefix(destination)).incrementAndGet();
+        subscribersByDestination.computeIfAbsent(destination, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = accessor.getSessionId() != null ? sessions.get(accessor.getSessionId()) : null;
+        if (subscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String destination = subscriptions.remove(accessor.getSubscriptionId());
+        if (destination != null) {
+            removeSubscription(destination);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = event.getSessionId() != null ? sessions.remove(event.getSessionId()) : null;
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::removeSubscription);
+        }
+    }
+
+    // 이 노드에서 목적지를 구독 중인 수 (fan-out 크기)
+    public int getLocalSubscribers(String destination) {
+        AtomicInteger count = subscribersByDestination.get(destination);
+        return count != null ? count.get() : 0;
+    }
+
+    public int getOpenSessions() {
+        return sessions.size();
+    }
+
+    private void removeSubscription(String destination) {
+        subscriptionsByPrefix.get(toPrefix(destination)).decrementAndGet();
+        subscribersByDestination.computeIfPresent(destination, (key, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    static String toPrefix(String destination) {
+        for (String prefix : PREFIXES) {
+            if (destination.startsWith(prefix + "/")) {
+                return prefix;
+            }
+        }
+        return OTHER_PREFIX;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.chating.global.migration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+/**
+ * Message.readByUsers(ManyToMany) -> UserChatRoom.lastReadMessageId(읽음 워터마크) 마이그레이션
+ * 1. (항상, 요청을 받기 전) 더 이상 매핑되지 않는 message.is_read / read_by_users_count 컬럼이 남아 있으면
+ *    기본값을 지정해 새 메시지 INSERT 가 실패하지 않게 합니다.
+ * 2. message_read_by_users 테이블이 남아 있으면 (채팅방, 사용자)별 마지막으로 읽은 메시지 ID 로 워터마크를 채웁니다.
+ * 3. chat.migration.read-watermark.drop-legacy=true 이면 조인 테이블과 두 컬럼을 삭제합니다.
+ * 2, 3 은 일회성 작업이므로 chat.migration.read-watermark.enabled=true 로 (이전 스키마에서 처음 배포할 때) 한 번 실행한 뒤 다시 끕니다.
+ * 모든 단계는 여러 번 실행해도 안전합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReadWatermarkMigration implements ApplicationRunner {
+
+    private static final String LEGACY_JOIN_TABLE = "message_read_by_users";
+    private static final String[] LEGACY_COLUMNS = {"is_read", "read_by_users_count"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${chat.migration.read-watermark.enabled:false}")
+    private boolean enabled;
+
+    @Value("${chat.migration.read-watermark.drop-legacy:false}")
+    private boolean dropLegacy;
+
+    // 웹 서버가 요청을 받기 전(빈 초기화 중)에 실행, 설정과 관계없이 항상 (ALTER ... SET DEFAULT 는 여러 번 실행해도 안전)
+    @PostConstruct
+    public void setLegacyColumnDefaults() {
+        for (String column : LEGACY_COLUMNS) {
+            if (columnExists("message", column)) {
+                jdbcTemplate.execute("ALTER TABLE message ALTER COLUMN " + column + " SET DEFAULT 0");
+            }
+        }
+    }
+
+    // 백필은 스키마(user_chat_room.last_read_message_id)가 준비된 뒤 실행
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        if (tableExists(LEGACY_JOIN_TABLE)) {
+            int updated = jdbcTemplate.update(
+                    "UPDATE user_chat_room ucr " +
+                    "JOIN (SELECT m.chatroom_id AS chatroom_id, r.read_by_users_id AS user_id, MAX(m.id) AS last_read " +
+                    "      FROM message_read_by_users r JOIN message m ON m.id = r.message_id " +
+                    "      GROUP BY m.chatroom_id, r.read_by_users_id) x " +
+                    "  ON x.chatroom_id = ucr.chatroom_id AND x.user_id = ucr.user_id " +
+                    "SET ucr.last_read_message_id = x.last_read " +
+                    "WHERE ucr.last_read_message_id IS NULL OR ucr.last_read_message_id < x.last_read");
+            log.info("Backfilled {} read watermarks from {}", updated, LEGACY_JOIN_TABLE);
+
+            if (dropLegacy) {
+                jdbcTemplate.execute("DROP TABLE " + LEGACY_JOIN_TABLE);
+                log.info("Dropped legacy table {}", LEGACY_JOIN_TABLE);
+            }
+        }
+
+        if (!dropLegacy) {
+            return;
+        }
+        for (String column : LEGACY_COLUMNS) {
+            if (columnExists("message", column)) {
+                jdbcTemplate.execute("ALTER TABLE message DROP COLUMN " + column);
+                log.info("Dropped legacy column message.{}", column);
+            }
+        }
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, table, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        }));
+    }
+
+    private boolean columnExists(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, table, column)) {
+                return columns.next();
+            }
+        }));
+    }
+}
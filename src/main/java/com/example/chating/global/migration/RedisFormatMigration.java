@@ -0,0 +1,138 @@
+package com.example.chating.global.migration;
+
+import com.example.chating.Redis.CompactRedisSerializer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Redis 값 형식 변환 (타입 정보 포함 JSON -> CompactRedisSerializer 형식)
+ * - 시작 시 요청을 받기 전에 형식 표시 키(chat:redis:format)를 확인하고, 없으면 (이전 형식이 남아 있을 수 있는 Redis)
+ *   chatrooms Hash, chatroom:{id}:latestMessage, user:{id}:chatrooms / chatroom:{id}:users Set,
+ *   user:{id}:rooms:activity ZSet 을 이전 형식으로 읽어 새 형식으로 다시 쓴 뒤 표시합니다.
+ *   chatroom:{id}:recentMessages 는 다시 쓰지 않고 삭제합니다. (다음 조회 시 DB 에서 다시 채움)
+ * - 값 직렬화기는 확인이 끝날 때까지 이전 형식 읽기를 켜 두고, 끝나면 chat.redis.legacy-read.enabled 값(기본값 false)으로 바꿉니다.
+ * - 이전 버전 노드가 남아 있는 롤링 배포 중에는 chat.redis.legacy-read.enabled=true 로 배포하고, 이전 노드가 모두 내려간 뒤
+ *   chat.migration.redis-format.enabled=true 로 한 번 더 변환한 다음 두 설정을 끕니다.
+ * - 여러 노드가 동시에 실행하거나 여러 번 실행해도 결과는 같습니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisFormatMigration {
+
+    static final String FORMAT_KEY = "chat:redis:format";
+    static final String FORMAT_COMPACT = "compact";
+
+    private static final String CHAT_ROOMS_KEY = "chatrooms";
+    private static final String LATEST_MESSAGE_PATTERN = "chatroom:*:latestMessage";
+    private static final String RECENT_MESSAGES_PATTERN = "chatroom:*:recentMessages*";
+    private static final String USER_CHAT_ROOMS_PATTERN = "user:*:chatrooms";
+    private static final String CHAT_ROOM_USERS_PATTERN = "chatroom:*:users";
+    private static final String USER_ROOMS_ACTIVITY_PATTERN = "user:*:rooms:activity";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    // true: 형식 표시가 있어도 다시 변환 (롤링 배포 중 이전 노드가 쓴 값 정리)
+    @Value("${chat.migration.redis-format.enabled:false}")
+    private boolean force;
+
+    @Value("${chat.redis.legacy-read.enabled:false}")
+    private boolean legacyReadEnabled;
+
+    // 웹 서버가 요청을 받기 전(빈 초기화 중)에 실행
+    @PostConstruct
+    public void migrate() {
+        CompactRedisSerializer serializer = (CompactRedisSerializer) redisTemplate.getValueSerializer();
+        if (force || !FORMAT_COMPACT.equals(redisTemplate.opsForValue().get(FORMAT_KEY))) {
+            serializer.setLegacyReadEnabled(true);
+            rewrite();
+            redisTemplate.opsForValue().set(FORMAT_KEY, FORMAT_COMPACT);
+        }
+        serializer.setLegacyReadEnabled(legacyReadEnabled);
+    }
+
+    private void rewrite() {
+        // 채팅방 정보 Hash: 값을 읽어 그대로 다시 씀 (HSET 은 덮어쓰기)
+        Map<Object, Object> chatRooms = redisTemplate.opsForHash().entries(CHAT_ROOMS_KEY);
+        if (!chatRooms.isEmpty()) {
+            redisTemplate.opsForHash().putAll(CHAT_ROOMS_KEY, chatRooms);
+        }
+
+        long latestMessages = scan(LATEST_MESSAGE_PATTERN, key -> {
+            Object value = redisTemplate.opsForValue().get(key);
+            if (value != null) {
+                redisTemplate.opsForValue().set(key, value);
+            }
+        });
+
+        long sets = scan(USER_CHAT_ROOMS_PATTERN, this::rewriteSet) + scan(CHAT_ROOM_USERS_PATTERN, this::rewriteSet);
+        long zsets = scan(USER_ROOMS_ACTIVITY_PATTERN, this::rewriteZSet);
+        long recentMessages = scan(RECENT_MESSAGES_PATTERN, redisTemplate::delete);
+
+        log.info("Migrated Redis values: {} chat rooms, {} latest messages, {} sets, {} activity indexes, {} recent message keys deleted",
+                chatRooms.size(), latestMessages, sets, zsets, recentMessages);
+    }
+
+    private long scan(String pattern, Consumer<String> action) {
+        // 처리 중 키를 다시 쓰므로 먼저 키 목록을 모은 뒤 처리
+        List<String> keys = new ArrayList<>();
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(pattern).count(500).build())) {
+            cursor.forEachRemaining(keys::add);
+        }
+        keys.forEach(action);
+        return keys.size();
+    }
+
+    // Set 은 같은 값이라도 형식이 다르면 다른 멤버이므로 MULTI 안에서 삭제 후 다시 추가
+    private void rewriteSet(String key) {
+        Set<Object> members = redisTemplate.opsForSet().members(key);
+        if (members == null || members.isEmpty()) {
+            return;
+        }
+        redisTemplate.execute(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.multi();
+                ops.delete(key);
+                ops.opsForSet().add(key, members.toArray());
+                return ops.exec();
+            }
+        });
+    }
+
+    private void rewriteZSet(String key) {
+        Set<ZSetOperations.TypedTuple<Object>> tuples = redisTemplate.opsForZSet().rangeWithScores(key, 0, -1);
+        if (tuples == null || tuples.isEmpty()) {
+            return;
+        }
+        redisTemplate.execute(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.multi();
+                ops.delete(key);
+                ops.opsForZSet().add(key, tuples);
+                return ops.exec();
+            }
+        });
+    }
+}
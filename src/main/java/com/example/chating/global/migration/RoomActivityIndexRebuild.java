@@ -0,0 +1,61 @@
+package com.example.chating.global.migration;
+
+import com.example.chating.Repository.UserChatRoomRepository;
+import com.example.chating.Service.RoomActivityIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 전역 chatroom:activity ZSet -> 사용자별 user:{id}:rooms:activity ZSet 일회성 재생성
+ * - UserChatRoom 과 채팅방별 마지막 메시지 시각으로 채팅방에 참여 중인 모든 사용자의 인덱스를 배치 단위로 다시 만듭니다.
+ * - 더 이상 사용하지 않는 전역 chatroom:activity 키를 삭제합니다.
+ * - chat.migration.room-activity-index.enabled=true 로 한 번 실행합니다. 여러 번 실행해도 안전합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomActivityIndexRebuild implements ApplicationRunner {
+
+    private static final String LEGACY_ACTIVITY_KEY = "chatroom:activity";
+
+    private final UserChatRoomRepository userChatRoomRepository;
+    private final RoomActivityIndexService roomActivityIndexService;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${chat.migration.room-activity-index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${chat.migration.room-activity-index.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        long users = 0;
+        long rooms = 0;
+        Long afterUserId = 0L;
+        while (true) {
+            List<Long> userIds = userChatRoomRepository.findMemberUserIdsAfter(afterUserId, PageRequest.of(0, batchSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            rooms += roomActivityIndexService.rebuild(userIds);
+            users += userIds.size();
+            afterUserId = userIds.get(userIds.size() - 1);
+        }
+
+        redisTemplate.delete(LEGACY_ACTIVITY_KEY);
+        log.info("Rebuilt room activity index for {} users ({} rooms)", users, rooms);
+    }
+}
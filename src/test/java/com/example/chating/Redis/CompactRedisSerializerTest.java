@@ -0,0 +1,118 @@
+package com.example.chating.Redis;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.domain.MessageType;
+import com.example.chating.domain.chat.ChatRoom;
+import com.example.chating.global.config.RedisConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer legacy =
+            new GenericJackson2JsonRedisSerializer(RedisConfig.legacyObjectMapper());
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer(legacy, true);
+
+    @Test
+    void roundTripsCachedEntities() {
+        ChatRoom chatRoom = chatRoom();
+        ChatMessage message = chatMessage();
+
+        ChatRoom decodedRoom = (ChatRoom) serializer.deserialize(serializer.serialize(chatRoom));
+        assertEquals(chatRoom.toString(), decodedRoom.toString());
+        assertEquals(message, serializer.deserialize(serializer.serialize(message)));
+
+        // null 필드
+        ChatMessage empty = new ChatMessage();
+        assertEquals(empty, serializer.deserialize(serializer.serialize(empty)));
+        ChatRoom emptyRoom = (ChatRoom) serializer.deserialize(serializer.serialize(new ChatRoom()));
+        assertNull(emptyRoom.getId());
+        assertNull(emptyRoom.getCreatedAt());
+    }
+
+    @Test
+    void writesIdsAndStringsWithoutTypeInformation() {
+        assertEquals("123456789012", new String(serializer.serialize(123456789012L)));
+        assertEquals("hello", new String(serializer.serialize("hello")));
+        assertEquals("123456789012", serializer.deserialize(serializer.serialize(123456789012L)));
+        assertEquals("{not json", serializer.deserialize(serializer.serialize("{not json")));
+        assertNull(serializer.deserialize(serializer.serialize(null)));
+        assertThrows(SerializationException.class, () -> serializer.serialize(List.of(1)));
+    }
+
+    @Test
+    void readsLegacyValues() {
+        assertEquals(42L, serializer.deserialize(legacy.serialize(42L)));
+        assertEquals("latest message", serializer.deserialize(legacy.serialize("latest message")));
+        assertEquals(chatMessage(), serializer.deserialize(legacy.serialize(chatMessage())));
+        assertInstanceOf(ChatRoom.class, serializer.deserialize(legacy.serialize(chatRoom())));
+        assertEquals(4, serializer.getLegacyReads());
+
+        // 이전 형식 읽기를 끄면 원본 문자열 그대로
+        CompactRedisSerializer strict = new CompactRedisSerializer(legacy, false);
+        assertEquals("[\"java.lang.Long\",42]", strict.deserialize(legacy.serialize(42L)));
+    }
+
+    @Test
+    void keepsJsonLookingStringsWhenLegacyReadIsOff() {
+        CompactRedisSerializer strict = new CompactRedisSerializer(legacy, false);
+        for (String preview : List.of("\"quoted\"", "[\"java.lang.Long\",42]", "{\"a\":1}")) {
+            assertEquals(preview, strict.deserialize(strict.serialize(preview)));
+        }
+        assertEquals(0, strict.getLegacyReads());
+    }
+
+    @Test
+    void parsesLegacyAndCompactIds() {
+        CompactRedisSerializer strict = new CompactRedisSerializer(legacy, false);
+        assertEquals(42L, CompactRedisSerializer.toId(strict.deserialize(strict.serialize(42L))));
+        // 이전 형식 읽기를 끈 뒤에도 변환되지 않은 ID 는 그대로 읽음
+        assertEquals(42L, CompactRedisSerializer.toId(strict.deserialize(legacy.serialize(42L))));
+        assertEquals(-7L, CompactRedisSerializer.toId("[\"java.lang.Integer\",-7]"));
+        assertEquals(42L, CompactRedisSerializer.toId(42));
+        assertNull(CompactRedisSerializer.toId("\"quoted\""));
+        assertNull(CompactRedisSerializer.toId(null));
+    }
+
+    @Test
+    void switchesLegacyReadAtRuntime() {
+        CompactRedisSerializer switchable = new CompactRedisSerializer(legacy, true);
+        assertEquals("latest message", switchable.deserialize(legacy.serialize("latest message")));
+
+        switchable.setLegacyReadEnabled(false);
+        assertEquals("\"latest message\"", switchable.deserialize(legacy.serialize("latest message")));
+    }
+
+    // 직렬화 / 역직렬화 시간 비교는 ChatMessageCodecBenchmark (실행: ./gradlew jmh)
+    @Test
+    void compactValuesAreSmallerThanLegacy() {
+        for (Object value : List.of(123456789012345L, "latest message preview", chatRoom(), chatMessage())) {
+            assertTrue(serializer.serialize(value).length < legacy.serialize(value).length,
+                    value.getClass().getSimpleName());
+        }
+    }
+
+    private static ChatRoom chatRoom() {
+        return ChatRoom.builder()
+                .id(123456789012345L)
+                .name("스터디 채팅방")
+                .createdAt(LocalDateTime.of(2025, 1, 2, 3, 4, 5, 6_000_000))
+                .updatedAt(LocalDateTime.of(2025, 1, 3, 3, 4, 5))
+                .build();
+    }
+
+    private static ChatMessage chatMessage() {
+        return new ChatMessage(123456789012346L, MessageType.TALK, "123456789012345", 987654321L,
+                "하은", "안녕하세요, 오늘 스터디는 7시에 시작합니다.", LocalDateTime.of(2025, 1, 2, 3, 4, 5, 123_456_789));
+    }
+}
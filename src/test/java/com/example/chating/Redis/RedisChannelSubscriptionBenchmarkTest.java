@@ -0,0 +1,157 @@
+package com.example.chating.Redis;
+
+import com.example.chating.support.EmbeddedRedis;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 노드 4개, 채팅방 200개(각 채팅방 구독자는 1~2개 노드에 분산)에서 채팅방마다 메시지 10개를 발행했을 때
+ * 노드별 Redis 수신 메시지 수를 패턴 구독(chatroom.*)과 관심 채널 구독으로 비교합니다. (임베디드 Redis)
+ * 실행: ./gradlew benchmarkTest
+ */
+@Tag("benchmark")
+class RedisChannelSubscriptionBenchmarkTest {
+
+    private static final int NODES = 4;
+    private static final int ROOMS = 200;
+    private static final int MESSAGES_PER_ROOM = 10;
+
+    @Test
+    void inboundVolumePerNodeForSyntheticTopology() throws Exception {
+        EmbeddedRedis embeddedRedis = EmbeddedRedis.start();
+        LettuceConnectionFactory connectionFactory = embeddedRedis.getConnectionFactory();
+        StringRedisTemplate redis = embeddedRedis.stringRedisTemplate();
+
+        try {
+            long[] patternInbound = run(connectionFactory, redis, false);
+            long[] interestInbound = run(connectionFactory, redis, true);
+
+            System.out.printf("%6s %10s %10s %10s%n", "node", "pattern", "interest", "rooms");
+            for (int node = 0; node < NODES; node++) {
+                long expected = (long) roomsOn(node) * MESSAGES_PER_ROOM;
+                System.out.printf("%6d %10d %10d %10d%n", node, patternInbound[node], interestInbound[node], roomsOn(node));
+                assertEquals((long) ROOMS * MESSAGES_PER_ROOM, patternInbound[node]);
+                assertEquals(expected, interestInbound[node]);
+            }
+        } finally {
+            embeddedRedis.close();
+        }
+    }
+
+    private long[] run(LettuceConnectionFactory connectionFactory, StringRedisTemplate redis, boolean interest) throws Exception {
+        List<RedisMessageListenerContainer> containers = new ArrayList<>();
+        List<RedisChannelSubscriptionManager> managers = new ArrayList<>();
+        AtomicLong[] inbound = new AtomicLong[NODES];
+
+        for (int node = 0; node < NODES; node++) {
+            AtomicLong counter = new AtomicLong();
+            inbound[node] = counter;
+            MessageListener listener = (message, pattern) -> counter.incrementAndGet();
+
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            container.afterPropertiesSet();
+            container.start();
+            containers.add(container);
+
+            if (interest) {
+                RedisChannelSubscriptionManager manager = new RedisChannelSubscriptionManager(container, listener, true, 5_000);
+                managers.add(manager);
+                for (int room = 0; room < ROOMS; room++) {
+                    if (isOn(room, node)) {
+                        manager.subscribe("node-" + node + "-room-" + room, "sub-0", "/topic/" + room, null);
+                    }
+                }
+            } else {
+                container.addMessageListener(listener, new PatternTopic("chatroom.*"));
+            }
+        }
+
+        // 구독이 모두 등록될 때까지 대기한 뒤 지표 초기화
+        for (int room = 0; room < ROOMS; room++) {
+            long expected = interest ? nodesFor(room) : NODES;
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (System.currentTimeMillis() < deadline) {
+                Long receivers = redis.convertAndSend("chatroom." + room, "probe");
+                if (receivers != null && receivers >= expected) {
+                    break;
+                }
+                Thread.sleep(10);
+            }
+        }
+        Thread.sleep(200);
+        for (AtomicLong counter : inbound) {
+            counter.set(0);
+        }
+
+        for (int i = 0; i < MESSAGES_PER_ROOM; i++) {
+            for (int room = 0; room < ROOMS; room++) {
+                redis.convertAndSend("chatroom." + room, "message");
+            }
+        }
+
+        long expectedTotal = 0;
+        for (int room = 0; room < ROOMS; room++) {
+            expectedTotal += (long) (interest ? nodesFor(room) : NODES) * MESSAGES_PER_ROOM;
+        }
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (total(inbound) < expectedTotal && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(200);
+
+        long[] result = new long[NODES];
+        for (int node = 0; node < NODES; node++) {
+            result[node] = inbound[node].get();
+        }
+        managers.forEach(RedisChannelSubscriptionManager::destroy);
+        for (RedisMessageListenerContainer container : containers) {
+            container.destroy();
+        }
+        return result;
+    }
+
+    // 채팅방 구독자가 있는 노드: room % NODES, 3의 배수인 채팅방은 다음 노드에도 구독자가 있음
+    private static boolean isOn(int room, int node) {
+        return room % NODES == node || (room % 3 == 0 && (room + 1) % NODES == node);
+    }
+
+    private static int nodesFor(int room) {
+        int count = 0;
+        for (int node = 0; node < NODES; node++) {
+            if (isOn(room, node)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int roomsOn(int node) {
+        int count = 0;
+        for (int room = 0; room < ROOMS; room++) {
+            if (isOn(room, node)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long total(AtomicLong[] counters) {
+        long total = 0;
+        for (AtomicLong counter : counters) {
+            total += counter.get();
+        }
+        return total;
+    }
+}
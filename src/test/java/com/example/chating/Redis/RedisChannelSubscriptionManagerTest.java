@@ -0,0 +1,57 @@
+package com.example.chating.Redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RedisChannelSubscriptionManagerTest {
+
+    @Test
+    void flappingSubscriptionsAreDebounced() throws Exception {
+        RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+        MessageListener listener = mock(MessageListener.class);
+        RedisChannelSubscriptionManager manager = new RedisChannelSubscriptionManager(container, listener, true, 200);
+
+        // 재연결을 반복하는 클라이언트
+        for (int i = 0; i < 100; i++) {
+            manager.subscribe("session-" + i, "sub-0", "/topic/42", null);
+            manager.disconnect("session-" + i);
+        }
+
+        verify(container, times(1)).addMessageListener(eq(listener), any(ChannelTopic.class));
+        verify(container, times(0)).removeMessageListener(eq(listener), any(ChannelTopic.class));
+        assertEquals(99, manager.getDebouncedUnsubscribes());
+
+        Thread.sleep(500);
+        verify(container, times(1)).removeMessageListener(eq(listener), eq(new ChannelTopic("chatroom.42")));
+        assertEquals(0, manager.getSubscribedChannels());
+        manager.destroy();
+    }
+
+    @Test
+    void referenceCountsAcrossSessionsAndSubscriptions() {
+        RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+        MessageListener listener = mock(MessageListener.class);
+        RedisChannelSubscriptionManager manager = new RedisChannelSubscriptionManager(container, listener, true, 60_000);
+
+        manager.subscribe("s1", "sub-0", "/topic/1", null);
+        manager.subscribe("s2", "sub-0", "/topic/1", null);
+        manager.subscribe("s2", "sub-1", "/user/queue/rooms", () -> "7");
+        manager.subscribe("s2", "sub-2", "/topic/not-a-room", null);
+        assertEquals(2, manager.getSubscribedChannels());
+        assertEquals(2, manager.getRedisSubscribes());
+
+        manager.unsubscribe("s1", "sub-0");
+        manager.disconnect("s2");
+        assertEquals(0, manager.getRedisUnsubscribes()); // debounce 대기 중
+        manager.destroy();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.chating.Repository;
+
+import com.example.chating.Service.MessageExportService;
+import com.example.chating.domain.Emoji;
+import com.example.chating.domain.MessageType;
+import com.example.chating.domain.User;
+import com.example.chating.domain.chat.ChatRoom;
+import com.example.chating.domain.chat.Message;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 실제 MessageRepository.streamForExport (fetch-size / read-only 힌트, H2) 로 많은 행을 스트리밍하고,
+ * 커서(Stream)가 읽기 전용 트랜잭션 안에서 닫히는지 확인합니다.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 내보내기가 직접 트랜잭션을 시작하도록 테스트 트랜잭션 사용 안 함
+class MessageRepositoryExportTest {
+
+    private static final int MESSAGE_COUNT = 5_000;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void streamsAllRowsOfRoomInIdOrderAndClosesCursorInsideTransaction() throws Exception {
+        Long chatRoomId = new TransactionTemplate(transactionManager).execute(status -> insertMessages());
+
+        AtomicReference<Boolean> closedInTransaction = new AtomicReference<>();
+        MessageExportService exportService = new MessageExportService(
+                recordStreamClose(closedInTransaction), new ObjectMapper(), transactionManager);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = exportService.export(chatRoomId, out);
+
+        assertEquals(MESSAGE_COUNT, exported);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(MESSAGE_COUNT, lines.length);
+        ObjectMapper objectMapper = new ObjectMapper();
+        long previousId = 0;
+        for (String line : lines) {
+            JsonNode message = objectMapper.readTree(line);
+            assertTrue(message.get("id").asLong() > previousId);
+            assertEquals(chatRoomId.toString(), message.get("roomId").asText());
+            assertEquals("exporter", message.get("senderName").asText());
+            previousId = message.get("id").asLong();
+        }
+        assertEquals(Boolean.TRUE, closedInTransaction.get());
+        assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+    }
+
+    // 내보낼 채팅방과 다른 채팅방에 메시지 저장 (다른 채팅방의 메시지는 결과에 포함되지 않아야 함)
+    private Long insertMessages() {
+        User sender = User.builder()
+                .name("exporter")
+                .password("exporter")
+                .emoji(Emoji.ETC)
+                .build();
+        entityManager.persist(sender);
+        ChatRoom chatRoom = ChatRoom.builder().name("export").build();
+        ChatRoom otherRoom = ChatRoom.builder().name("other").build();
+        entityManager.persist(chatRoom);
+        entityManager.persist(otherRoom);
+
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            entityManager.persist(message(chatRoom, sender, "message " + i));
+            if (i % 10 == 0) {
+                entityManager.persist(message(otherRoom, sender, "other " + i));
+            }
+            if (i % 1_000 == 999) {
+                entityManager.flush();
+                entityManager.clear();
+                sender = entityManager.getReference(User.class, sender.getId());
+                chatRoom = entityManager.getReference(ChatRoom.class, chatRoom.getId());
+                otherRoom = entityManager.getReference(ChatRoom.class, otherRoom.getId());
+            }
+        }
+        return chatRoom.getId();
+    }
+
+    private static Message message(ChatRoom chatRoom, User sender, String content) {
+        return Message.builder()
+                .chatRoom(chatRoom)
+                .sender(sender)
+                .content(content)
+                .messageType(MessageType.TALK)
+                .sentAt(LocalDateTime.now())
+                .build();
+    }
+
+    // streamForExport 가 반환한 Stream 이 닫힐 때 트랜잭션이 진행 중인지 기록
+    private MessageRepository recordStreamClose(AtomicReference<Boolean> closedInTransaction) {
+        return (MessageRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{MessageRepository.class}, (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(messageRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if ("streamForExport".equals(method.getName())) {
+                        return ((Stream<?>) result).onClose(() ->
+                                closedInTransaction.set(TransactionSynchronizationManager.isActualTransactionActive()));
+                    }
+                    return result;
+                });
+    }
+}
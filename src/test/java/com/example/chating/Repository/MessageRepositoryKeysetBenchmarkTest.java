@@ -0,0 +1,123 @@
+package com.example.chating.Repository;
+
+import com.example.chating.domain.Emoji;
+import com.example.chating.domain.MessageType;
+import com.example.chating.domain.User;
+import com.example.chating.domain.chat.ChatRoom;
+import com.example.chating.domain.chat.Message;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 가장 오래된 페이지 조회 시간을 채팅방 크기별로 비교합니다. (OFFSET + COUNT vs 커서)
+ * 실행: ./gradlew benchmarkTest
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:keyset;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MessageRepositoryKeysetBenchmarkTest {
+
+    private static final int[] ROOM_SIZES = {1_000, 10_000, 50_000};
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void deepPageLatencyByRoomSize() {
+        User sender = User.builder()
+                .name("bench")
+                .password("bench")
+                .emoji(Emoji.ETC)
+                .build();
+        entityManager.persist(sender);
+
+        System.out.printf("%10s %12s %12s%n", "roomSize", "offset(ms)", "keyset(ms)");
+        for (int roomSize : ROOM_SIZES) {
+            ChatRoom chatRoom = ChatRoom.builder().name("room-" + roomSize).build();
+            entityManager.persist(chatRoom);
+            List<Long> ids = insertMessages(chatRoom, sender, roomSize); // 오래된 순
+            Long chatRoomId = chatRoom.getId();
+
+            // 가장 오래된 페이지: 최신순 정렬 기준 마지막 페이지
+            int deepestPage = roomSize / PAGE_SIZE - 1;
+            Long beforeId = ids.get(PAGE_SIZE);
+
+            Supplier<List<Long>> offsetQuery = () -> messageRepository
+                    .findByChatRoomId(chatRoomId, PageRequest.of(deepestPage, PAGE_SIZE, Sort.by("id").descending()))
+                    .map(Message::getId)
+                    .getContent();
+            Supplier<List<Long>> keysetQuery = () -> messageRepository
+                    .findByChatRoomIdBefore(chatRoomId, beforeId, PageRequest.of(0, PAGE_SIZE))
+                    .stream()
+                    .map(Message::getId)
+                    .collect(Collectors.toList());
+
+            assertEquals(offsetQuery.get(), keysetQuery.get());
+
+            System.out.printf("%10d %12.3f %12.3f%n", roomSize, measure(offsetQuery), measure(keysetQuery));
+        }
+    }
+
+    private List<Long> insertMessages(ChatRoom chatRoom, User sender, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Message message = Message.builder()
+                    .chatRoom(chatRoom)
+                    .sender(sender)
+                    .content("message " + i)
+                    .messageType(MessageType.TALK)
+                    .sentAt(LocalDateTime.now())
+                    .build();
+            entityManager.persist(message);
+            ids.add(message.getId());
+            if (i % 1_000 == 999) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    // 평균 실행 시간 (ms)
+    private double measure(Supplier<List<Long>> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get();
+            entityManager.clear();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+            entityManager.clear();
+        }
+        return (System.nanoTime() - start) / 1e6 / ITERATIONS;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.Dto.ChatRoomUpdateDto;
+import com.example.chating.Redis.RedisChannelSubscriptionManager;
+import com.example.chating.domain.MessageType;
+import com.example.chating.support.EmbeddedRedis;
+import com.example.chating.support.TestApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 클러스터 모드: 한 JVM 에서 두 노드(애플리케이션 컨텍스트)를 임베디드 Redis 에 연결해
+ * 한 노드에서 보낸 메시지가 구독자가 있는 각 노드에 정확히 한 번씩 전달되는지 확인합니다.
+ */
+class ChatBroadcastClusterTest {
+
+    private static EmbeddedRedis redis;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startCluster() throws Exception {
+        redis = EmbeddedRedis.start();
+        nodeA = startNode("node-a", 1);
+        nodeB = startNode("node-b", 2);
+    }
+
+    @AfterAll
+    static void stopCluster() throws Exception {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @Test
+    void roomMessageIsDeliveredOncePerNode() throws Exception {
+        List<Delivery> onA = capture(nodeA);
+        List<Delivery> onB = capture(nodeB);
+
+        // 두 노드 모두 채팅방 42 구독자가 있음
+        nodeA.getBean(RedisChannelSubscriptionManager.class).subscribe("a-1", "sub-0", "/topic/42", null);
+        nodeB.getBean(RedisChannelSubscriptionManager.class).subscribe("b-1", "sub-0", "/topic/42", null);
+        awaitRedisSubscribers("chatroom.42", 2);
+
+        ChatMessage message = new ChatMessage(MessageType.TALK, "42", 1L, "sender", "hello", LocalDateTime.now());
+        nodeA.getBean(ChatBroadcastService.class).sendToRoom(42L, message);
+
+        awaitDelivery(onB, "/topic/42");
+        Thread.sleep(300); // 중복 전달이 있다면 도착할 시간
+
+        assertEquals(1, count(onA, "/topic/42"));
+        assertEquals(1, count(onB, "/topic/42"));
+        assertEquals(payload(onA, "/topic/42"), payload(onB, "/topic/42"));
+    }
+
+    @Test
+    void userMessageIsDeliveredOncePerNode() throws Exception {
+        List<Delivery> onA = capture(nodeA);
+        List<Delivery> onB = capture(nodeB);
+
+        Principal user = () -> "7";
+        nodeA.getBean(RedisChannelSubscriptionManager.class).subscribe("a-2", "sub-0", "/user/queue/rooms", user);
+        nodeB.getBean(RedisChannelSubscriptionManager.class).subscribe("b-2", "sub-0", "/user/queue/rooms", user);
+        awaitRedisSubscribers("chatuser.7", 2);
+
+        ChatRoomUpdateDto update = new ChatRoomUpdateDto(42L, 100L, "hello", System.currentTimeMillis(), 3L);
+        nodeB.getBean(ChatBroadcastService.class).sendToUser(7L, "/queue/rooms", update);
+
+        awaitDelivery(onA, "/user/7/queue/rooms");
+        Thread.sleep(300);
+
+        assertEquals(1, count(onA, "/user/7/queue/rooms"));
+        assertEquals(1, count(onB, "/user/7/queue/rooms"));
+        assertEquals(payload(onA, "/user/7/queue/rooms"), payload(onB, "/user/7/queue/rooms"));
+    }
+
+    private static ConfigurableApplicationContext startNode(String name, int nodeId) {
+        return TestApplication.start(name, redis.getPort(),
+                "--chat.id.node-id=" + nodeId,
+                "--chat.cluster.enabled=true");
+    }
+
+    // 노드의 브로커 채널로 전달되는 메시지 기록
+    private static List<Delivery> capture(ConfigurableApplicationContext node) {
+        List<Delivery> deliveries = new CopyOnWriteArrayList<>();
+        AbstractSubscribableChannel brokerChannel = node.getBean("brokerChannel", AbstractSubscribableChannel.class);
+        brokerChannel.subscribe(message -> {
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            Object payload = message.getPayload();
+            String body = payload instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(payload);
+            deliveries.add(new Delivery(destination, body));
+        });
+        return deliveries;
+    }
+
+    // 채널 구독은 비동기로 등록되므로, 확인용 메시지를 발행해 수신 노드 수가 expected 가 될 때까지 대기
+    private static void awaitRedisSubscribers(String channel, long expected) throws InterruptedException {
+        StringRedisTemplate redis = nodeA.getBean(StringRedisTemplate.class);
+        String probe = "{\"origin\":\"probe\",\"destination\":\"/topic/probe\",\"payload\":{}}";
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            Long receivers = redis.convertAndSend(channel, probe);
+            if (receivers != null && receivers >= expected) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static void awaitDelivery(List<Delivery> deliveries, String destination) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (count(deliveries, destination) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    private static long count(List<Delivery> deliveries, String destination) {
+        return deliveries.stream().filter(delivery -> destination.equals(delivery.destination())).count();
+    }
+
+    private static Map<String, Object> payload(List<Delivery> deliveries, String destination) throws Exception {
+        String body = deliveries.stream()
+                .filter(delivery -> destination.equals(delivery.destination()))
+                .findFirst()
+                .orElseThrow()
+                .body();
+        return nodeA.getBean(ObjectMapper.class).readValue(body, Map.class);
+    }
+
+    private record Delivery(String destination, String body) {
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.Repository.ChatRoomRepository;
+import com.example.chating.Repository.MessageRepository;
+import com.example.chating.Repository.UserChatRoomRepository;
+import com.example.chating.Repository.UserRepository;
+import com.example.chating.domain.Emoji;
+import com.example.chating.domain.MessageType;
+import com.example.chating.domain.User;
+import com.example.chating.domain.chat.ChatRoom;
+import com.example.chating.global.SnowflakeIdGenerator;
+import com.example.chating.support.EmbeddedRedis;
+import com.example.chating.support.TestApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 채팅방 삭제 표시(tombstone)와 청크 단위 정리를 H2 + 임베디드 Redis 로 띄운 애플리케이션에서 확인합니다.
+ * - 삭제 표시된 채팅방은 새 메시지를 받지 않고 목록에서 숨겨집니다.
+ * - 정리는 여러 청크에 걸쳐 메시지 / 참여 행 / 채팅방 행을 삭제하며, Redis 키는 삭제 요청 시 제거됩니다.
+ * - 정리 중인 채팅방으로 write-behind 큐에 들어 있던 메시지는 정리되거나 dead-letter 목록으로 가고, 다른 채팅방의 메시지는 저장됩니다.
+ */
+class ChatRoomPurgeServiceTest {
+
+    private static final int CHUNK_SIZE = 4;
+
+    private static EmbeddedRedis redis;
+    private static ConfigurableApplicationContext context;
+
+    private ChatRoomService chatRoomService;
+    private MessageService messageService;
+    private MessageWriteBehindService messageWriteBehindService;
+    private ChatRoomRepository chatRoomRepository;
+    private MessageRepository messageRepository;
+    private UserChatRoomRepository userChatRoomRepository;
+    private StringRedisTemplate stringRedisTemplate;
+    private ChatRoomPurgeService contextPurgeService;
+    private ChatRoomPurgeService purgeService;
+
+    private final AtomicInteger messageChunks = new AtomicInteger();
+    private final AtomicInteger memberChunks = new AtomicInteger();
+
+    @BeforeAll
+    static void startApplication() throws Exception {
+        redis = EmbeddedRedis.start();
+        context = TestApplication.start("purge", redis.getPort(),
+                "--chat.message.write-behind.enabled=true",
+                "--chat.purge.chunk-size=" + CHUNK_SIZE);
+    }
+
+    @AfterAll
+    static void stopApplication() throws Exception {
+        if (context != null) {
+            context.close();
+        }
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        chatRoomService = context.getBean(ChatRoomService.class);
+        messageService = context.getBean(MessageService.class);
+        messageWriteBehindService = context.getBean(MessageWriteBehindService.class);
+        chatRoomRepository = context.getBean(ChatRoomRepository.class);
+        messageRepository = context.getBean(MessageRepository.class);
+        userChatRoomRepository = context.getBean(UserChatRoomRepository.class);
+        stringRedisTemplate = context.getBean(StringRedisTemplate.class);
+
+        // 애플리케이션의 정리 스레드는 멈추고, 테스트에서 청크 삭제 횟수를 기록하는 인스턴스를 직접 시작
+        contextPurgeService = context.getBean(ChatRoomPurgeService.class);
+        contextPurgeService.stop();
+        purgeService = new ChatRoomPurgeService(chatRoomRepository,
+                countDeletes(MessageRepository.class, messageRepository, messageChunks),
+                countDeletes(UserChatRoomRepository.class, userChatRoomRepository, memberChunks),
+                context.getBean(MessageSearchIndexer.class), context.getBean(JdbcTemplate.class),
+                context.getBean(PlatformTransactionManager.class), CHUNK_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        purgeService.stop();
+    }
+
+    @Test
+    void tombstonedRoomRejectsMessagesAndIsHiddenFromLists() throws Exception {
+        List<Long> members = createUsers("tombstone", 2);
+        Long roomId = createRoom("tombstone", members);
+        messageService.saveMessage(roomId, members.get(0), "before delete", MessageType.TALK);
+        awaitMessages(roomId, 1);
+
+        chatRoomService.deleteChatRoom(roomId);
+
+        // 정리 전: 행은 남아 있지만 채팅방은 없는 것으로 처리
+        assertTrue(chatRoomRepository.existsById(roomId));
+        assertEquals(1, countMessages(roomId));
+        assertThrows(IllegalArgumentException.class,
+                () -> messageService.saveMessage(roomId, members.get(1), "after delete", MessageType.TALK));
+        for (Long userId : members) {
+            assertTrue(chatRoomService.getChatRoomsByUser(userId).stream()
+                    .map(room -> room.getChatRoom().getId())
+                    .noneMatch(roomId::equals));
+            assertTrue(chatRoomRepository.findChatRoomsByUserId(userId).stream()
+                    .map(ChatRoom::getId)
+                    .noneMatch(roomId::equals));
+        }
+
+        // 시작 시 남아 있는 삭제 표시 채팅방을 이어서 정리
+        purgeService.start();
+        await(() -> !chatRoomRepository.existsById(roomId));
+        assertEquals(0, countMessages(roomId));
+        assertEquals(1, purgeService.getPurgedMessages());
+    }
+
+    @Test
+    void purgeRemovesMessagesMembershipsAndRedisKeysInChunks() throws Exception {
+        List<Long> members = createUsers("chunked", 5);
+        Long roomId = createRoom("chunked", members);
+        for (int i = 0; i < 10; i++) {
+            messageService.saveMessage(roomId, members.get(i % members.size()), "message " + i, MessageType.TALK);
+        }
+        awaitMessages(roomId, 10);
+        // 마지막 배치의 Redis 반영(최신 메시지, 안 읽은 메시지 수)까지 대기
+        await(() -> "message 9".equals(stringRedisTemplate.opsForValue().get(latestMessageKey(roomId))));
+
+        String roomField = roomId.toString();
+        assertTrue(Boolean.TRUE.equals(stringRedisTemplate.hasKey("chatroom:" + roomId + ":users")));
+        assertTrue(stringRedisTemplate.opsForHash().hasKey("chatrooms", roomField));
+        assertTrue(Boolean.TRUE.equals(stringRedisTemplate.opsForSet().isMember("user:" + members.get(0) + ":chatrooms", roomField)));
+        assertTrue(stringRedisTemplate.opsForHash().hasKey("user:" + members.get(0) + ":unreadCounts", roomField));
+
+        purgeService.start();
+        chatRoomService.deleteChatRoom(roomId);
+
+        // Redis 는 삭제 요청 시 즉시 정리
+        assertFalse(Boolean.TRUE.equals(stringRedisTemplate.hasKey("chatroom:" + roomId + ":users")));
+        assertFalse(Boolean.TRUE.equals(stringRedisTemplate.hasKey(latestMessageKey(roomId))));
+        assertFalse(Boolean.TRUE.equals(stringRedisTemplate.hasKey("chatroom:" + roomId + ":recentMessages")));
+        assertFalse(stringRedisTemplate.opsForHash().hasKey("chatrooms", roomField));
+        for (Long userId : members) {
+            assertFalse(Boolean.TRUE.equals(stringRedisTemplate.opsForSet().isMember("user:" + userId + ":chatrooms", roomField)));
+            assertFalse(stringRedisTemplate.opsForHash().hasKey("user:" + userId + ":unreadCounts", roomField));
+            assertNull(stringRedisTemplate.opsForZSet().score("user:" + userId + ":rooms:activity", roomField));
+        }
+
+        await(() -> !chatRoomRepository.existsById(roomId));
+        assertEquals(0, countMessages(roomId));
+        assertTrue(userChatRoomRepository.findIdsByChatRoomId(roomId, PageRequest.of(0, 100)).isEmpty());
+        assertEquals(10, purgeService.getPurgedMessages());
+        assertEquals(1, purgeService.getPurgedRooms());
+        // 청크 크기 4: 메시지 10개 -> 3번, 참여 행 5개 -> 2번
+        assertEquals(3, messageChunks.get());
+        assertEquals(2, memberChunks.get());
+    }
+
+    @Test
+    void writeBehindMessageForPurgedRoomIsPurgedOrDeadLettered() throws Exception {
+        List<Long> members = createUsers("writebehind", 1);
+        Long userId = members.get(0);
+        Long roomId = createRoom("writebehind-deleted", members);
+        Long liveRoomId = createRoom("writebehind-live", members);
+
+        // 1. 삭제 표시 후 정리 전에 저장된 메시지: 정리에서 함께 삭제
+        chatRoomService.deleteChatRoom(roomId);
+        assertTrue(messageWriteBehindService.offer(pendingMessage(roomId, userId)));
+        awaitMessages(roomId, 1);
+
+        purgeService.start();
+        await(() -> !chatRoomRepository.existsById(roomId));
+        assertEquals(0, countMessages(roomId));
+
+        // 2. 채팅방 행 삭제 후에 저장되는 메시지: 외래 키 위반 -> dead-letter, 같은 배치의 다른 채팅방 메시지는 저장
+        long failedBefore = messageWriteBehindService.getFailedMessages();
+        ChatMessage lateMessage = pendingMessage(roomId, userId);
+        ChatMessage liveMessage = pendingMessage(liveRoomId, userId);
+        assertTrue(messageWriteBehindService.offer(lateMessage));
+        assertTrue(messageWriteBehindService.offer(liveMessage));
+
+        await(() -> messageWriteBehindService.getFailedMessages() > failedBefore);
+        awaitMessages(liveRoomId, 1);
+        assertEquals(0, countMessages(roomId));
+        assertTrue(messageRepository.existsById(liveMessage.getId()));
+
+        RedisTemplate<String, Object> redisTemplate = context.getBean("redisTemplate", RedisTemplate.class);
+        List<Object> deadLetters = redisTemplate.opsForList().range(MessageWriteBehindService.DEAD_LETTER_KEY, 0, -1);
+        assertTrue(deadLetters.stream()
+                .anyMatch(deadLetter -> lateMessage.getId().equals(((ChatMessage) deadLetter).getId())));
+    }
+
+    private List<Long> createUsers(String prefix, int count) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        List<Long> userIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = userRepository.save(User.builder()
+                    .name(prefix + "-" + i)
+                    .password(prefix)
+                    .emoji(Emoji.ETC)
+                    .build());
+            userIds.add(user.getId());
+        }
+        return userIds;
+    }
+
+    private Long createRoom(String name, List<Long> members) {
+        Long roomId = chatRoomService.createChatRoom(name).getId();
+        members.forEach(userId -> chatRoomService.addUserToChatRoom(roomId, userId));
+        return roomId;
+    }
+
+    private static ChatMessage pendingMessage(Long roomId, Long senderId) {
+        return new ChatMessage(SnowflakeIdGenerator.getInstance().nextId(), MessageType.TALK, roomId.toString(),
+                senderId, "sender", "queued", LocalDateTime.now());
+    }
+
+    private static String latestMessageKey(Long roomId) {
+        return "chatroom:" + roomId + ":latestMessage";
+    }
+
+    private int countMessages(Long roomId) {
+        return messageRepository.findIdsByChatRoomId(roomId, PageRequest.of(0, 1_000)).size();
+    }
+
+    // write-behind writer 스레드가 저장할 때까지 대기
+    private void awaitMessages(Long roomId, int expected) throws InterruptedException {
+        await(() -> countMessages(roomId) == expected);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 10 seconds");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    // 청크마다 한 번 호출되는 bulk DELETE(deleteAllByIdIn) 횟수 기록
+    @SuppressWarnings("unchecked")
+    private static <T> T countDeletes(Class<T> type, T repository, AtomicInteger calls) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if ("deleteAllByIdIn".equals(method.getName())) {
+                calls.incrementAndGet();
+            }
+            try {
+                return method.invoke(repository, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatRoomDto;
+import com.example.chating.Repository.ChatRoomRepository;
+import com.example.chating.Repository.MessageRepository;
+import com.example.chating.Repository.UserChatRoomRepository;
+import com.example.chating.domain.chat.ChatRoom;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 채팅방 목록 조회 시 DB 쿼리 수와 Redis 왕복 횟수가 참여 채팅방 수와 관계없이 일정한지 확인합니다.
+ */
+class ChatRoomServiceRoundTripTest {
+
+    private static final Long USER_ID = 1L;
+    private static final int[] ROOM_COUNTS = {1, 10, 200};
+
+    @Test
+    void roundTripsAreConstantWhenCacheIsWarm() {
+        for (int roomCount : ROOM_COUNTS) {
+            RoundTrips roundTrips = getChatRoomsByUser(roomCount, true);
+            assertEquals(roomCount, roundTrips.rooms());
+            assertEquals(3, roundTrips.redis(), "Redis round-trips for " + roomCount + " rooms");
+            assertEquals(1, roundTrips.db(), "DB queries for " + roomCount + " rooms");
+        }
+    }
+
+    @Test
+    void roundTripsAreConstantWhenCacheIsCold() {
+        for (int roomCount : ROOM_COUNTS) {
+            RoundTrips roundTrips = getChatRoomsByUser(roomCount, false);
+            assertEquals(roomCount, roundTrips.rooms());
+            assertEquals(4, roundTrips.redis(), "Redis round-trips for " + roomCount + " rooms");
+            assertEquals(3, roundTrips.db(), "DB queries for " + roomCount + " rooms");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private RoundTrips getChatRoomsByUser(int roomCount, boolean cached) {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        ChatRoomRepository chatRoomRepository = mock(ChatRoomRepository.class);
+        UserChatRoomRepository userChatRoomRepository = mock(UserChatRoomRepository.class);
+        MessageRepository messageRepository = mock(MessageRepository.class);
+        UnreadCountService unreadCountService = mock(UnreadCountService.class);
+        RoomActivityIndexService roomActivityIndexService = mock(RoomActivityIndexService.class);
+
+        List<ChatRoom> chatRooms = new ArrayList<>();
+        List<RoomActivityIndexService.RoomActivity> activity = new ArrayList<>();
+        for (long id = 1; id <= roomCount; id++) {
+            chatRooms.add(ChatRoom.builder().id(id).name("room-" + id).build());
+            activity.add(new RoomActivityIndexService.RoomActivity(id, 1_000_000 - id));
+        }
+
+        List<Object> cachedRooms = new ArrayList<>(Collections.nCopies(roomCount, null));
+        List<Object> cachedLatestMessages = new ArrayList<>(Collections.nCopies(roomCount, null));
+        if (cached) {
+            for (int i = 0; i < roomCount; i++) {
+                cachedRooms.set(i, chatRooms.get(i));
+                cachedLatestMessages.set(i, "latest-" + chatRooms.get(i).getId());
+            }
+        }
+
+        when(roomActivityIndexService.getRooms(anyLong(), anyInt(), anyInt())).thenReturn(activity);
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(List.of(cachedRooms, cachedLatestMessages))
+                .thenReturn(List.of());
+        when(chatRoomRepository.findAllById(anyIterable())).thenReturn(chatRooms);
+        when(messageRepository.findLatestMessagesByChatRoomIds(anyCollection())).thenReturn(List.of());
+        when(userChatRoomRepository.findMemberProfilesByChatRoomIds(anyCollection())).thenReturn(List.of());
+        when(unreadCountService.getUnreadCounts(anyLong(), anyCollection())).thenReturn(Map.of());
+
+        ChatRoomService chatRoomService = new ChatRoomService(
+                redisTemplate,
+                chatRoomRepository,
+                mock(UserService.class),
+                userChatRoomRepository,
+                messageRepository,
+                mock(MessageCacheService.class),
+                unreadCountService,
+                roomActivityIndexService,
+                mock(ChatRoomMemberService.class),
+                mock(EntityCacheService.class),
+                mock(ChatRoomPurgeService.class)
+        );
+
+        List<ChatRoomDto> result = chatRoomService.getChatRoomsByUser(USER_ID);
+
+        int redis = invocations(redisTemplate) + invocations(unreadCountService) + invocations(roomActivityIndexService);
+        int db = invocations(chatRoomRepository) + invocations(messageRepository) + invocations(userChatRoomRepository);
+        return new RoundTrips(result.size(), redis, db);
+    }
+
+    private static int invocations(Object mock) {
+        return Mockito.mockingDetails(mock).getInvocations().size();
+    }
+
+    private record RoundTrips(int rooms, int redis, int db) {
+    }
+}
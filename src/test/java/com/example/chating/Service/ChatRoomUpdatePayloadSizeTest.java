@@ -0,0 +1,75 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.Dto.ChatRoomDto;
+import com.example.chating.Dto.ChatRoomUpdateDto;
+import com.example.chating.Dto.UserProfileDto;
+import com.example.chating.domain.Emoji;
+import com.example.chating.domain.MessageType;
+import com.example.chating.domain.chat.ChatRoom;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 메시지 1개당 채팅방 목록 갱신으로 전송되는 payload 크기 비교
+ * - 이전: 전체 ChatRoomDto 를 /topic/chatrooms 로 전송 (연결된 모든 클라이언트가 수신)
+ * - 이후: ChatRoomUpdateDto 를 채팅방 참여자에게만 /user/queue/rooms 로 전송
+ */
+class ChatRoomUpdatePayloadSizeTest {
+
+    private static final int CONNECTED_CLIENTS = 1_000;
+    private static final int[] MEMBER_COUNTS = {2, 10, 50};
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void outboundBytesPerMessage() throws Exception {
+        ChatMessage message = new ChatMessage(
+                123456789012345L,
+                MessageType.TALK,
+                "987654321098765",
+                1L,
+                "sender",
+                "오늘 저녁 7시에 강남역 11번 출구 앞에서 만나요!",
+                LocalDateTime.now()
+        );
+
+        for (int memberCount : MEMBER_COUNTS) {
+            List<UserProfileDto> profiles = new ArrayList<>();
+            for (long id = 1; id <= memberCount; id++) {
+                profiles.add(new UserProfileDto(id, "user-" + id, Emoji.ETC));
+            }
+            ChatRoom chatRoom = ChatRoom.builder()
+                    .id(Long.valueOf(message.getRoomId()))
+                    .name("room")
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+
+            long fullPayload = bytes(new ChatRoomDto(chatRoom, message.getContent(), profiles));
+            long before = fullPayload * CONNECTED_CLIENTS;
+
+            long after = bytes(ChatRoomUpdateService.toUpdate(message, null)); // 보낸 사람
+            ChatRoomUpdateDto memberUpdate = ChatRoomUpdateService.toUpdate(message, 3L);
+            after += bytes(memberUpdate) * (memberCount - 1);
+
+            assertTrue(bytes(memberUpdate) < fullPayload);
+            assertTrue(after < before);
+        }
+    }
+
+    private long bytes(Object payload) throws Exception {
+        return objectMapper.writeValueAsBytes(payload).length;
+    }
+}
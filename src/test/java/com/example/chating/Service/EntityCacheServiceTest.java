@@ -0,0 +1,112 @@
+package com.example.chating.Service;
+
+import com.example.chating.domain.User;
+import com.example.chating.domain.chat.ChatRoom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 사용자 / 채팅방 로컬 캐시의 무효화(이 노드, 커밋 후, 다른 노드)와 조회 실패 처리를 확인합니다.
+ */
+class EntityCacheServiceTest {
+
+    private StringRedisTemplate stringRedisTemplate;
+    private RedisMessageListenerContainer container;
+    private EntityCacheService entityCacheService;
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        container = mock(RedisMessageListenerContainer.class);
+        entityCacheService = new EntityCacheService(stringRedisTemplate, container, true, 100, 60);
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evictRemovesLocalEntryAndNotifiesOtherNodes() {
+        AtomicInteger loads = new AtomicInteger();
+        entityCacheService.getUser(7L, id -> user(id, "v" + loads.incrementAndGet()));
+        assertEquals("v1", entityCacheService.getUser(7L, id -> user(id, "v" + loads.incrementAndGet())).getName());
+
+        entityCacheService.evictUser(7L);
+
+        assertEquals("v2", entityCacheService.getUser(7L, id -> user(id, "v" + loads.incrementAndGet())).getName());
+        verify(stringRedisTemplate).convertAndSend(EntityCacheService.INVALIDATION_CHANNEL, "user:7");
+    }
+
+    @Test
+    void evictInTransactionEvictsAgainAndPublishesAfterCommit() {
+        entityCacheService.getChatRoom(1L, id -> chatRoom(id, "old"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        entityCacheService.evictChatRoom(1L);
+        // 커밋 전에 다른 스레드가 아직 커밋되지 않은 (이전) 값을 다시 읽어 캐시
+        entityCacheService.getChatRoom(1L, id -> chatRoom(id, "old"));
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals("new", entityCacheService.getChatRoom(1L, id -> chatRoom(id, "new")).getName());
+        verify(stringRedisTemplate).convertAndSend(EntityCacheService.INVALIDATION_CHANNEL, "chatroom:1");
+    }
+
+    @Test
+    void invalidationFromAnotherNodeEvictsLocalEntry() {
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(container).addMessageListener(listener.capture(), any(Topic.class));
+        entityCacheService.getUser(7L, id -> user(id, "old"));
+
+        listener.getValue().onMessage(new DefaultMessage(
+                EntityCacheService.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "user:7".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertEquals("new", entityCacheService.getUser(7L, id -> user(id, "new")).getName());
+        assertEquals(1, entityCacheService.getRemoteInvalidations());
+    }
+
+    @Test
+    void loaderFailureIsNotCached() {
+        assertThrows(IllegalArgumentException.class, () -> entityCacheService.getUser(7L, id -> {
+            throw new IllegalArgumentException("User not found with ID: " + id);
+        }));
+
+        User user = user(7L, "created");
+        assertSame(user, entityCacheService.getUser(7L, id -> user));
+        assertSame(user, entityCacheService.getUser(7L, id -> user(id, "reloaded")));
+    }
+
+    private static User user(Long id, String name) {
+        return User.builder().id(id).name(name).build();
+    }
+
+    private static ChatRoom chatRoom(Long id, String name) {
+        return ChatRoom.builder().id(id).name(name).build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.domain.MessageType;
+import com.example.chating.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * DB 조회와 다시 채우기 사이에 저장된 메시지가 최근 메시지 캐시에서 사라지지 않는지 확인합니다.
+ */
+class MessageCacheServiceTest {
+
+    private static final Long ROOM_ID = 1L;
+
+    private static EmbeddedRedis redis;
+    private static RedisTemplate<String, Object> redisTemplate;
+
+    private MessageCacheService messageCacheService;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redis = EmbeddedRedis.start();
+        redisTemplate = redis.redisTemplate();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flushAll();
+        messageCacheService = new MessageCacheService(redisTemplate, mock(ChatRoomMemberService.class),
+                mock(UnreadCountService.class), mock(RoomActivityIndexService.class));
+        ReflectionTestUtils.setField(messageCacheService, "recentCacheEnabled", true);
+        ReflectionTestUtils.setField(messageCacheService, "recentCacheSize", 100);
+        ReflectionTestUtils.setField(messageCacheService, "recentCompleteTtlSeconds", 600L);
+    }
+
+    @Test
+    void saveBetweenReadAndBackfillIsNotLost() {
+        ChatMessage first = message(1L);
+        ChatMessage second = message(2L);
+
+        // 캐시 미스: 버전을 읽고 DB 조회 (second 는 아직 커밋 전)
+        String version = messageCacheService.getRecentVersion(ROOM_ID);
+        List<ChatMessage> dbSnapshot = List.of(first);
+
+        // 조회와 다시 채우기 사이에 second 가 커밋되어 캐시에 추가됨
+        messageCacheService.applySavedMessages(List.of(second));
+
+        // 오래된 조회 결과로는 다시 채우지 않음 → 다음 조회도 캐시 미스
+        assertFalse(messageCacheService.backfillRecentMessages(ROOM_ID, version, dbSnapshot));
+        assertNull(messageCacheService.getRecentMessages(ROOM_ID, 0, 10));
+
+        // 다시 조회하면 second 를 포함해 채워짐
+        version = messageCacheService.getRecentVersion(ROOM_ID);
+        assertTrue(messageCacheService.backfillRecentMessages(ROOM_ID, version, List.of(second, first)));
+        assertEquals(List.of(2L, 1L), ids(messageCacheService.getRecentMessages(ROOM_ID, 0, 10)));
+    }
+
+    @Test
+    void backfillBeforeCacheUpdateOfCommittedMessageDoesNotDuplicate() {
+        ChatMessage first = message(1L);
+        ChatMessage second = message(2L);
+
+        // second 가 커밋된 뒤 조회해 다시 채웠지만, second 의 캐시 반영은 그 뒤에 도착
+        String version = messageCacheService.getRecentVersion(ROOM_ID);
+        assertTrue(messageCacheService.backfillRecentMessages(ROOM_ID, version, List.of(second, first)));
+        messageCacheService.applySavedMessages(List.of(second));
+
+        assertEquals(List.of(2L, 1L), ids(messageCacheService.getRecentMessages(ROOM_ID, 0, 10)));
+    }
+
+    @Test
+    void newMessagesAfterBackfillArePrepended() {
+        String version = messageCacheService.getRecentVersion(ROOM_ID);
+        assertTrue(messageCacheService.backfillRecentMessages(ROOM_ID, version, List.of(message(1L))));
+        messageCacheService.applySavedMessages(List.of(message(2L), message(3L)));
+
+        assertEquals(List.of(3L, 2L, 1L), ids(messageCacheService.getRecentMessages(ROOM_ID, 0, 10)));
+    }
+
+    private static ChatMessage message(Long id) {
+        return new ChatMessage(id, MessageType.TALK, ROOM_ID.toString(), 10L, "sender", "message " + id, LocalDateTime.now());
+    }
+
+    private static List<Long> ids(List<ChatMessage> messages) {
+        return messages.stream().map(ChatMessage::getId).toList();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.chating.Service;
+
+import com.example.chating.Repository.MessageRepository;
+import com.example.chating.domain.MessageType;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 메시지 내보내기가 한 줄씩 스트리밍되며 메시지 수와 관계없이 메모리 사용량이 일정한지 확인합니다.
+ */
+class MessageExportServiceTest {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final Long ROOM_ID = 7L;
+
+    @Test
+    void writesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = MessageExportService.writeNdjson(JSON_FACTORY, ROOM_ID, messages(3, 16), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, count);
+        assertEquals(3, lines.length);
+
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("TALK", first.get("type").asText());
+        assertEquals("7", first.get("roomId").asText());
+        assertEquals(101L, first.get("senderId").asLong());
+        assertEquals("user-101", first.get("senderName").asText());
+        assertEquals(16, first.get("content").asText().length());
+    }
+
+    @Test
+    void heapStaysFlatWhileExportingManyMessages() throws Exception {
+        int messageCount = 300_000;
+        int contentLength = 1_000;
+        long sampleEvery = 50_000;
+        // 모두 메모리에 모으면 약 300MB 이상 필요
+        long allowedGrowth = 64L * 1024 * 1024;
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = retainedHeap(memory);
+        long[] maxRetained = {baseline};
+
+        CountingOutputStream out = new CountingOutputStream();
+        Stream<MessageRepository.ExportedMessage> messages = messages(messageCount, contentLength)
+                .peek(message -> {
+                    if (message.getId() % sampleEvery == 0) {
+                        maxRetained[0] = Math.max(maxRetained[0], retainedHeap(memory));
+                    }
+                });
+
+        long count = MessageExportService.writeNdjson(JSON_FACTORY, ROOM_ID, messages, out);
+
+        assertEquals(messageCount, count);
+        assertTrue(out.bytes > (long) messageCount * contentLength);
+        long growth = maxRetained[0] - baseline;
+        assertTrue(growth < allowedGrowth, "Retained heap grew by " + (growth / 1024 / 1024) + " MB during export");
+    }
+
+    private static long retainedHeap(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    // DB 커서처럼 한 행씩 새로 만들어지는 메시지
+    private static Stream<MessageRepository.ExportedMessage> messages(int count, int contentLength) {
+        return LongStream.rangeClosed(1, count).mapToObj(id -> {
+            char[] content = new char[contentLength];
+            Arrays.fill(content, (char) ('a' + id % 26));
+            return new Row(id, 100L + id % 10, new String(content));
+        });
+    }
+
+    private record Row(Long id, Long senderId, String content) implements MessageRepository.ExportedMessage {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public MessageType getType() {
+            return MessageType.TALK;
+        }
+
+        @Override
+        public Long getSenderId() {
+            return senderId;
+        }
+
+        @Override
+        public String getSenderName() {
+            return "user-" + senderId;
+        }
+
+        @Override
+        public String getContent() {
+            return content;
+        }
+
+        @Override
+        public LocalDateTime getSentAt() {
+            return LocalDateTime.of(2025, 1, 1, 0, 0).plusSeconds(id);
+        }
+    }
+
+    // 응답 스트림 대신 바이트 수만 셈
+    private static class CountingOutputStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
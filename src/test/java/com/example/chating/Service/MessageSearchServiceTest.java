@@ -0,0 +1,187 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.Repository.MessageRepository;
+import com.example.chating.domain.MessageType;
+import com.example.chating.domain.User;
+import com.example.chating.domain.chat.ChatRoom;
+import com.example.chating.domain.chat.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 한국어 형태소 단위 검색, 참여 채팅방 범위 제한, before 커서 페이지를 확인합니다.
+ */
+class MessageSearchServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long ROOM_A = 10L;
+    private static final Long ROOM_B = 20L;
+    private static final Long OTHER_ROOM = 30L;
+
+    @TempDir
+    Path indexPath;
+
+    private final Map<Long, Message> stored = new HashMap<>();
+    private MessageSearchIndexer indexer;
+    private MessageSearchService searchService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        MessageRepository messageRepository = mock(MessageRepository.class);
+        when(messageRepository.findIdRange()).thenReturn(null);
+        when(messageRepository.findAllWithSenderByIdIn(anyCollection())).thenAnswer(invocation ->
+                ((Collection<Long>) invocation.getArgument(0)).stream()
+                        .map(stored::get)
+                        .collect(Collectors.toList()));
+
+        RoomActivityIndexService roomActivityIndexService = mock(RoomActivityIndexService.class);
+        when(roomActivityIndexService.getRooms(anyLong(), anyInt(), anyInt())).thenReturn(List.of(
+                new RoomActivityIndexService.RoomActivity(ROOM_A, 2),
+                new RoomActivityIndexService.RoomActivity(ROOM_B, 1)));
+
+        indexer = new MessageSearchIndexer(messageRepository, true, indexPath.toString(),
+                100, 100, 1, false, 30, 0, 60);
+        indexer.start();
+        searchService = new MessageSearchService(indexer, messageRepository, roomActivityIndexService);
+
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(save(1L, ROOM_A, "내일 회의는 오후 세 시에 시작합니다"));
+        messages.add(save(2L, ROOM_A, "점심 메뉴 추천해 주세요"));
+        messages.add(save(3L, ROOM_B, "회의를 다음 주로 옮겼습니다"));
+        messages.add(save(4L, OTHER_ROOM, "다른 채팅방의 회의 일정"));
+        messages.add(save(5L, ROOM_A, "Weekly MEETING notes"));
+        indexer.index(messages);
+        awaitIndexed(messages.size());
+    }
+
+    @AfterEach
+    void tearDown() {
+        indexer.stop();
+    }
+
+    @Test
+    void matchesKoreanStemsAcrossParticles() {
+        // "회의는", "회의를" 모두 "회의" 로 검색됨
+        assertEquals(List.of(3L, 1L), ids(searchService.search(USER_ID, null, "회의", null, 20)));
+    }
+
+    @Test
+    void isScopedToGivenRoomOrMemberRooms() {
+        assertEquals(List.of(1L), ids(searchService.search(USER_ID, ROOM_A, "회의", null, 20)));
+        assertTrue(ids(searchService.search(USER_ID, null, "일정", null, 20)).isEmpty());
+    }
+
+    @Test
+    void pagesNewestFirstWithBeforeCursor() {
+        assertEquals(List.of(3L), ids(searchService.search(USER_ID, null, "회의", null, 1)));
+        assertEquals(List.of(1L), ids(searchService.search(USER_ID, null, "회의", 3L, 1)));
+        assertTrue(ids(searchService.search(USER_ID, null, "회의", 1L, 1)).isEmpty());
+    }
+
+    @Test
+    void isCaseInsensitiveForLatinText() {
+        assertEquals(List.of(5L), ids(searchService.search(USER_ID, null, "meeting", null, 20)));
+    }
+
+    @Test
+    void messagesDroppedDuringRebuildAreReindexed(@TempDir Path otherIndexPath) throws Exception {
+        CountDownLatch rebuildStarted = new CountDownLatch(1);
+        CountDownLatch releaseRebuild = new CountDownLatch(1);
+        MessageRepository messageRepository = mock(MessageRepository.class);
+        when(messageRepository.findIdRange()).thenAnswer(invocation -> {
+            rebuildStarted.countDown();
+            releaseRebuild.await();
+            return null;
+        });
+        List<ChatMessage> messages = List.of(
+                save(6L, ROOM_A, "배포 일정 공유"), save(7L, ROOM_A, "배포 완료"), save(8L, ROOM_B, "배포 확인"));
+        List<MessageRepository.IndexedMessage> rows = messages.stream()
+                .map(message -> indexedMessage(message.getId(), Long.valueOf(message.getRoomId()), message.getContent()))
+                .collect(Collectors.toList());
+        when(messageRepository.findForIndex(anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            Long afterId = invocation.getArgument(0);
+            return rows.stream()
+                    .filter(row -> row.getId() > afterId)
+                    .collect(Collectors.toList());
+        });
+
+        // 큐 크기 1: 재생성 중에 색인 요청한 메시지 3개 중 2개는 버려짐
+        MessageSearchIndexer rebuildingIndexer = new MessageSearchIndexer(messageRepository, true, otherIndexPath.toString(),
+                1, 100, 1, false, 30, 0, 60);
+        rebuildingIndexer.start();
+        try {
+            assertTrue(rebuildStarted.await(5, TimeUnit.SECONDS));
+            rebuildingIndexer.index(messages);
+            assertEquals(2, rebuildingIndexer.getDroppedMessages());
+            releaseRebuild.countDown();
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (rebuildingIndexer.getIndexedMessages() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(3, rebuildingIndexer.getIndexedMessages());
+            verify(messageRepository).findForIndex(eq(6L), eq(Long.MAX_VALUE), any());
+        } finally {
+            releaseRebuild.countDown();
+            rebuildingIndexer.stop();
+        }
+    }
+
+    private static MessageRepository.IndexedMessage indexedMessage(Long id, Long chatRoomId, String content) {
+        MessageRepository.IndexedMessage message = mock(MessageRepository.IndexedMessage.class);
+        when(message.getId()).thenReturn(id);
+        when(message.getChatRoomId()).thenReturn(chatRoomId);
+        when(message.getContent()).thenReturn(content);
+        return message;
+    }
+
+    private ChatMessage save(Long id, Long roomId, String content) {
+        Message message = Message.builder()
+                .id(id)
+                .chatRoom(ChatRoom.builder().id(roomId).build())
+                .sender(User.builder().id(USER_ID).name("user").build())
+                .content(content)
+                .messageType(MessageType.TALK)
+                .build();
+        stored.put(id, message);
+        return MessageService.toChatMessage(message);
+    }
+
+    private void awaitIndexed(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (indexer.getIndexedMessages() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        // 색인 후 검색기 갱신까지 대기
+        Thread.sleep(300);
+    }
+
+    private static List<Long> ids(List<ChatMessage> messages) {
+        return messages.stream().map(ChatMessage::getId).collect(Collectors.toList());
+    }
+}
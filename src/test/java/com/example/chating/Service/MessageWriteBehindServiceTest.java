@@ -0,0 +1,154 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.Repository.ChatRoomRepository;
+import com.example.chating.Repository.MessageRepository;
+import com.example.chating.Repository.UserRepository;
+import com.example.chating.domain.MessageType;
+import com.example.chating.domain.chat.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 배치 저장에 실패해도 저장할 수 있는 메시지는 저장되고, 실패한 메시지만 dead-letter 목록으로 가는지 확인합니다.
+ * 종료 중에 받은 메시지도 모두 저장되는지 확인합니다.
+ */
+class MessageWriteBehindServiceTest {
+
+    private static final long BAD_MESSAGE_ID = 2L;
+
+    private MessageRepository messageRepository;
+    private MessageCacheService messageCacheService;
+    private ListOperations<String, Object> listOperations;
+    private MessageWriteBehindService writeBehindService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        messageRepository = mock(MessageRepository.class);
+        messageCacheService = mock(MessageCacheService.class);
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        listOperations = mock(ListOperations.class);
+        when(redisTemplate.opsForList()).thenReturn(listOperations);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        // 삭제된 채팅방의 메시지: 외래 키 위반
+        when(messageRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Message> entities = invocation.getArgument(0);
+            if (entities.stream().anyMatch(entity -> entity.getReservedId() == BAD_MESSAGE_ID)) {
+                throw new DataIntegrityViolationException("FK_MESSAGE_CHAT_ROOM");
+            }
+            return entities;
+        });
+
+        writeBehindService = new MessageWriteBehindService(messageRepository, mock(ChatRoomRepository.class),
+                mock(UserRepository.class), messageCacheService, mock(ChatRoomUpdateService.class),
+                mock(MessageSearchIndexer.class), redisTemplate, transactionManager, true, 100, 100, 50);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void badMessageDoesNotLoseTheRestOfTheBatch() {
+        writeBehindService.start();
+        assertTrue(writeBehindService.offer(message(1L, "1")));
+        assertTrue(writeBehindService.offer(message(BAD_MESSAGE_ID, "99")));
+        assertTrue(writeBehindService.offer(message(3L, "1")));
+        writeBehindService.stop();
+
+        // 저장된 메시지만 캐시 / 목록에 반영
+        ArgumentCaptor<List<ChatMessage>> applied = ArgumentCaptor.forClass(List.class);
+        verify(messageCacheService, atLeastOnce()).applySavedMessages(applied.capture());
+        List<Long> appliedIds = applied.getAllValues().stream()
+                .flatMap(List::stream)
+                .map(ChatMessage::getId)
+                .collect(Collectors.toList());
+        assertEquals(List.of(1L, 3L), appliedIds);
+
+        ArgumentCaptor<Object> deadLetters = ArgumentCaptor.forClass(Object.class);
+        verify(listOperations).rightPush(eq(MessageWriteBehindService.DEAD_LETTER_KEY), deadLetters.capture());
+        assertEquals(BAD_MESSAGE_ID, ((ChatMessage) deadLetters.getValue()).getId().longValue());
+
+        assertEquals(2, writeBehindService.getFlushedMessages());
+        assertEquals(1, writeBehindService.getFailedMessages());
+        assertEquals(0, writeBehindService.getLostMessages());
+    }
+
+    @Test
+    void lostMessageIsCountedWhenDeadLetterWriteFails() {
+        when(listOperations.rightPush(any(), any())).thenThrow(new IllegalStateException("redis down"));
+
+        writeBehindService.start();
+        assertTrue(writeBehindService.offer(message(BAD_MESSAGE_ID, "99")));
+        writeBehindService.stop();
+
+        assertEquals(0, writeBehindService.getFlushedMessages());
+        assertEquals(1, writeBehindService.getFailedMessages());
+        assertEquals(1, writeBehindService.getLostMessages());
+    }
+
+    @Test
+    void everyAcceptedMessageIsSavedWhenStoppingDuringOffers() throws Exception {
+        writeBehindService.start();
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong nextId = new AtomicLong(100);
+        CountDownLatch offering = new CountDownLatch(4);
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread producer = new Thread(() -> {
+                offering.countDown();
+                // stop 이후에는 false (호출자가 동기 저장)
+                while (writeBehindService.offer(message(nextId.getAndIncrement(), "1"))) {
+                    accepted.incrementAndGet();
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        offering.await();
+        writeBehindService.stop();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertFalse(writeBehindService.isAccepting());
+        assertEquals(accepted.get(), writeBehindService.getFlushedMessages());
+        assertEquals(0, writeBehindService.getQueueDepth());
+    }
+
+    @Test
+    void stopsAfterWebServerAndBeforeRedisConnection() {
+        // 웹 서버 종료 (WebServerStartStopLifecycle) 보다 낮고, LettuceConnectionFactory (0) 보다 높은 phase
+        assertTrue(writeBehindService.getPhase() < SmartLifecycle.DEFAULT_PHASE - 2048);
+        assertTrue(writeBehindService.getPhase() > 0);
+    }
+
+    private static ChatMessage message(Long id, String roomId) {
+        return new ChatMessage(id, MessageType.TALK, roomId, 10L, "sender", "message " + id, LocalDateTime.now());
+    }
+}
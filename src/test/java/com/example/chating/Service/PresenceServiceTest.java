@@ -0,0 +1,197 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.PresenceUpdateDto;
+import com.example.chating.Dto.RoomPresenceDto;
+import com.example.chating.global.config.AuthenticatedUser;
+import com.example.chating.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 접속 / TTL 만료 / 구독 해지와 같은 사용자의 여러 세션(탭, 노드)에서의 접속 상태를 임베디드 Redis 로 확인합니다.
+ */
+class PresenceServiceTest {
+
+    private static final Long ROOM_ID = 1L;
+    private static final Long USER_ID = 7L;
+    private static final AuthenticatedUser USER = new AuthenticatedUser("user", USER_ID);
+
+    private static EmbeddedRedis redis;
+    private static StringRedisTemplate stringRedisTemplate;
+    private static RedisTemplate<String, Object> redisTemplate;
+
+    private ChatBroadcastService chatBroadcastService;
+    private PresenceService presenceService;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redis = EmbeddedRedis.start();
+        stringRedisTemplate = redis.stringRedisTemplate();
+        redisTemplate = redis.redisTemplate();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flushAll();
+        stringRedisTemplate.opsForSet().add("user:" + USER_ID + ":chatrooms", ROOM_ID.toString());
+
+        ChatRoomMemberService chatRoomMemberService = mock(ChatRoomMemberService.class);
+        when(chatRoomMemberService.getMemberIds(anyCollection())).thenReturn(Map.of(ROOM_ID, Set.of(USER_ID, 8L)));
+        chatBroadcastService = mock(ChatBroadcastService.class);
+        // TTL 1초, 전송은 테스트에서 직접 호출
+        presenceService = new PresenceService(stringRedisTemplate, redisTemplate, chatRoomMemberService,
+                chatBroadcastService, 1, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        presenceService.destroy();
+    }
+
+    @Test
+    void connectSubscribeAndUnsubscribe() {
+        presenceService.onConnected(connected("s1"));
+        assertEquals(List.of(USER_ID), flushRoom().getOnline());
+
+        presenceService.onSubscribe(subscribe("s1", "sub-0"));
+        assertEquals(List.of(USER_ID), flushRoom().getActive());
+        RoomPresenceDto presence = presenceService.getPresence(USER_ID, List.of(ROOM_ID)).get(ROOM_ID);
+        assertEquals(List.of(USER_ID), presence.getOnlineUserIds());
+        assertEquals(List.of(USER_ID), presence.getActiveUserIds());
+
+        presenceService.onUnsubscribe(unsubscribe("s1", "sub-0"));
+        assertEquals(List.of(USER_ID), flushRoom().getInactive());
+        assertTrue(presenceService.getPresence(USER_ID, List.of(ROOM_ID)).get(ROOM_ID).getActiveUserIds().isEmpty());
+    }
+
+    @Test
+    void silentSessionExpiresAfterTtl() throws Exception {
+        presenceService.onConnected(connected("s1"));
+        presenceService.onSubscribe(subscribe("s1", "sub-0"));
+        flushRoom();
+
+        Thread.sleep(1_100);
+        presenceService.expireSilentSessions();
+
+        PresenceUpdateDto update = flushRoom();
+        assertEquals(List.of(USER_ID), update.getOffline());
+        assertEquals(List.of(USER_ID), update.getInactive());
+        assertFalse(stringRedisTemplate.hasKey("presence:user:" + USER_ID));
+    }
+
+    @Test
+    void inboundFramesKeepSessionOnline() throws Exception {
+        presenceService.onConnected(connected("s1"));
+        flushRoom();
+
+        Thread.sleep(400); // refresh 간격(TTL 의 1/3) 이후 받은 프레임
+        presenceService.heartbeat("s1");
+        Thread.sleep(700);
+        presenceService.expireSilentSessions();
+
+        presenceService.flush();
+        verify(chatBroadcastService, never()).sendToRoom(any(), any(), any());
+        assertEquals(List.of(USER_ID), presenceService.getPresence(USER_ID, List.of(ROOM_ID)).get(ROOM_ID).getOnlineUserIds());
+    }
+
+    @Test
+    void otherSessionOfSameUserKeepsRoomActive() {
+        presenceService.onConnected(connected("s1"));
+        presenceService.onConnected(connected("s2"));
+        presenceService.onSubscribe(subscribe("s1", "sub-0"));
+        presenceService.onSubscribe(subscribe("s2", "sub-0"));
+        flushRoom();
+
+        // 한 탭만 채팅방에서 나감: 변경 없음
+        presenceService.onUnsubscribe(unsubscribe("s1", "sub-0"));
+        presenceService.flush();
+        verify(chatBroadcastService, never()).sendToRoom(any(), any(), any());
+        assertEquals(List.of(USER_ID), presenceService.getPresence(USER_ID, List.of(ROOM_ID)).get(ROOM_ID).getActiveUserIds());
+
+        // 채팅방을 보던 마지막 세션 종료: 채팅방 보기 종료, 다른 세션이 있으므로 접속은 유지
+        presenceService.onDisconnect(disconnect("s2"));
+        PresenceUpdateDto update = flushRoom();
+        assertEquals(List.of(USER_ID), update.getInactive());
+        assertTrue(update.getOffline().isEmpty());
+
+        presenceService.onDisconnect(disconnect("s1"));
+        assertEquals(List.of(USER_ID), flushRoom().getOffline());
+    }
+
+    // 모인 변경을 전송하고 채팅방으로 보낸 변경 알림 반환
+    private PresenceUpdateDto flushRoom() {
+        clearInvocations(chatBroadcastService);
+        presenceService.flush();
+        ArgumentCaptor<Object> update = ArgumentCaptor.forClass(Object.class);
+        verify(chatBroadcastService).sendToRoom(eq(ROOM_ID), eq("presence"), update.capture());
+        clearInvocations(chatBroadcastService);
+        return (PresenceUpdateDto) update.getValue();
+    }
+
+    private static SessionConnectedEvent connected(String sessionId) {
+        return new SessionConnectedEvent(new Object(), frame(StompCommand.CONNECTED, sessionId, null), USER);
+    }
+
+    private static SessionSubscribeEvent subscribe(String sessionId, String subscriptionId) {
+        return new SessionSubscribeEvent(new Object(), frame(StompCommand.SUBSCRIBE, sessionId, subscriptionId), USER);
+    }
+
+    private static SessionUnsubscribeEvent unsubscribe(String sessionId, String subscriptionId) {
+        return new SessionUnsubscribeEvent(new Object(), frame(StompCommand.UNSUBSCRIBE, sessionId, subscriptionId), USER);
+    }
+
+    private static SessionDisconnectEvent disconnect(String sessionId) {
+        return new SessionDisconnectEvent(new Object(), frame(StompCommand.DISCONNECT, sessionId, null),
+                sessionId, CloseStatus.NORMAL, USER);
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String sessionId, String subscriptionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        if (subscriptionId != null) {
+            accessor.setSubscriptionId(subscriptionId);
+            if (command == StompCommand.SUBSCRIBE) {
+                accessor.setDestination("/topic/" + ROOM_ID);
+            }
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.ChatMessage;
+import com.example.chating.domain.MessageType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 채팅방 메시지 묶음 전송 전후의 프레임 수와 전달 메시지당 CPU 시간을 비교합니다.
+ * - 프레임 하나: JSON 직렬화 1회 + 구독자마다 STOMP MESSAGE 프레임 인코딩 (simple broker 와 같은 비용 구조)
+ * - busy: 한 채팅방에 여러 스레드가 계속 전송 / idle: 여러 채팅방에 한 번씩 전송 (묶음 전송에서도 바로 전송되어야 함)
+ * 실행: ./gradlew benchmarkTest
+ */
+@Tag("benchmark")
+class RoomBroadcastBatchingBenchmarkTest {
+
+    private static final int SUBSCRIBERS = 50;
+    private static final int PRODUCERS = 4;
+    private static final int MESSAGES_PER_PRODUCER = 20_000;
+    private static final int IDLE_ROOMS = 20_000;
+    private static final long MAX_DELAY_MICROS = 5_000;
+    private static final int MAX_MESSAGES = 50;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final StompEncoder encoder = new StompEncoder();
+
+    @Test
+    void framesAndCpuPerDeliveredMessage() throws Exception {
+        System.out.printf("%-16s %10s %10s %12s %12s %16s%n",
+                "mode", "messages", "frames", "frames/s", "messages/s", "cpu ns/delivery");
+        Result direct = runBusy("busy direct", false);
+        Result batched = runBusy("busy batched", true);
+        runIdle("idle direct", false);
+        Result idleBatched = runIdle("idle batched", true);
+
+        assertTrue(batched.frames() < direct.frames());
+        assertTrue(batched.cpuNanosPerDelivery() < direct.cpuNanosPerDelivery());
+        // 한가한 채팅방은 묶지 않음
+        assertEquals(IDLE_ROOMS, idleBatched.frames());
+    }
+
+    private Result runBusy(String mode, boolean batching) throws Exception {
+        Sink sink = new Sink();
+        RoomMessageBatcher batcher = batching ? new RoomMessageBatcher(MAX_DELAY_MICROS, MAX_MESSAGES, sink) : null;
+        CountDownLatch done = new CountDownLatch(PRODUCERS);
+        long cpuStart = processCpuNanos();
+        long start = System.nanoTime();
+        for (int p = 0; p < PRODUCERS; p++) {
+            Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < MESSAGES_PER_PRODUCER; i++) {
+                    ChatMessage message = message(1L, i);
+                    if (batcher != null) {
+                        batcher.submit(1L, message);
+                    } else {
+                        sink.accept(1L, message);
+                    }
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.MINUTES));
+        if (batcher != null) {
+            batcher.close();
+        }
+        return report(mode, sink, PRODUCERS * MESSAGES_PER_PRODUCER, start, cpuStart);
+    }
+
+    private Result runIdle(String mode, boolean batching) {
+        Sink sink = new Sink();
+        RoomMessageBatcher batcher = batching ? new RoomMessageBatcher(MAX_DELAY_MICROS, MAX_MESSAGES, sink) : null;
+        long cpuStart = processCpuNanos();
+        long start = System.nanoTime();
+        for (long roomId = 1; roomId <= IDLE_ROOMS; roomId++) {
+            ChatMessage message = message(roomId, 0);
+            if (batcher != null) {
+                batcher.submit(roomId, message);
+            } else {
+                sink.accept(roomId, message);
+            }
+        }
+        if (batcher != null) {
+            batcher.close();
+        }
+        return report(mode, sink, IDLE_ROOMS, start, cpuStart);
+    }
+
+    private Result report(String mode, Sink sink, long messages, long start, long cpuStart) {
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        long frames = sink.frames.sum();
+        double cpuPerDelivery = (double) (processCpuNanos() - cpuStart) / (messages * SUBSCRIBERS);
+        System.out.printf("%-16s %10d %10d %12.0f %12.0f %16.0f%n",
+                mode, messages, frames, frames * SUBSCRIBERS / elapsedSeconds, messages * SUBSCRIBERS / elapsedSeconds, cpuPerDelivery);
+        return new Result(frames, cpuPerDelivery);
+    }
+
+    private static ChatMessage message(Long roomId, int sequence) {
+        return new ChatMessage(MessageType.TALK, roomId.toString(), 1L, "sender",
+                "benchmark message " + sequence, LocalDateTime.now());
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+
+    // 채팅방 프레임 전송: 직렬화 1회 + 구독자별 프레임 인코딩
+    private class Sink implements BiConsumer<Long, Object> {
+
+        private final LongAdder frames = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        @Override
+        public void accept(Long roomId, Object payload) {
+            byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(payload);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            for (int i = 0; i < SUBSCRIBERS; i++) {
+                StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+                accessor.setDestination("/topic/" + roomId);
+                accessor.setSubscriptionId("sub-" + i);
+                accessor.setMessageId(Long.toString(frames.sum()));
+                accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+                bytes.add(encoder.encode(MessageBuilder.createMessage(body, accessor.getMessageHeaders())).length);
+            }
+            frames.increment();
+        }
+    }
+
+    private record Result(long frames, double cpuNanosPerDelivery) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.chating.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 한가한 채팅방은 바로 보내고, 바쁜 채팅방은 순서를 유지한 채 배열 한 프레임으로 묶는지 확인합니다.
+ */
+class RoomMessageBatcherTest {
+
+    private final List<Object> frames = new CopyOnWriteArrayList<>();
+    private RoomMessageBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @Test
+    void sendsFirstMessageImmediatelyAndBatchesBurst() throws InterruptedException {
+        batcher = new RoomMessageBatcher(200_000, 50, (roomId, payload) -> frames.add(payload));
+
+        batcher.submit(1L, "m1");
+        assertEquals(List.of("m1"), frames); // 한가한 채팅방: 바로 전송
+
+        batcher.submit(1L, "m2");
+        batcher.submit(1L, "m3");
+        batcher.submit(1L, "m4");
+        assertEquals(1, frames.size());
+
+        awaitFrames(2);
+        assertEquals(List.of("m2", "m3", "m4"), frames.get(1));
+        assertEquals(2, batcher.getFrames());
+        assertEquals(4, batcher.getMessages());
+    }
+
+    @Test
+    void flushesWhenBatchIsFull() {
+        batcher = new RoomMessageBatcher(60_000_000, 3, (roomId, payload) -> frames.add(payload));
+
+        batcher.submit(1L, "m1");
+        batcher.submit(1L, "m2");
+        batcher.submit(1L, "m3");
+        batcher.submit(1L, "m4");
+
+        assertEquals(List.of("m1", List.of("m2", "m3", "m4")), frames);
+    }
+
+    @Test
+    void keepsRoomsIndependent() {
+        batcher = new RoomMessageBatcher(60_000_000, 50, (roomId, payload) -> frames.add(roomId + ":" + payload));
+
+        batcher.submit(1L, "m1");
+        batcher.submit(2L, "m1");
+
+        assertEquals(List.of("1:m1", "2:m1"), frames);
+    }
+
+    private void awaitFrames(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (frames.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.chating.Service;
+
+import com.example.chating.Dto.TypingUpdateDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 입력 중 요청 제한과 채팅방별 묶음 전송을 확인합니다. (전송 주기는 길게 두고 flush 를 직접 호출)
+ */
+class TypingServiceTest {
+
+    private static final Long ROOM_ID = 10L;
+
+    private ChatRoomMemberService chatRoomMemberService;
+    private ChatBroadcastService chatBroadcastService;
+    private TypingService typingService;
+
+    @BeforeEach
+    void setUp() {
+        chatRoomMemberService = mock(ChatRoomMemberService.class);
+        chatBroadcastService = mock(ChatBroadcastService.class);
+        when(chatRoomMemberService.getMemberIds(ROOM_ID)).thenReturn(Set.of(1L, 2L));
+        typingService = new TypingService(chatRoomMemberService, chatBroadcastService, 60_000, 120_000, 3_600_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        typingService.destroy();
+    }
+
+    @Test
+    void throttlesRepeatedRequestsAndCoalescesPerRoom() {
+        for (int i = 0; i < 10; i++) {
+            typingService.update(ROOM_ID, 1L, true);
+        }
+        typingService.update(ROOM_ID, 2L, true);
+        typingService.flush();
+
+        TypingUpdateDto update = captureSingleUpdate();
+        assertEquals(List.of(1L, 2L), update.getTyping().stream().sorted().toList());
+        assertEquals(2, typingService.getAccepted());
+        assertEquals(9, typingService.getThrottled());
+        // 참여 여부는 처음 입력을 시작할 때만 확인
+        verify(chatRoomMemberService, times(2)).getMemberIds(anyLong());
+    }
+
+    @Test
+    void sendsOnlyLastStateWithinInterval() {
+        typingService.update(ROOM_ID, 1L, true);
+        typingService.stop(ROOM_ID, 1L);
+        typingService.flush();
+
+        TypingUpdateDto update = captureSingleUpdate();
+        assertEquals(List.of(1L), update.getStopped());
+        assertEquals(List.of(), update.getTyping());
+    }
+
+    @Test
+    void ignoresNonMembersAndEmptyIntervals() {
+        typingService.update(ROOM_ID, 3L, true);
+        typingService.stop(ROOM_ID, 2L);
+        typingService.flush();
+
+        verify(chatBroadcastService, never()).sendToRoom(anyLong(), any(String.class), any());
+    }
+
+    private TypingUpdateDto captureSingleUpdate() {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(chatBroadcastService, times(1)).sendToRoom(eq(ROOM_ID), eq("typing"), payload.capture());
+        return (TypingUpdateDto) payload.getValue();
+    }
+}
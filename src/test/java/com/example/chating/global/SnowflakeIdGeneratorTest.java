@@ -0,0 +1,95 @@
+package com.example.chating.global;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 200_000;
+
+    @Test
+    void idsAreUniqueAndMonotonicPerThreadUnderContention() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tasks.add(() -> {
+                long[] ids = new long[IDS_PER_THREAD];
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            });
+        }
+
+        List<Future<long[]>> results = executor.invokeAll(tasks);
+        executor.shutdown();
+
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        int offset = 0;
+        for (Future<long[]> result : results) {
+            long[] ids = result.get();
+            for (int i = 1; i < ids.length; i++) {
+                assertTrue(ids[i] > ids[i - 1], "IDs must increase within a thread");
+            }
+            System.arraycopy(ids, 0, all, offset, ids.length);
+            offset += ids.length;
+        }
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertTrue(all[i] != all[i - 1], "Duplicate ID: " + all[i]);
+        }
+        for (long id : all) {
+            assertEquals(3, SnowflakeIdGenerator.extractNodeId(id));
+            assertTrue(id <= (1L << 53) - 1, "ID must fit in a JavaScript safe integer");
+        }
+    }
+
+    @Test
+    void idsStayMonotonicWhenClockMovesBackwards() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH_MILLIS + 10_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock::get);
+
+        long first = generator.nextId();
+        clock.addAndGet(-5_000);
+        long second = generator.nextId();
+
+        assertTrue(second > first);
+    }
+
+    @Test
+    void sequenceOverflowBorrowsNextMillisecond() {
+        long now = SnowflakeIdGenerator.EPOCH_MILLIS + 10_000;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, () -> now);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 1_000; i++) {
+            long next = generator.nextId();
+            assertTrue(next > previous);
+            previous = next;
+        }
+        assertTrue(SnowflakeIdGenerator.extractTimestamp(previous) > now);
+    }
+
+    @Test
+    void timestampIsEncodedInId() {
+        long now = SnowflakeIdGenerator.EPOCH_MILLIS + 123_456_789L;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, () -> now);
+
+        assertEquals(now, SnowflakeIdGenerator.extractTimestamp(generator.nextId()));
+    }
+}
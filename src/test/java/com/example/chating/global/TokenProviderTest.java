@@ -0,0 +1,32 @@
+package com.example.chating.global;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenProviderTest {
+
+    @Test
+    void verifiesTokenOnceAndServesClaimsFromCache() {
+        TokenProvider tokenProvider = new TokenProvider(100);
+        String token = tokenProvider.generateToken("haeun", 42L);
+
+        assertTrue(tokenProvider.isValidToken(token));
+        assertEquals(42L, tokenProvider.extractUserIdFromToken(token));
+        assertEquals("haeun", tokenProvider.extractUsernameFromToken(token));
+        assertEquals(1, tokenProvider.getVerifiedTokenMisses());
+        assertEquals(2, tokenProvider.getVerifiedTokenHits());
+    }
+
+    @Test
+    void rejectsTamperedToken() {
+        TokenProvider tokenProvider = new TokenProvider(100);
+        String token = tokenProvider.generateToken("haeun", 42L);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertFalse(tokenProvider.isValidToken(tampered));
+        assertTrue(tokenProvider.isValidToken(token));
+    }
+}
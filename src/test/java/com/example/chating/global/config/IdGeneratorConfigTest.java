@@ -0,0 +1,35 @@
+package com.example.chating.global.config;
+
+import com.example.chating.global.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 클러스터 모드에서 노드 번호를 지정하지 않으면 시작하지 않는지 확인합니다.
+ */
+class IdGeneratorConfigTest {
+
+    @Test
+    void clusterModeRequiresExplicitNodeId() {
+        assertThrows(IllegalStateException.class, () -> config(null, true).configureIdGenerator());
+        assertDoesNotThrow(() -> config(0, true).configureIdGenerator());
+    }
+
+    @Test
+    void singleInstanceDefaultsToNodeZero() {
+        config(null, false).configureIdGenerator();
+
+        assertEquals(0, SnowflakeIdGenerator.extractNodeId(SnowflakeIdGenerator.getInstance().nextId()));
+    }
+
+    private static IdGeneratorConfig config(Integer nodeId, boolean clusterEnabled) {
+        IdGeneratorConfig config = new IdGeneratorConfig();
+        ReflectionTestUtils.setField(config, "nodeId", nodeId);
+        ReflectionTestUtils.setField(config, "clusterEnabled", clusterEnabled);
+        return config;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.chating.global.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 밀린 세션에서 낮은 우선순위 목적지는 마지막 프레임만 보내고, 채팅방 메시지가 한도를 넘으면 연결을 끊는지 확인합니다.
+ */
+class OutboundBackpressureInterceptorTest {
+
+    private static final String SESSION_ID = "session-1";
+
+    private OutboundBackpressureInterceptor interceptor;
+    private WebSocketSession rawSession;
+    private WebSocketSession measuredSession;
+    private MessageChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        interceptor = new OutboundBackpressureInterceptor(
+                List.of("/user/queue/rooms", "/topic/*/presence"), 2, 4, 60_000, 3, 60, 5000);
+        rawSession = mock(WebSocketSession.class);
+        when(rawSession.getId()).thenReturn(SESSION_ID);
+        channel = mock(MessageChannel.class);
+
+        WebSocketHandler handler = mock(WebSocketHandler.class);
+        interceptor.decorate(handler).afterConnectionEstablished(rawSession);
+        ArgumentCaptor<WebSocketSession> session = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler).afterConnectionEstablished(session.capture());
+        measuredSession = session.getValue();
+    }
+
+    @Test
+    void coalescesLowPriorityFramesWhileBacklogged() throws Exception {
+        assertNotNull(interceptor.preSend(frame("/topic/1"), channel));
+        assertNotNull(interceptor.preSend(frame("/topic/1"), channel));
+        // 밀린 프레임 2개: 접속 상태 프레임은 보관 (마지막 것만 유지)
+        assertNull(interceptor.preSend(frame("/topic/1/presence"), channel));
+        assertNull(interceptor.preSend(frame("/topic/1/presence"), channel));
+        assertNull(interceptor.preSend(frame("/topic/1/presence"), channel));
+        assertEquals(1, interceptor.getHeldFrames());
+        assertEquals(2, interceptor.getCoalescedFrames());
+
+        // 한 프레임을 쓰면 밀린 프레임이 한도 아래로 줄어 보관 중인 프레임 전송
+        measuredSession.sendMessage(new TextMessage("frame"));
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(channel).send(sent.capture());
+        assertEquals("2", StompHeaderAccessor.wrap(sent.getValue())
+                .getFirstNativeHeader(OutboundBackpressureInterceptor.COALESCED_HEADER));
+        assertEquals(0, interceptor.getHeldFrames());
+    }
+
+    @Test
+    void evictsSessionWhenRoomMessagesExceedMaxBacklog() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertNotNull(interceptor.preSend(frame("/topic/1"), channel));
+        }
+        assertNull(interceptor.preSend(frame("/topic/1"), channel));
+
+        ArgumentCaptor<CloseStatus> status = ArgumentCaptor.forClass(CloseStatus.class);
+        verify(rawSession).close(status.capture());
+        assertEquals(4008, status.getValue().getCode());
+        assertEquals(1, interceptor.getBacklogEvictions());
+        // 종료 중인 세션에는 더 보내지 않음
+        assertNull(interceptor.preSend(frame("/topic/1"), channel));
+        assertEquals(2, interceptor.getDroppedFrames());
+    }
+
+    @Test
+    void passesFramesForUnknownSessions() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("other");
+        accessor.setDestination("/topic/1/presence");
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        assertNotNull(interceptor.preSend(message, channel));
+        verify(channel, never()).send(any());
+    }
+
+    private static Message<byte[]> frame(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(SESSION_ID);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage("{}".getBytes(), accessor.getMessageHeaders());
+    }
+}
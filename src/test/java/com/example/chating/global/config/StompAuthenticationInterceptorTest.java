@@ -0,0 +1,62 @@
+package com.example.chating.global.config;
+
+import com.example.chating.global.TokenProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.security.Principal;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 토큰 없는 연결과 인증되지 않은 세션의 구독 / 전송이 거부되는지 확인합니다.
+ */
+class StompAuthenticationInterceptorTest {
+
+    private final StompAuthenticationInterceptor interceptor =
+            new StompAuthenticationInterceptor(mock(TokenProvider.class));
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @Test
+    void rejectsConnectWithoutToken() {
+        assertThrows(IllegalArgumentException.class,
+                () -> interceptor.preSend(frame(StompCommand.CONNECT, null), channel));
+    }
+
+    @Test
+    void rejectsConnectWithInvalidToken() {
+        Message<byte[]> connect = frame(StompCommand.CONNECT, null);
+        StompHeaderAccessor.getAccessor(connect, StompHeaderAccessor.class).addNativeHeader("Authorization", "Bearer invalid");
+        assertThrows(IllegalArgumentException.class, () -> interceptor.preSend(connect, channel));
+    }
+
+    @Test
+    void rejectsSubscribeAndSendWithoutUser() {
+        assertThrows(IllegalArgumentException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, null), channel));
+        assertThrows(IllegalArgumentException.class,
+                () -> interceptor.preSend(frame(StompCommand.SEND, null), channel));
+    }
+
+    @Test
+    void passesFramesFromAuthenticatedSession() {
+        Principal user = () -> "7";
+        assertNotNull(interceptor.preSend(frame(StompCommand.SUBSCRIBE, user), channel));
+        assertNotNull(interceptor.preSend(frame(StompCommand.SEND, user), channel));
+        assertNotNull(interceptor.preSend(frame(StompCommand.DISCONNECT, null), channel));
+    }
+
+    private static Message<byte[]> frame(StompCommand command, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId("session-1");
+        accessor.setUser(user);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.chating.global.config;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * STOMP 인바운드 채널 처리량을 스레드 모드별로 비교합니다. (대기 위주의 메시지 처리)
+ * - 메시지 하나: Redis 대기(제한 없음) + DB 대기(커넥션 풀 크기로 제한)
+ * - 플랫폼 스레드: Spring 기본 인바운드 채널과 같은 크기(코어 수 x 2)의 스레드 풀
+ * - 가상 스레드: WebSocketConfig 의 spring.threads.virtual.enabled=true 설정과 같은 executor
+ * 실행: ./gradlew benchmarkTest
+ */
+@Tag("benchmark")
+class VirtualThreadChannelBenchmarkTest {
+
+    private static final int MESSAGES = 5_000;
+    private static final int DB_POOL_SIZE = 20;
+    private static final long REDIS_WAIT_MS = 5;
+    private static final long DB_WAIT_MS = 5;
+
+    @Test
+    void blockingHandlerThroughputByThreadMode() throws Exception {
+        ThreadPoolTaskExecutor platform = new ThreadPoolTaskExecutor();
+        platform.setCorePoolSize(Runtime.getRuntime().availableProcessors() * 2);
+        platform.setThreadNamePrefix("bench-inbound-");
+        platform.initialize();
+
+        SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("bench-virtual-");
+        virtual.setVirtualThreads(true);
+
+        System.out.printf("%-22s %12s %14s%n", "mode", "elapsed(ms)", "messages/s");
+        double platformRate = run("platform (" + platform.getCorePoolSize() + " threads)", platform);
+        double virtualRate = run("virtual threads", virtual);
+        platform.shutdown();
+
+        assertTrue(virtualRate > platformRate);
+    }
+
+    private double run(String mode, Executor executor) throws InterruptedException {
+        ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel(executor);
+        Semaphore connectionPool = new Semaphore(DB_POOL_SIZE);
+        CountDownLatch done = new CountDownLatch(MESSAGES);
+
+        channel.subscribe(message -> {
+            try {
+                Thread.sleep(REDIS_WAIT_MS);
+                connectionPool.acquire();
+                try {
+                    Thread.sleep(DB_WAIT_MS);
+                } finally {
+                    connectionPool.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        });
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            channel.send(MessageBuilder.withPayload(i).build());
+        }
+        assertTrue(done.await(5, TimeUnit.MINUTES));
+        double elapsedMs = (System.nanoTime() - start) / 1e6;
+        double rate = MESSAGES / (elapsedMs / 1000);
+        System.out.printf("%-22s %12.0f %14.0f%n", mode, elapsedMs, rate);
+        return rate;
+    }
+}
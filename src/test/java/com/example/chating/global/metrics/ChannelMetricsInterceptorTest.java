@@ -0,0 +1,88 @@
+package com.example.chating.global.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 메시지 하나가 구독 handler 수만큼 대기 / 처리 중으로 집계되는지 확인합니다.
+ * (executor 는 작업을 쌓아 두고 테스트에서 하나씩 실행)
+ */
+class ChannelMetricsInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Queue<Runnable> tasks;
+    private ExecutorSubscribableChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tasks = new ArrayDeque<>();
+        channel = new ExecutorSubscribableChannel(tasks::add);
+        channel.addInterceptor(new ChannelMetricsInterceptor(meterRegistry, "inbound"));
+    }
+
+    @Test
+    void countsQueuedAndActiveTasksPerHandler() {
+        List<double[]> seenByHandlers = new ArrayList<>();
+        MessageHandler handler = message -> seenByHandlers.add(new double[]{queued(), active()});
+        channel.subscribe(handler);
+        channel.subscribe(message -> handler.handleMessage(message));
+
+        channel.send(message());
+        channel.send(message());
+        assertEquals(4, queued());
+        assertEquals(0, active());
+
+        // 실행 중인 handler 는 대기에서 빠지고 처리 중으로 집계
+        tasks.poll().run();
+        assertEquals(3, seenByHandlers.get(0)[0]);
+        assertEquals(1, seenByHandlers.get(0)[1]);
+        assertEquals(3, queued());
+        assertEquals(0, active());
+
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+        assertEquals(0, queued());
+        assertEquals(0, active());
+    }
+
+    @Test
+    void activeCountDropsWhenHandlerFails() {
+        channel.subscribe(message -> {
+            throw new IllegalStateException("handler failed");
+        });
+
+        channel.send(message());
+        assertThrows(MessageDeliveryException.class, () -> tasks.poll().run());
+
+        assertEquals(0, queued());
+        assertEquals(0, active());
+    }
+
+    private double queued() {
+        return meterRegistry.get("chat.stomp.channel.queued").tag("channel", "inbound").gauge().value();
+    }
+
+    private double active() {
+        return meterRegistry.get("chat.stomp.channel.active").tag("channel", "inbound").gauge().value();
+    }
+
+    private static Message<byte[]> message() {
+        return MessageBuilder.withPayload(new byte[0]).build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.chating.global.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 같은 구독 ID 로 다시 구독하거나 세션이 끊겼을 때 세션 / 구독 수가 맞는지 확인합니다.
+ */
+class StompSessionMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StompSessionMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new StompSessionMetrics(meterRegistry);
+    }
+
+    @Test
+    void resubscribeWithSameIdReplacesPreviousDestination() {
+        metrics.onConnected(connected("s1"));
+        metrics.onSubscribe(subscribe("s1", "sub-0", "/topic/1"));
+        metrics.onSubscribe(subscribe("s1", "sub-0", "/topic/1"));
+        assertEquals(1, metrics.getLocalSubscribers("/topic/1"));
+        assertEquals(1, subscriptions("/topic"));
+
+        // 같은 구독 ID 로 다른 목적지를 구독하면 이전 목적지에서 빠짐
+        metrics.onSubscribe(subscribe("s1", "sub-0", "/user/queue/rooms"));
+        assertEquals(0, metrics.getLocalSubscribers("/topic/1"));
+        assertEquals(1, metrics.getLocalSubscribers("/user/queue/rooms"));
+        assertEquals(0, subscriptions("/topic"));
+        assertEquals(1, subscriptions("/user/queue"));
+    }
+
+    @Test
+    void disconnectRemovesSessionAndItsSubscriptions() {
+        metrics.onConnected(connected("s1"));
+        metrics.onConnected(connected("s2"));
+        metrics.onSubscribe(subscribe("s1", "sub-0", "/topic/1"));
+        metrics.onSubscribe(subscribe("s1", "sub-1", "/user/queue/rooms"));
+        metrics.onSubscribe(subscribe("s2", "sub-0", "/topic/1"));
+        assertEquals(2, sessions());
+        assertEquals(2, metrics.getLocalSubscribers("/topic/1"));
+
+        metrics.onDisconnect(disconnect("s1"));
+        assertEquals(1, sessions());
+        assertEquals(1, metrics.getLocalSubscribers("/topic/1"));
+        assertEquals(0, metrics.getLocalSubscribers("/user/queue/rooms"));
+        assertEquals(1, subscriptions("/topic"));
+        assertEquals(0, subscriptions("/user/queue"));
+
+        // DISCONNECT 프레임 후 연결 종료로 한 번 더 오는 이벤트는 무시
+        metrics.onDisconnect(disconnect("s1"));
+        assertEquals(1, sessions());
+        assertEquals(1, subscriptions("/topic"));
+    }
+
+    private double sessions() {
+        return meterRegistry.get("chat.stomp.sessions").gauge().value();
+    }
+
+    private double subscriptions(String prefix) {
+        return meterRegistry.get("chat.stomp.subscriptions").tag("prefix", prefix).gauge().value();
+    }
+
+    private static SessionConnectedEvent connected(String sessionId) {
+        return new SessionConnectedEvent(new Object(), frame(StompCommand.CONNECTED, sessionId, null, null));
+    }
+
+    private static SessionSubscribeEvent subscribe(String sessionId, String subscriptionId, String destination) {
+        return new SessionSubscribeEvent(new Object(), frame(StompCommand.SUBSCRIBE, sessionId, subscriptionId, destination));
+    }
+
+    private static SessionDisconnectEvent disconnect(String sessionId) {
+        return new SessionDisconnectEvent(new Object(), frame(StompCommand.DISCONNECT, sessionId, null, null),
+                sessionId, CloseStatus.NORMAL);
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        if (subscriptionId != null) {
+            accessor.setSubscriptionId(subscriptionId);
+        }
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.chating.global.migration;
+
+import com.example.chating.Redis.CompactRedisSerializer;
+import com.example.chating.global.config.RedisConfig;
+import com.example.chating.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 이전 형식(타입 정보 포함 JSON)으로 쓴 Redis 값을 시작 시 자동으로 변환하는지 임베디드 Redis 로 확인합니다.
+ */
+class RedisFormatMigrationTest {
+
+    private static EmbeddedRedis redis;
+    private static RedisTemplate<String, Object> legacyTemplate;
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private CompactRedisSerializer serializer;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redis = EmbeddedRedis.start();
+        // 이전 버전 노드와 같은 직렬화기
+        GenericJackson2JsonRedisSerializer legacySerializer = new GenericJackson2JsonRedisSerializer(RedisConfig.legacyObjectMapper());
+        legacyTemplate = new RedisTemplate<>();
+        legacyTemplate.setConnectionFactory(redis.getConnectionFactory());
+        legacyTemplate.setKeySerializer(new StringRedisSerializer());
+        legacyTemplate.setHashKeySerializer(new StringRedisSerializer());
+        legacyTemplate.setValueSerializer(legacySerializer);
+        legacyTemplate.setHashValueSerializer(legacySerializer);
+        legacyTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flushAll();
+        // 애플리케이션 빈과 같이 이전 형식 읽기를 켠 상태로 시작
+        redisTemplate = RedisConfig.createRedisTemplate(redis.getConnectionFactory(), true);
+        redisTemplate.afterPropertiesSet();
+        serializer = (CompactRedisSerializer) redisTemplate.getValueSerializer();
+    }
+
+    @Test
+    void migratesLegacyValuesBeforeTurningLegacyReadOff() {
+        legacyTemplate.opsForSet().add("chatroom:1:users", 7L, 8L);
+        legacyTemplate.opsForValue().set("chatroom:1:latestMessage", "hello");
+        legacyTemplate.opsForZSet().add("user:7:rooms:activity", 1L, 100);
+
+        migration(false, false).migrate();
+
+        assertFalse(serializer.isLegacyReadEnabled());
+        assertEquals(RedisFormatMigration.FORMAT_COMPACT, redisTemplate.opsForValue().get(RedisFormatMigration.FORMAT_KEY));
+        assertEquals(Set.of("7", "8"), redis.stringRedisTemplate().opsForSet().members("chatroom:1:users"));
+        assertEquals("hello", redisTemplate.opsForValue().get("chatroom:1:latestMessage"));
+        assertEquals(Set.of("1"), redis.stringRedisTemplate().opsForZSet().range("user:7:rooms:activity", 0, -1));
+    }
+
+    @Test
+    void skipsMarkedRedisUnlessForced() {
+        redisTemplate.opsForValue().set(RedisFormatMigration.FORMAT_KEY, RedisFormatMigration.FORMAT_COMPACT);
+        legacyTemplate.opsForValue().set("chatroom:1:latestMessage", "hello");
+
+        // 롤링 배포 중: 변환하지 않고 이전 형식 읽기 유지
+        migration(false, true).migrate();
+        assertTrue(serializer.isLegacyReadEnabled());
+        assertEquals("\"hello\"", redis.stringRedisTemplate().opsForValue().get("chatroom:1:latestMessage"));
+
+        // 이전 노드가 모두 내려간 뒤 한 번 더 변환
+        migration(true, false).migrate();
+        assertFalse(serializer.isLegacyReadEnabled());
+        assertEquals("hello", redis.stringRedisTemplate().opsForValue().get("chatroom:1:latestMessage"));
+    }
+
+    private RedisFormatMigration migration(boolean force, boolean legacyReadEnabled) {
+        RedisFormatMigration migration = new RedisFormatMigration(redisTemplate);
+        ReflectionTestUtils.setField(migration, "force", force);
+        ReflectionTestUtils.setField(migration, "legacyReadEnabled", legacyReadEnabled);
+        return migration;
+    }
+}
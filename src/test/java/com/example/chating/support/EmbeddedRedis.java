@@ -0,0 +1,74 @@
+package com.example.chating.support;
+
+import com.example.chating.global.config.RedisConfig;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * 테스트용 임베디드 Redis (빈 포트에서 실행) 와 연결
+ * - @BeforeAll 에서 start(), @AfterAll 에서 close() 를 호출합니다.
+ * - redisTemplate() 은 애플리케이션과 같은 값 직렬화기(RedisConfig)를 사용합니다.
+ */
+public final class EmbeddedRedis implements AutoCloseable {
+
+    private final RedisServer server;
+    private final int port;
+    private final LettuceConnectionFactory connectionFactory;
+
+    private EmbeddedRedis(RedisServer server, int port, LettuceConnectionFactory connectionFactory) {
+        this.server = server;
+        this.port = port;
+        this.connectionFactory = connectionFactory;
+    }
+
+    public static EmbeddedRedis start() throws IOException {
+        int port = freePort();
+        RedisServer server = new RedisServer(port);
+        server.start();
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        return new EmbeddedRedis(server, port, connectionFactory);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public LettuceConnectionFactory getConnectionFactory() {
+        return connectionFactory;
+    }
+
+    public RedisTemplate<String, Object> redisTemplate() {
+        // 변환이 끝난 Redis 와 같이 이전 형식 읽기는 끔
+        RedisTemplate<String, Object> redisTemplate = RedisConfig.createRedisTemplate(connectionFactory, false);
+        redisTemplate.afterPropertiesSet();
+        return redisTemplate;
+    }
+
+    public StringRedisTemplate stringRedisTemplate() {
+        return new StringRedisTemplate(connectionFactory);
+    }
+
+    public void flushAll() {
+        connectionFactory.getConnection().serverCommands().flushAll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
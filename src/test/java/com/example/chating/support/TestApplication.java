@@ -0,0 +1,35 @@
+package com.example.chating.support;
+
+import com.example.chating.ChatingApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 테스트용 애플리케이션 노드 실행 (H2 인메모리 DB + 지정한 Redis, 임의 포트, 검색 색인 꺼짐)
+ * - name 은 노드별 H2 DB 이름이며, properties 로 chat.* 설정을 추가하거나 덮어씁니다. ("--key=value")
+ */
+public final class TestApplication {
+
+    private TestApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String name, int redisPort, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.data.redis.host=localhost",
+                "--spring.data.redis.port=" + redisPort,
+                "--chat.search.enabled=false"
+        ));
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(ChatingApplication.class).run(args.toArray(String[]::new));
+    }
+}